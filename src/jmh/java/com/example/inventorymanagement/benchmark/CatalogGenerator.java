@@ -0,0 +1,55 @@
+package com.example.inventorymanagement.benchmark;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds synthetic catalogs of any size for the benchmarks. Article ids are {@code 1..n} and every
+ * product uses {@code bomWidth} distinct, randomly chosen articles; the same seed always yields the
+ * same catalog.
+ */
+final class CatalogGenerator {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private CatalogGenerator() {
+    }
+
+    static List<Article> articles(int count, int stock) {
+        List<Article> articles = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            articles.add(new Article(String.valueOf(i), "article-" + i, stock));
+        }
+        return articles;
+    }
+
+    static List<Product> products(int count, int articleCount, int bomWidth, int stock, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int p = 1; p <= count; p++) {
+            List<ContainArticle> containArticles = new ArrayList<>(bomWidth);
+            int first = random.nextInt(articleCount);
+            for (int k = 0; k < Math.min(bomWidth, articleCount); k++) {
+                int article = (first + k * (articleCount / bomWidth + 1)) % articleCount + 1;
+                containArticles.add(new ContainArticle(String.valueOf(article), 1 + random.nextInt(4)));
+            }
+            products.add(new Product("product-" + p, containArticles, 1 + random.nextInt(10_000) / 100.0, stock));
+        }
+        return products;
+    }
+
+    static byte[] articlesJson(List<Article> articles) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("articles", articles));
+    }
+
+    static byte[] productsJson(List<Product> products) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("products", products));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.inventorymanagement.benchmark;
+
+import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.service.impl.WarehouseServiceImpl;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link WarehouseServiceImpl} operations on a synthetic catalog with
+ * {@code catalogSize} articles and as many products, each built from {@code bomWidth} articles.
+ * Stock is large enough that orders and assemblies keep succeeding, and the store is rebuilt before
+ * every iteration. The journal is not attached, so these numbers measure the in-memory engine.
+ * <p>
+ * Thread count is a JMH option: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="-f 1 -t 8"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class WarehouseServiceBenchmark {
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"4", "16"})
+    public int bomWidth;
+
+    private List<Article> articles;
+    private List<Product> products;
+    private byte[] articlesJson;
+    private byte[] productsJson;
+    private WarehouseServiceImpl warehouseService;
+
+    @Setup(Level.Trial)
+    public void generateCatalog() throws IOException {
+        articles = CatalogGenerator.articles(catalogSize, STOCK);
+        products = CatalogGenerator.products(catalogSize, catalogSize, bomWidth, STOCK, 42);
+        articlesJson = CatalogGenerator.articlesJson(articles);
+        productsJson = CatalogGenerator.productsJson(products);
+    }
+
+    @Setup(Level.Iteration)
+    public void loadStore() {
+        warehouseService = new WarehouseServiceImpl();
+        ReflectionTestUtils.setField(warehouseService, "inventoryStore", new InventoryStore(articles, products));
+    }
+
+    @Benchmark
+    public Boolean processOrder(Caller caller) {
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Collections.singletonList(new RequiredProduct(caller.productName(this), 1)));
+        return warehouseService.processOrder(request);
+    }
+
+    @Benchmark
+    public Boolean updateOrAddProduct(Caller caller) throws IOException {
+        Product product = products.get(caller.random.nextInt(products.size()));
+        AddProductRequest request = new AddProductRequest();
+        request.setName(product.getName());
+        request.setPrice(product.getPrice());
+        request.setStock(1);
+        request.setArticleQuantities(product.getContain_articles());
+        return warehouseService.updateOrAddProduct(request);
+    }
+
+    /**
+     * Includes listing every article, which the endpoint returns after each restock.
+     */
+    @Benchmark
+    public List<Article> updateOrAddArticle(Caller caller) throws IOException {
+        AddArticleRequest request = new AddArticleRequest();
+        request.setName(articles.get(caller.random.nextInt(articles.size())).getName());
+        request.setStock(1);
+        return warehouseService.updateOrAddArticle(request);
+    }
+
+    @Benchmark
+    public Map<String, Integer> retrieveAllProducts() {
+        return warehouseService.retrieveAllProducts();
+    }
+
+    /**
+     * Served from the stock index; every article matches, so the cost is that of the first page.
+     */
+    @Benchmark
+    public List<Article> findArticlesByStock() {
+        return warehouseService.findArticlesByStock(0, STOCK, 100);
+    }
+
+    @Benchmark
+    public Map<String, Integer> retrieveTopProducts() {
+        return warehouseService.retrieveTopProducts(10, true);
+    }
+
+    @Benchmark
+    public ImportReport importArticles() {
+        return warehouseService.importArticles(new ByteArrayInputStream(articlesJson));
+    }
+
+    @Benchmark
+    public ImportReport importProducts() {
+        return warehouseService.importProducts(new ByteArrayInputStream(productsJson));
+    }
+
+    /**
+     * Per-thread source of randomly chosen catalog entries.
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        private final SplittableRandom random = new SplittableRandom();
+
+        String productName(WarehouseServiceBenchmark benchmark) {
+            return benchmark.products.get(random.nextInt(benchmark.products.size())).getName();
+        }
+    }
+}
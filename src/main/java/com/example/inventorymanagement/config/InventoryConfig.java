@@ -0,0 +1,148 @@
+package com.example.inventorymanagement.config;
+
+import com.example.inventorymanagement.idempotency.IdempotencyCache;
+import com.example.inventorymanagement.importer.CatalogReloader;
+import com.example.inventorymanagement.importer.ParallelCatalogReader;
+import com.example.inventorymanagement.journal.InventoryPersistence;
+import com.example.inventorymanagement.planner.AllocationPlanner;
+import com.example.inventorymanagement.snapshot.MappedSnapshot;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.StockHolds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class InventoryConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryConfig.class);
+
+    @Value("${warehouse.catalog.articles-path}")
+    private String articlesPath;
+
+    @Value("${warehouse.catalog.products-path}")
+    private String productsPath;
+
+    @Value("${warehouse.catalog.snapshot-path:}")
+    private String snapshotPath;
+
+    /**
+     * <B>Description :</B> Recovers the inventory from its snapshot and stock journal
+     *
+     * @return InventoryPersistence owning the journal of the shared store
+     * @throws IOException if the snapshot, journal or catalog files cannot be read
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "warehouse.journal.enabled", havingValue = "true")
+    public InventoryPersistence inventoryPersistence(@Value("${warehouse.journal.dir}") String journalDir,
+                                                     @Value("${warehouse.journal.compaction-interval-seconds}") long compactionInterval) throws IOException {
+        return InventoryPersistence.recover(Path.of(journalDir), this::loadCatalog, compactionInterval);
+    }
+
+    /**
+     * <B>Description :</B> Loads the article and product catalogs once at startup and, in
+     * {@code sequencer} engine mode, starts the single writer thread that applies every mutation
+     *
+     * @return InventoryStore shared by every request
+     * @throws IOException if the catalog files cannot be read
+     */
+    @Bean(destroyMethod = "stopSequencer")
+    public InventoryStore inventoryStore(ObjectProvider<InventoryPersistence> persistence,
+                                         @Value("${warehouse.engine.mode:locking}") String engineMode,
+                                         @Value("${warehouse.engine.ring-size:1024}") int ringSize) throws IOException {
+        InventoryPersistence inventoryPersistence = persistence.getIfAvailable();
+        InventoryStore store = inventoryPersistence != null ? inventoryPersistence.getStore() : loadCatalog();
+        switch (engineMode) {
+            case "locking" -> LOGGER.info("Applying inventory mutations under striped locks");
+            case "sequencer" -> {
+                store.startSequencer(ringSize);
+                LOGGER.info("Applying inventory mutations on a single writer thread, ring size {}", ringSize);
+            }
+            default -> throw new IllegalArgumentException("Unknown warehouse.engine.mode: " + engineMode);
+        }
+        return store;
+    }
+
+    /**
+     * <B>Description :</B> Keeps the stock holds of the shared store and expires them on a timing wheel
+     *
+     * @return StockHolds of the shared store
+     */
+    @Bean(destroyMethod = "close")
+    public StockHolds stockHolds(InventoryStore inventoryStore,
+                                 @Value("${warehouse.holds.tick-millis:100}") long tickMillis,
+                                 @Value("${warehouse.holds.wheel-size:1024}") int wheelSize) {
+        return new StockHolds(inventoryStore, tickMillis, wheelSize);
+    }
+
+    /**
+     * <B>Description :</B> Remembers order outcomes by idempotency key so that retried orders are not placed twice
+     *
+     * @return IdempotencyCache bounded to the configured number of keys
+     */
+    @Bean
+    public IdempotencyCache<Boolean> idempotencyCache(@Value("${warehouse.idempotency.max-keys:100000}") int maxKeys,
+                                                      @Value("${warehouse.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        return new IdempotencyCache<>(maxKeys, ttlSeconds * 1000);
+    }
+
+    /**
+     * <B>Description :</B> Parses uploaded catalog documents in parallel on the common fork-join pool
+     *
+     * @return ParallelCatalogReader for bulk uploads
+     */
+    @Bean
+    public ParallelCatalogReader parallelCatalogReader(@Value("${warehouse.bulk.chunk-size:1024}") int chunkSize,
+                                                       @Value("${warehouse.bulk.max-bytes:268435456}") int maxBytes) {
+        return new ParallelCatalogReader(ForkJoinPool.commonPool(), chunkSize, maxBytes);
+    }
+
+    /**
+     * <B>Description :</B> Plans article allocations over the common fork-join pool
+     *
+     * @return AllocationPlanner for competing products
+     */
+    @Bean
+    public AllocationPlanner allocationPlanner() {
+        return new AllocationPlanner(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <B>Description :</B> Watches the catalog files and applies the records that change in them
+     *
+     * @return CatalogReloader started with the current files as baseline
+     * @throws IOException if the catalog files cannot be parsed or their directories cannot be watched
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "warehouse.catalog.reload.enabled", havingValue = "true")
+    public CatalogReloader catalogReloader(InventoryStore inventoryStore,
+                                           @Value("${warehouse.catalog.reload.debounce-millis:500}") long debounceMillis) throws IOException {
+        CatalogReloader reloader = CatalogReloader.start(inventoryStore, Path.of(articlesPath), Path.of(productsPath),
+                debounceMillis);
+        LOGGER.info("Watching {} and {} for catalog changes", articlesPath, productsPath);
+        return reloader;
+    }
+
+    /**
+     * <B>Description :</B> Maps the binary catalog snapshot when one is configured, otherwise parses
+     * the JSON catalog files
+     */
+    private InventoryStore loadCatalog() throws IOException {
+        if (!snapshotPath.isBlank() && Files.exists(Path.of(snapshotPath))) {
+            InventoryStore store = InventoryStore.fromSnapshot(MappedSnapshot.open(Path.of(snapshotPath)));
+            LOGGER.info("Loaded inventory from snapshot {}", snapshotPath);
+            return store;
+        }
+        InventoryStore store = InventoryStore.load(articlesPath, productsPath);
+        LOGGER.info("Loaded inventory from {} and {}", articlesPath, productsPath);
+        return store;
+    }
+}
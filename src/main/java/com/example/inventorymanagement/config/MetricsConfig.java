@@ -0,0 +1,66 @@
+package com.example.inventorymanagement.config;
+
+import com.example.inventorymanagement.store.InventoryMetrics;
+import com.example.inventorymanagement.store.InventoryStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * <B>Description :</B> Publishes the counters the inventory records on its hot paths. The meters
+     * read the counters only when the registry is scraped, so requests never touch the registry.
+     * Endpoint latencies are recorded by Spring's {@code http.server.requests} timer, whose
+     * percentiles are configured in application.properties.
+     *
+     * @param inventoryStore store whose counters are published
+     * @return MeterBinder registering the inventory meters
+     */
+    @Bean
+    public MeterBinder inventoryMeters(InventoryStore inventoryStore) {
+        InventoryMetrics metrics = inventoryStore.getMetrics();
+        return registry -> {
+            counter("warehouse.orders", "outcome", "placed", metrics, InventoryMetrics::ordersPlaced).register(registry);
+            counter("warehouse.orders", "outcome", "out_of_stock", metrics, InventoryMetrics::ordersOutOfStock)
+                    .register(registry);
+            counter("warehouse.assemblies", "outcome", "assembled", metrics, InventoryMetrics::assemblies)
+                    .register(registry);
+            counter("warehouse.assemblies", "outcome", "out_of_stock", metrics, InventoryMetrics::assembliesOutOfStock)
+                    .register(registry);
+            for (int kind : new int[]{InventoryMetrics.ARTICLES, InventoryMetrics.PRODUCTS}) {
+                String kindName = kind == InventoryMetrics.ARTICLES ? "articles" : "products";
+                FunctionTimer.builder("warehouse.lock.wait", metrics, m -> m.lockContended(kind),
+                                m -> m.lockWaitNanos(kind), TimeUnit.NANOSECONDS)
+                        .tag("stripe", kindName)
+                        .description("Time spent waiting for contended stock locks")
+                        .register(registry);
+                FunctionTimer.builder("warehouse.import", metrics, m -> m.imports(kind), m -> m.importNanos(kind),
+                                TimeUnit.NANOSECONDS)
+                        .tag("catalog", kindName)
+                        .description("Duration of catalog imports")
+                        .register(registry);
+                counter("warehouse.import.records", "outcome", "accepted", metrics, m -> m.importAccepted(kind))
+                        .tag("catalog", kindName).register(registry);
+                counter("warehouse.import.records", "outcome", "rejected", metrics, m -> m.importRejected(kind))
+                        .tag("catalog", kindName).register(registry);
+            }
+            Gauge.builder("warehouse.inventory.version", inventoryStore, InventoryStore::version)
+                    .description("Number of changes applied to the inventory")
+                    .register(registry);
+        };
+    }
+
+    private static FunctionCounter.Builder<InventoryMetrics> counter(String name, String tag, String value,
+                                                                     InventoryMetrics metrics,
+                                                                     ToLongFunction<InventoryMetrics> count) {
+        return FunctionCounter.builder(name, metrics, m -> count.applyAsLong(m)).tag(tag, value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.inventorymanagement.config;
+
+import com.example.inventorymanagement.shard.HttpShard;
+import com.example.inventorymanagement.shard.InventoryShard;
+import com.example.inventorymanagement.shard.LocalShard;
+import com.example.inventorymanagement.shard.ShardRouter;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs this instance as one shard of a cluster when {@code warehouse.shards.urls} lists the base
+ * URLs of every instance, in the same order on every instance, and {@code warehouse.shards.index}
+ * names this instance's position in that list.
+ */
+@Configuration
+@ConditionalOnExpression("'${warehouse.shards.urls:}' != ''")
+public class ShardConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardConfig.class);
+
+    /**
+     * <B>Description :</B> Exposes this instance's store as a shard that other instances reserve on
+     *
+     * @return LocalShard over the shared store
+     */
+    @Bean(destroyMethod = "close")
+    public LocalShard localShard(InventoryStore inventoryStore,
+                                 @Value("${warehouse.shards.reservation-timeout-millis:30000}") long reservationTimeout) {
+        return new LocalShard(inventoryStore, reservationTimeout);
+    }
+
+    /**
+     * <B>Description :</B> Routes orders to the instance owning each product, using this instance's
+     * store directly and the other instances over HTTP
+     *
+     * <p>
+     * Commits start at most one request timeout before the reservations expire, so a shard never
+     * releases a reservation the router may still commit.
+     *
+     * @return ShardRouter over every instance of the cluster
+     */
+    @Bean
+    public ShardRouter shardRouter(LocalShard localShard,
+                                   @Value("${warehouse.shards.urls}") List<String> urls,
+                                   @Value("${warehouse.shards.index}") int index,
+                                   @Value("${warehouse.shards.request-timeout-millis:2000}") long requestTimeout,
+                                   @Value("${warehouse.shards.reservation-timeout-millis:30000}") long reservationTimeout) {
+        if (index < 0 || index >= urls.size()) {
+            throw new IllegalArgumentException("warehouse.shards.index must point into warehouse.shards.urls: " + index);
+        }
+        if (reservationTimeout <= requestTimeout) {
+            throw new IllegalArgumentException("warehouse.shards.reservation-timeout-millis must be above "
+                    + "warehouse.shards.request-timeout-millis: " + reservationTimeout);
+        }
+        List<InventoryShard> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(i == index ? localShard : new HttpShard(urls.get(i).trim(), Duration.ofMillis(requestTimeout)));
+        }
+        LOGGER.info("Running as shard {} of {}", index, urls.size());
+        return new ShardRouter(shards, reservationTimeout - requestTimeout);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.inventorymanagement.config;
+
+import com.example.inventorymanagement.controller.StockChangeBroadcaster;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.StockFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the stock changes of the shared store to a feed that clients follow as server-sent
+ * events instead of polling the whole catalog.
+ */
+@Configuration
+public class StockFeedConfig {
+
+    /**
+     * <B>Description :</B> Attaches a change feed to the shared store
+     *
+     * @return StockFeed holding the most recent stock changes
+     */
+    @Bean
+    public StockFeed stockFeed(InventoryStore inventoryStore,
+                               @Value("${warehouse.feed.capacity:65536}") int capacity) {
+        StockFeed feed = new StockFeed(capacity);
+        inventoryStore.attachFeed(feed);
+        return feed;
+    }
+
+    /**
+     * <B>Description :</B> Streams the change feed to its subscribers
+     *
+     * @return StockChangeBroadcaster flushing the feed every interval
+     */
+    @Bean(destroyMethod = "close")
+    public StockChangeBroadcaster stockChangeBroadcaster(InventoryStore inventoryStore, StockFeed stockFeed,
+                                                         @Value("${warehouse.feed.flush-millis:100}") long flushMillis,
+                                                         @Value("${warehouse.feed.sender-threads:8}") int senderThreads,
+                                                         @Value("${warehouse.feed.max-subscribers:1000}") int maxSubscribers) {
+        return new StockChangeBroadcaster(inventoryStore, stockFeed, flushMillis, senderThreads, maxSubscribers);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.store.InventoryStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the catalog polling endpoints from serialized bytes cached per inventory version. The
+ * response of each endpoint is serialized once per {@link InventoryStore#version()}, sent with an
+ * {@code ETag} naming that version, and replayed byte for byte until the inventory changes;
+ * requests whose {@code If-None-Match} names the current version are answered with 304.
+ * <p>
+ * The version is read before the controller builds the response, so a change applied while the
+ * response is being built at worst labels it with the older version, which stops matching as soon
+ * as that change is visible.
+ */
+@Component
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+    private static final Set<String> CACHED_PATHS = Set.of("/ikea/get-all-products", "/ikea/import-articles",
+            "/ikea/import-products");
+
+    @Autowired
+    private InventoryStore inventoryStore;
+
+    // distinguishes versions of this process from equal version numbers before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHED_PATHS.contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = pathOf(request);
+        long version = inventoryStore.version();
+        String etag = "\"" + epoch + "-" + version + "\"";
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        CachedResponse cached = responses.get(path);
+        if (cached != null && cached.version == version) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setContentType(cached.contentType);
+            response.setContentLength(cached.body.length);
+            response.getOutputStream().write(cached.body);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            wrapper.setHeader(HttpHeaders.ETAG, etag);
+            wrapper.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            responses.merge(path, new CachedResponse(version, wrapper.getContentType(), wrapper.getContentAsByteArray()),
+                    (existing, built) -> built.version >= existing.version ? built : existing);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Serialized body of one endpoint together with the inventory version it was built from.
+     */
+    private static class CachedResponse {
+        private final long version;
+        private final String contentType;
+        private final byte[] body;
+
+        CachedResponse(long version, String contentType, byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.model.ProductContention;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint at {@code /actuator/contention} listing the products whose stock locks were
+ * contended the most. Kept out of the Prometheus output because a label per product would grow
+ * with the catalog.
+ */
+@Component
+@Endpoint(id = "contention")
+public class ContentionEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    @Autowired
+    private InventoryStore inventoryStore;
+
+    /**
+     * <B>Description :</B> Invoked to list the most contended products
+     *
+     * @param limit maximum number of products, 20 by default
+     * @return List of products ordered by contended lock acquisitions
+     * @throws InvalidEndpointRequestException if the limit is negative
+     */
+    @ReadOperation
+    public List<ProductContention> contention(@Nullable Integer limit) {
+        if (limit != null && limit < 0) {
+            throw new InvalidEndpointRequestException("limit must not be negative: " + limit, "Invalid limit");
+        }
+        return inventoryStore.getProductContention(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
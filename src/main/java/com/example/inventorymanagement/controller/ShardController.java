@@ -0,0 +1,124 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.model.BuyProductRequest;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.ShardTransaction;
+import com.example.inventorymanagement.shard.LocalShard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Participant side of sharded orders: the {@code ShardRouter} of any instance in the cluster
+ * places single-shard orders and runs the two phases of distributed orders on this instance's
+ * shard through these endpoints. Only registered when {@code warehouse.shards.urls} is set.
+ */
+@RestController
+@RequestMapping("/ikea/shard")
+@ConditionalOnExpression("'${warehouse.shards.urls:}' != ''")
+public class ShardController {
+    @Autowired
+    private LocalShard localShard;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardController.class);
+
+    /**
+     * <B>Description :</B>  POST API to place an order whose lines all belong to this shard
+     *
+     * @param request BuyProductRequest
+     * @return true if every line was in stock
+     */
+    @PostMapping("/orders")
+    public boolean placeOrder(@RequestBody BuyProductRequest request) {
+        return localShard.placeOrder(request.getRequiredProductList());
+    }
+
+    /**
+     * <B>Description :</B>  POST API to place many orders whose lines all belong to this shard
+     *
+     * @param requests List<BuyProductRequest>
+     * @return success of each order, in request order
+     */
+    @PostMapping("/orders/batch")
+    public boolean[] placeOrders(@RequestBody List<BuyProductRequest> requests) {
+        List<List<RequiredProduct>> orders = new ArrayList<>(requests.size());
+        for (BuyProductRequest request : requests) {
+            orders.add(request == null ? null : request.getRequiredProductList());
+        }
+        return localShard.placeOrders(orders);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to reserve the lines of many distributed orders on this shard
+     *
+     * @param transactions ids of the distributed orders with the lines that belong to this shard
+     * @return whether the lines of each order are reserved, in request order
+     */
+    @PostMapping("/transactions/prepare")
+    public boolean[] prepareAll(@RequestBody List<ShardTransaction> transactions) {
+        LOGGER.debug("Request received to prepare {} transactions", transactions.size());
+        return localShard.prepareAll(transactions);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to keep the reservations of many distributed orders
+     *
+     * @param transactionIds ids of the distributed orders
+     * @return whether each reservation was still held, in request order
+     */
+    @PostMapping("/transactions/commit")
+    public boolean[] commitAll(@RequestBody List<String> transactionIds) {
+        return localShard.commitAll(transactionIds);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to release the reservations of many distributed orders
+     *
+     * @param transactionIds ids of the distributed orders
+     */
+    @PostMapping("/transactions/abort")
+    public void abortAll(@RequestBody List<String> transactionIds) {
+        LOGGER.debug("Request received to abort {} transactions", transactionIds.size());
+        localShard.abortAll(transactionIds);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to reserve the lines of a distributed order on this shard
+     *
+     * @param transactionId id of the distributed order
+     * @param request       lines that belong to this shard
+     * @return true if the lines are reserved
+     */
+    @PostMapping("/transactions/{transactionId}/prepare")
+    public boolean prepare(@PathVariable String transactionId, @RequestBody BuyProductRequest request) {
+        LOGGER.debug("Request received to prepare {}", transactionId);
+        return localShard.prepare(transactionId, request.getRequiredProductList());
+    }
+
+    /**
+     * <B>Description :</B>  POST API to keep the reservation of a distributed order
+     *
+     * @param transactionId id of the distributed order
+     * @return true if the reservation was still held
+     */
+    @PostMapping("/transactions/{transactionId}/commit")
+    public boolean commit(@PathVariable String transactionId) {
+        return localShard.commit(transactionId);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to release the reservation of a distributed order
+     *
+     * @param transactionId id of the distributed order
+     */
+    @PostMapping("/transactions/{transactionId}/abort")
+    public void abort(@PathVariable String transactionId) {
+        LOGGER.debug("Request received to abort {}", transactionId);
+        localShard.abort(transactionId);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.exception.SubscriberLimitException;
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.StockChange;
+import com.example.inventorymanagement.model.StockSnapshot;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.StockFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the {@link StockFeed} to server-sent event subscribers. Every flush interval each
+ * subscriber that is behind gets one {@code stock} event holding the changes since its last event,
+ * merged to one change per article or product, with the event id {@code <epoch>.<sequence>} of the
+ * last change it covers. A subscriber that is still busy sending its previous event is skipped and
+ * catches up with a larger merged event later, so a slow consumer never holds up the others and
+ * costs at most one change per record. A subscriber that falls further behind than the feed holds,
+ * or that subscribes without a position to resume from, first gets a {@code snapshot} event with
+ * the stock of every article and product.
+ * <p>
+ * Events are sent by a fixed number of sender threads, and subscribers beyond a configured cap are
+ * refused, so neither threads nor queued sends grow with the number of clients. Each subscriber has
+ * at most one send queued or running, which bounds the queue by the cap. When more subscribers
+ * block on slow connections than there are sender threads, the others wait for a free sender.
+ */
+public class StockChangeBroadcaster implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockChangeBroadcaster.class);
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+    private static final long SNAPSHOT = -1;
+
+    private final InventoryStore store;
+    private final StockFeed feed;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService senders;
+    private final int maxSubscribers;
+
+    public StockChangeBroadcaster(InventoryStore store, StockFeed feed, long flushMillis, int senderThreads,
+                                  int maxSubscribers) {
+        if (senderThreads < 1 || maxSubscribers < 1) {
+            throw new IllegalArgumentException("Sender threads and subscriber limit must be positive");
+        }
+        this.store = store;
+        this.feed = feed;
+        this.maxSubscribers = maxSubscribers;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "stock-feed"));
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable ->
+                daemon(runnable, "stock-feed-sender-" + senderCount.incrementAndGet()));
+        this.ticker.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to subscribe to stock changes
+     *
+     * @param lastEventId id of the last event the client received, or null to start with a snapshot
+     * @return SseEmitter the events are sent to
+     * @throws SubscriberLimitException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom(lastEventId));
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new SubscriberLimitException("Stock change feed already has " + maxSubscribers + " subscribers");
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the open subscriptions
+     *
+     * @return number of subscribers
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read the changes since a sequence merged to the last change
+     * of each article and product, in the order of their last change
+     *
+     * @param feed StockFeed to read
+     * @param from sequence of the first change to read
+     * @param sink receives the merged changes
+     * @return sequence to continue from, or {@link StockFeed#LAPPED} if the changes are no longer held
+     */
+    static long readMerged(StockFeed feed, long from, List<StockChange> sink) {
+        Map<String, StockChange> latest = new LinkedHashMap<>();
+        long next = feed.read(from, change -> {
+            String key = change.getType() + ':' + change.getId();
+            StockChange previous = latest.remove(key);
+            latest.put(key, previous == null ? change : previous.then(change));
+        });
+        sink.addAll(latest.values());
+        return next;
+    }
+
+    private long resumeFrom(String lastEventId) {
+        if (lastEventId == null) {
+            return SNAPSHOT;
+        }
+        int separator = lastEventId.lastIndexOf('.');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(feed.epoch())) {
+            return SNAPSHOT;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1)) + 1;
+        } catch (NumberFormatException e) {
+            return SNAPSHOT;
+        }
+    }
+
+    private void flush() {
+        long head = feed.head();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor != head || now - subscriber.lastSent > HEARTBEAT_NANOS) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Sends a subscriber everything it is behind by, on a sender thread. Only one send per
+     * subscriber runs at a time.
+     */
+    private void send(Subscriber subscriber) {
+        try {
+            long cursor = subscriber.cursor;
+            List<StockChange> changes = new ArrayList<>();
+            long next = cursor == SNAPSHOT ? StockFeed.LAPPED : readMerged(feed, cursor, changes);
+            if (next == StockFeed.LAPPED) {
+                cursor = sendSnapshot(subscriber.emitter);
+                subscriber.lastSent = System.nanoTime();
+                changes.clear();
+                next = readMerged(feed, cursor, changes);
+            }
+            if (!changes.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(eventId(next - 1))
+                        .name("stock")
+                        .data(changes, MediaType.APPLICATION_JSON));
+                subscriber.lastSent = System.nanoTime();
+            } else if (System.nanoTime() - subscriber.lastSent > HEARTBEAT_NANOS) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                subscriber.lastSent = System.nanoTime();
+            }
+            subscriber.cursor = next == StockFeed.LAPPED ? SNAPSHOT : next;
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("Stock change subscriber disconnected: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    /**
+     * Sends the stock of every article and product and returns the sequence of the first change
+     * the snapshot may not include. Changes carry absolute stock, so replaying changes the snapshot
+     * already includes does no harm.
+     */
+    private long sendSnapshot(SseEmitter emitter) throws IOException {
+        long head = feed.head();
+        Map<String, Integer> articles = new LinkedHashMap<>();
+        for (Article article : store.getArticles()) {
+            articles.put(article.getArt_id(), article.getStock());
+        }
+        emitter.send(SseEmitter.event()
+                .id(eventId(head - 1))
+                .name("snapshot")
+                .data(new StockSnapshot(head - 1, articles, store.getProductStock()), MediaType.APPLICATION_JSON));
+        return head;
+    }
+
+    private String eventId(long sequence) {
+        return feed.epoch() + "." + sequence;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * An open subscription and the sequence of the next change it has not been sent.
+     */
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile long lastSent = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.exception.SubscriberLimitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Change feed of article and product stock as server-sent events, see {@link StockChangeBroadcaster}.
+ * Browsers resume a dropped stream with the {@code Last-Event-ID} header on their own; other
+ * clients can pass the id of the last event they received as {@code since}.
+ */
+@RestController
+@RequestMapping("/ikea")
+public class StockFeedController {
+    @Autowired
+    private StockChangeBroadcaster stockChangeBroadcaster;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockFeedController.class);
+
+    /**
+     * <B>Description :</B>  GET API to follow stock changes as server-sent events
+     *
+     * @param lastEventId id of the last event received on a previous connection
+     * @param since       same as lastEventId, for clients that cannot set the header
+     * @return ResponseEntity<SseEmitter> streaming snapshot and stock events, or 503 if the feed is full
+     */
+    @GetMapping(value = "/stock-changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStockChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                         @RequestParam(required = false) String since) {
+        LOGGER.info("Request received to follow stock changes");
+        try {
+            return ResponseEntity.ok(stockChangeBroadcaster.subscribe(lastEventId != null ? lastEventId : since));
+        } catch (SubscriberLimitException e) {
+            LOGGER.warn("Stock change subscription refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.example.inventorymanagement.controller;
 
+import com.example.inventorymanagement.exception.BulkUploadException;
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
 import com.example.inventorymanagement.exception.ImportArticlesException;
 import com.example.inventorymanagement.exception.ImportProductsException;
+import com.example.inventorymanagement.exception.InvalidHoldException;
+import com.example.inventorymanagement.exception.PlanAllocationException;
 import com.example.inventorymanagement.exception.ProcessOrderException;
 import com.example.inventorymanagement.exception.RetrieveProductsException;
 import com.example.inventorymanagement.model.*;
 import com.example.inventorymanagement.service.WarehouseManagementService;
+import com.example.inventorymanagement.store.StockHolds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +33,9 @@ public class WarehouseController {
     private WarehouseManagementService warehouseService;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WarehouseController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     /**
      * <B>Description :</B>  GET API to import articles from JSON file
@@ -47,6 +59,104 @@ public class WarehouseController {
         return warehouseService.importProducts();
     }
 
+    /**
+     * <B>Description :</B>  POST API to stream an articles JSON document into the inventory
+     *
+     * @param catalog request body holding the articles document
+     * @return ImportReport with accepted and rejected records
+     */
+    @PostMapping("/import-articles")
+    public ImportReport importArticles(InputStream catalog) throws ImportArticlesException {
+        LOGGER.info("Request received to stream import articles");
+        return warehouseService.importArticles(catalog);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to stream a products JSON document into the inventory
+     *
+     * @param catalog request body holding the products document
+     * @return ImportReport with accepted and rejected records
+     */
+    @PostMapping("/import-products")
+    public ImportReport importProducts(InputStream catalog) throws ImportProductsException {
+        LOGGER.info("Request received to stream import products");
+        return warehouseService.importProducts(catalog);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to upload a large document of articles and/or products in one request
+     *
+     * @param catalog request body holding an articles and/or a products array
+     * @return BulkUploadReport with accepted and rejected records of each array
+     */
+    @PostMapping("/bulk-upload")
+    public BulkUploadReport bulkUpload(InputStream catalog) throws BulkUploadException {
+        LOGGER.info("Request received to bulk upload a catalog");
+        return warehouseService.bulkUpload(catalog);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to list articles one page at a time
+     *
+     * @param cursor nextCursor of the previous page, omitted for the first page
+     * @param limit  maximum number of articles in the page
+     * @return CatalogPage<Article>
+     */
+    @GetMapping("/list-articles")
+    public CatalogPage<Article> listArticles(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "100") int limit) throws ImportArticlesException {
+        LOGGER.info("Request received to list articles");
+        return warehouseService.listArticles(cursor, limit);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to list products one page at a time
+     *
+     * @param cursor nextCursor of the previous page, omitted for the first page
+     * @param limit  maximum number of products in the page
+     * @return CatalogPage<Product>
+     */
+    @GetMapping("/list-products")
+    public CatalogPage<Product> listProducts(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "100") int limit) throws ImportProductsException {
+        LOGGER.info("Request received to list products");
+        return warehouseService.listProducts(cursor, limit);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to stream all articles as newline-delimited JSON
+     *
+     * @return ResponseEntity<StreamingResponseBody> writing one article per line
+     */
+    @GetMapping(value = "/stream-articles", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamArticles() {
+        LOGGER.info("Request received to stream articles");
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(out -> {
+            try {
+                warehouseService.streamArticles(out);
+            } catch (ImportArticlesException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * <B>Description :</B>  GET API to stream all products as newline-delimited JSON
+     *
+     * @return ResponseEntity<StreamingResponseBody> writing one product per line
+     */
+    @GetMapping(value = "/stream-products", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        LOGGER.info("Request received to stream products");
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(out -> {
+            try {
+                warehouseService.streamProducts(out);
+            } catch (ImportProductsException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        });
+    }
+
     /**
      * <B>Description :</B>  POST API to add a new article
      *
@@ -88,19 +198,194 @@ public class WarehouseController {
     }
 
     /**
-     * <B>Description :</B>  POST API to process an order
+     * <B>Description :</B>  GET API to fetch how many units of each product can be assembled from article stock
      *
-     * @param request BuyProductRequest
+     * @return Map<String, Integer> Map of product and assemblable quantity
+     */
+    @GetMapping("/get-assemblable-products")
+    public Map<String, Integer> retrieveAssemblableProducts() throws RetrieveProductsException {
+        LOGGER.info("Request received to retrieve assemblable products");
+        return warehouseService.retrieveAssemblableProducts();
+    }
+
+    /**
+     * <B>Description :</B>  GET API to find articles whose stock is below a threshold, scarcest first
+     *
+     * @param below stock threshold, exclusive
+     * @param limit maximum number of articles
+     * @return List<Article> ordered by stock
+     */
+    @GetMapping("/low-stock-articles")
+    public List<Article> findLowStockArticles(@RequestParam int below,
+                                              @RequestParam(defaultValue = "100") int limit) throws ImportArticlesException {
+        LOGGER.info("Request received to find articles below {} in stock", below);
+        if (below == Integer.MIN_VALUE) {
+            return new ArrayList<>();
+        }
+        return warehouseService.findArticlesByStock(Integer.MIN_VALUE, below - 1, limit);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to find articles whose stock lies in a range, scarcest first
+     *
+     * @param min   lowest stock, inclusive
+     * @param max   highest stock, inclusive
+     * @param limit maximum number of articles
+     * @return List<Article> ordered by stock
+     */
+    @GetMapping("/articles-by-stock")
+    public List<Article> findArticlesByStock(@RequestParam(defaultValue = "0") int min,
+                                             @RequestParam(defaultValue = "2147483647") int max,
+                                             @RequestParam(defaultValue = "100") int limit) throws ImportArticlesException {
+        LOGGER.info("Request received to find articles with stock from {} to {}", min, max);
+        return warehouseService.findArticlesByStock(min, max, limit);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to find products whose available stock lies in a range, scarcest first
+     *
+     * @param min   lowest available stock, inclusive
+     * @param max   highest available stock, inclusive
+     * @param limit maximum number of products
+     * @return Map<String, Integer> Map of product and available quantity, in order
+     */
+    @GetMapping("/products-by-stock")
+    public Map<String, Integer> findProductsByStock(@RequestParam(defaultValue = "0") int min,
+                                                    @RequestParam(defaultValue = "2147483647") int max,
+                                                    @RequestParam(defaultValue = "100") int limit) throws RetrieveProductsException {
+        LOGGER.info("Request received to find products with stock from {} to {}", min, max);
+        return warehouseService.findProductsByStock(min, max, limit);
+    }
+
+    /**
+     * <B>Description :</B>  GET API to fetch the products with the most, or with scarcest=true the least, available stock
+     *
+     * @param limit    number of products
+     * @param scarcest whether to list the least available products first
+     * @return Map<String, Integer> Map of product and available quantity, in order
+     */
+    @GetMapping("/top-products")
+    public Map<String, Integer> retrieveTopProducts(@RequestParam(defaultValue = "10") int limit,
+                                                    @RequestParam(defaultValue = "false") boolean scarcest) throws RetrieveProductsException {
+        LOGGER.info("Request received to retrieve top {} products", limit);
+        return warehouseService.retrieveTopProducts(limit, scarcest);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to plan how many units of each wanted product current article
+     * stock can supply together, without reserving anything
+     *
+     * @param request BuyProductRequest with the quantity wanted of each product
+     * @return AllocationPlan with the units allocated to each product
+     */
+    @PostMapping("/plan-allocation")
+    public AllocationPlan planAllocation(@RequestBody BuyProductRequest request) throws PlanAllocationException {
+        LOGGER.info("Request received to plan an allocation");
+        return warehouseService.planAllocation(request);
+    }
+
+    /**
+     * <B>Description :</B>  POST API to process an order; retries sent with the same Idempotency-Key
+     * header get the outcome of the first attempt instead of placing the order again
+     *
+     * @param request        BuyProductRequest
+     * @param idempotencyKey optional key identifying the order across retries
      * @return ResponseEntity<String> Return Success or Failure message
      */
     @PostMapping("/buy-product")
-    public ResponseEntity<String> processOrder(@RequestBody BuyProductRequest request) throws ProcessOrderException {
+    public ResponseEntity<String> processOrder(@RequestBody BuyProductRequest request,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws ProcessOrderException {
         LOGGER.info("Request received to place an order");
-        boolean added = warehouseService.processOrder(request);
+        boolean added;
+        if (idempotencyKey == null) {
+            added = warehouseService.processOrder(request);
+        } else if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return new ResponseEntity<>("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters",
+                    HttpStatus.BAD_REQUEST);
+        } else {
+            try {
+                added = warehouseService.processOrder(request, idempotencyKey);
+            } catch (IdempotencyKeyMismatchException e) {
+                return new ResponseEntity<>("Idempotency-Key was used for a different order", HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+        }
         if (added) {
             return new ResponseEntity<>("Order successful :)", HttpStatus.OK);
         } else {
             return new ResponseEntity<>("Item Out of Stock :(", HttpStatus.BAD_REQUEST);
         }
     }
+
+    /**
+     * <B>Description :</B>  POST API to process a batch of orders in one pass
+     *
+     * @param requests List<BuyProductRequest>
+     * @return List<OrderResult> Success or Failure of each order, in request order
+     */
+    @PostMapping("/buy-product/batch")
+    public List<OrderResult> processOrders(@RequestBody List<BuyProductRequest> requests) throws ProcessOrderException {
+        LOGGER.info("Request received to place {} orders", requests.size());
+        List<Boolean> placed = warehouseService.processOrders(requests);
+        List<OrderResult> results = new ArrayList<>(placed.size());
+        for (Boolean orderPlaced : placed) {
+            results.add(orderPlaced
+                    ? new OrderResult(true, "Order successful :)")
+                    : new OrderResult(false, "Item Out of Stock :("));
+        }
+        return results;
+    }
+
+    /**
+     * <B>Description :</B>  POST API to hold products while the customer pays
+     *
+     * @param request HoldRequest
+     * @return ResponseEntity<HoldResult> id of the hold, or failure message
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<HoldResult> createHold(@RequestBody HoldRequest request) throws ProcessOrderException {
+        LOGGER.info("Request received to hold products");
+        long holdId;
+        try {
+            holdId = warehouseService.createHold(request);
+        } catch (InvalidHoldException e) {
+            return new ResponseEntity<>(new HoldResult(StockHolds.NO_HOLD, e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+        if (holdId >= 0) {
+            return new ResponseEntity<>(new HoldResult(holdId, "Items held :)"), HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>(new HoldResult(holdId, "Item Out of Stock :("), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * <B>Description :</B>  POST API to turn a hold into an order
+     *
+     * @param holdId id of the hold
+     * @return ResponseEntity<String> Return Success or Failure message
+     */
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<String> confirmHold(@PathVariable long holdId) throws ProcessOrderException {
+        LOGGER.info("Request received to confirm hold {}", holdId);
+        if (warehouseService.confirmHold(holdId)) {
+            return new ResponseEntity<>("Order successful :)", HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>("Hold expired or not found :(", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * <B>Description :</B>  DELETE API to release a hold
+     *
+     * @param holdId id of the hold
+     * @return ResponseEntity<String> Return Success or Failure message
+     */
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<String> releaseHold(@PathVariable long holdId) throws ProcessOrderException {
+        LOGGER.info("Request received to release hold {}", holdId);
+        if (warehouseService.releaseHold(holdId)) {
+            return new ResponseEntity<>("Hold released", HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>("Hold expired or not found :(", HttpStatus.NOT_FOUND);
+        }
+    }
 }
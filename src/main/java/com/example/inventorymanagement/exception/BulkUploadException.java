@@ -0,0 +1,11 @@
+package com.example.inventorymanagement.exception;
+
+public class BulkUploadException extends RuntimeException {
+    public BulkUploadException(String message) {
+        super(message);
+    }
+
+    public BulkUploadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.inventorymanagement.exception;
+
+public class InvalidHoldException extends RuntimeException {
+    public InvalidHoldException(String message) {
+        super(message);
+    }
+
+    public InvalidHoldException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
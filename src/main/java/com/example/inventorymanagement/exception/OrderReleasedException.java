@@ -0,0 +1,11 @@
+package com.example.inventorymanagement.exception;
+
+public class OrderReleasedException extends ShardUnavailableException {
+    public OrderReleasedException(String message) {
+        super(message);
+    }
+
+    public OrderReleasedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.inventorymanagement.exception;
+
+public class PlanAllocationException extends RuntimeException {
+    public PlanAllocationException(String message) {
+        super(message);
+    }
+
+    public PlanAllocationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
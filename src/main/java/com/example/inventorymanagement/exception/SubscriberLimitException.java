@@ -0,0 +1,11 @@
+package com.example.inventorymanagement.exception;
+
+public class SubscriberLimitException extends RuntimeException {
+    public SubscriberLimitException(String message) {
+        super(message);
+    }
+
+    public SubscriberLimitException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.inventorymanagement.idempotency;
+
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests by their client supplied idempotency key, so that a retried
+ * request returns the original outcome instead of being executed a second time. The first request
+ * with a key executes; requests with the same key that arrive while it runs wait for its outcome,
+ * and later ones get it straight away until the key expires.
+ * <p>
+ * Lookups are a single read of a concurrent map. Keys are also queued in insertion order, and
+ * every new key evicts from the head of that queue the keys that have expired or exceed the
+ * capacity, so memory use is bounded by the capacity and eviction is O(1) per key.
+ * <p>
+ * A request that fails is remembered like any other outcome and its exception is rethrown to
+ * retries, since it may have taken effect before failing. Only failures the caller knows to have
+ * left no effect are forgotten, so that a retry executes the request again.
+ *
+ * @param <V> outcome of a request
+ */
+public class IdempotencyCache<V> {
+    private final int capacity;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry<V>> entries;
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public IdempotencyCache(int capacity, long ttlMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to execute a request once per idempotency key
+     *
+     * @param key         idempotency key supplied by the client
+     * @param fingerprint fingerprint of the request body, which must match on replay
+     * @param request     executes the request
+     * @param noEffect    tells whether a failure of the request left no effect and can be retried
+     * @return outcome of the first execution of the request with this key
+     * @throws IdempotencyKeyMismatchException if the key was used for a request with a different fingerprint
+     */
+    public V execute(String key, long fingerprint, Supplier<V> request, Predicate<RuntimeException> noEffect) {
+        long now = System.nanoTime();
+        Entry<V> created = new Entry<>(key, fingerprint, now + ttlNanos);
+        while (true) {
+            Entry<V> existing = entries.get(key);
+            if (existing != null && !existing.expiredAt(now)) {
+                return existing.await(fingerprint);
+            }
+            if (existing == null ? entries.putIfAbsent(key, created) == null : entries.replace(key, existing, created)) {
+                if (existing == null) {
+                    size.incrementAndGet();
+                }
+                break;
+            }
+        }
+        insertionOrder.add(created);
+        evict(now);
+        try {
+            V outcome = request.get();
+            created.outcome.complete(outcome);
+            return outcome;
+        } catch (RuntimeException e) {
+            if (noEffect.test(e) && entries.remove(key, created)) {
+                size.decrementAndGet();
+            }
+            created.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the remembered keys
+     *
+     * @return number of keys, at most the capacity once a new key has been added
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Drops keys from the head of the insertion queue while they are expired, replaced or over the
+     * capacity. Only one thread evicts at a time; the others carry on, leaving it to the next key.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Entry<V> head;
+            while ((head = insertionOrder.peek()) != null) {
+                boolean current = entries.get(head.key) == head;
+                if (current && !head.expiredAt(now) && size.get() <= capacity) {
+                    return;
+                }
+                insertionOrder.poll();
+                if (current && entries.remove(head.key, head)) {
+                    size.decrementAndGet();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Outcome of the request executed for a key, completed once it has run.
+     */
+    private static class Entry<V> {
+        private final String key;
+        private final long fingerprint;
+        private final long deadline;
+        private final CompletableFuture<V> outcome = new CompletableFuture<>();
+
+        Entry(String key, long fingerprint, long deadline) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.deadline = deadline;
+        }
+
+        boolean expiredAt(long now) {
+            return now - deadline > 0;
+        }
+
+        V await(long requestFingerprint) {
+            if (requestFingerprint != fingerprint) {
+                throw new IdempotencyKeyMismatchException("Idempotency key " + key + " was used for a different request");
+            }
+            try {
+                return outcome.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+}
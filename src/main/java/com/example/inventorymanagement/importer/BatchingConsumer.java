@@ -0,0 +1,41 @@
+package com.example.inventorymanagement.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects streamed records into fixed size batches so that they can be applied to the store
+ * with one lock acquisition per batch. {@link #close()} hands over the last partial batch.
+ */
+public class BatchingConsumer<T> implements Consumer<T>, AutoCloseable {
+    private final int batchSize;
+    private final Consumer<List<T>> downstream;
+    private List<T> batch;
+
+    public BatchingConsumer(int batchSize, Consumer<List<T>> downstream) {
+        this.batchSize = batchSize;
+        this.downstream = downstream;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(T record) {
+        batch.add(record);
+        if (batch.size() == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void flush() {
+        if (!batch.isEmpty()) {
+            downstream.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
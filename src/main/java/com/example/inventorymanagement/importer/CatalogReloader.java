@@ -0,0 +1,236 @@
+package com.example.inventorymanagement.importer;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Watches the article and product catalog files and applies the records that changed since the
+ * previous version of each file. Every record of the last applied version is kept as a 64 bit
+ * fingerprint keyed by article id or product name; a changed file is parsed in the background,
+ * and only records whose fingerprint is new or different are upserted into the store. Records
+ * that are unchanged in the file therefore keep their live stock, and the time the catalog is
+ * locked depends on the number of changed records, not on the size of the catalog.
+ * <p>
+ * The changes of one reload are applied under a single exclusive section of the store, so readers
+ * see either none or all of them. Records removed from a file are kept in the store.
+ */
+public class CatalogReloader implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogReloader.class);
+
+    private final InventoryStore store;
+    private final Path articlesPath;
+    private final Path productsPath;
+    private final long debounceMillis;
+    private final CatalogStreamReader catalogReader = new CatalogStreamReader();
+    private final WatchService watchService;
+    private final Thread watcher;
+    private Map<String, Long> articleFingerprints;
+    private Map<String, Long> productFingerprints;
+
+    private CatalogReloader(InventoryStore store, Path articlesPath, Path productsPath, long debounceMillis)
+            throws IOException {
+        this.store = store;
+        this.articlesPath = articlesPath.toAbsolutePath().normalize();
+        this.productsPath = productsPath.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.articleFingerprints = fingerprints(this.articlesPath, catalogReader::readArticles, Article::getArt_id,
+                CatalogReloader::fingerprint);
+        this.productFingerprints = fingerprints(this.productsPath, catalogReader::readProducts, Product::getName,
+                CatalogReloader::fingerprint);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : new LinkedHashSet<>(List.of(this.articlesPath.getParent(), this.productsPath.getParent()))) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        this.watcher = new Thread(this::watch, "catalog-reloader");
+        this.watcher.setDaemon(true);
+    }
+
+    /**
+     * <B>Description :</B> Invoked at startup to take the current catalog files as the baseline and
+     * start watching them for changes
+     *
+     * @param store          store the changed records are applied to
+     * @param articlesPath   articles JSON file
+     * @param productsPath   products JSON file
+     * @param debounceMillis quiet period after the last file event before a file is reloaded
+     * @return CatalogReloader watching both files
+     * @throws IOException if a file cannot be parsed or its directory cannot be watched
+     */
+    public static CatalogReloader start(InventoryStore store, Path articlesPath, Path productsPath,
+                                        long debounceMillis) throws IOException {
+        CatalogReloader reloader = new CatalogReloader(store, articlesPath, productsPath, debounceMillis);
+        reloader.watcher.start();
+        return reloader;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to parse the given catalog files again and apply the records
+     * that changed since they were last applied
+     *
+     * @param articles whether to reload the articles file
+     * @param products whether to reload the products file
+     * @return number of changed records applied
+     * @throws IOException if a file cannot be read or is not well-formed JSON; nothing is applied then
+     */
+    public synchronized int reload(boolean articles, boolean products) throws IOException {
+        long start = System.nanoTime();
+        List<Article> changedArticles = new ArrayList<>();
+        List<Product> changedProducts = new ArrayList<>();
+        Map<String, Long> newArticleFingerprints = articles
+                ? diff(articlesPath, catalogReader::readArticles, Article::getArt_id, CatalogReloader::fingerprint,
+                articleFingerprints, changedArticles::add)
+                : articleFingerprints;
+        Map<String, Long> newProductFingerprints = products
+                ? diff(productsPath, catalogReader::readProducts, Product::getName, CatalogReloader::fingerprint,
+                productFingerprints, changedProducts::add)
+                : productFingerprints;
+        if (!changedArticles.isEmpty() || !changedProducts.isEmpty()) {
+            store.withExclusiveAccess(() -> {
+                // articles first, so that changed products can refer to new articles
+                if (!changedArticles.isEmpty()) {
+                    store.upsertArticles(changedArticles);
+                }
+                if (!changedProducts.isEmpty()) {
+                    store.upsertProducts(changedProducts);
+                }
+                return null;
+            });
+            store.awaitJournal();
+        }
+        articleFingerprints = newArticleFingerprints;
+        productFingerprints = newProductFingerprints;
+        LOGGER.info("Reloaded catalog files: {} changed articles and {} changed products applied in {} ms",
+                changedArticles.size(), changedProducts.size(), (System.nanoTime() - start) / 1_000_000);
+        return changedArticles.size() + changedProducts.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.interrupt();
+        watchService.close();
+    }
+
+    /**
+     * Waits for events on the catalog directories and reloads a file once its events have been
+     * quiet for the debounce period, so that a file being written is not parsed half way.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean articles = false;
+                boolean products = false;
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            articles = true;
+                            products = true;
+                            continue;
+                        }
+                        Path changed = ((Path) key.watchable()).resolve((Path) event.context());
+                        articles |= changed.equals(articlesPath);
+                        products |= changed.equals(productsPath);
+                    }
+                    key.reset();
+                    key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+                if (articles || products) {
+                    try {
+                        reload(articles, products);
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.warn("Catalog files could not be reloaded, keeping the previous version: {}",
+                                e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> Map<String, Long> fingerprints(Path path, RecordReader<T> reader, Function<T, String> key,
+                                                      ToLongFunction<T> fingerprint) throws IOException {
+        if (!Files.exists(path)) {
+            LOGGER.warn("Catalog file {} does not exist yet, every record will be applied once it does", path);
+            return new HashMap<>();
+        }
+        return diff(path, reader, key, fingerprint, Collections.emptyMap(), record -> {
+        });
+    }
+
+    /**
+     * Parses a catalog file, hands every record whose fingerprint differs from the previous one to
+     * the sink and returns the fingerprints of the whole file.
+     */
+    private static <T> Map<String, Long> diff(Path path, RecordReader<T> reader, Function<T, String> key,
+                                              ToLongFunction<T> fingerprint, Map<String, Long> previous,
+                                              Consumer<T> changed) throws IOException {
+        Map<String, Long> fingerprints = new HashMap<>(Math.max(16, previous.size() * 4 / 3 + 1));
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            reader.read(in, record -> {
+                long current = fingerprint.applyAsLong(record);
+                fingerprints.put(key.apply(record), current);
+                Long before = previous.get(key.apply(record));
+                if (before == null || before != current) {
+                    changed.accept(record);
+                }
+            });
+        }
+        return fingerprints;
+    }
+
+    static long fingerprint(Article article) {
+        long hash = hash(17, article.getName());
+        return hash * 31 + article.getStock();
+    }
+
+    static long fingerprint(Product product) {
+        long hash = hash(17, product.getName());
+        hash = hash * 31 + Double.doubleToLongBits(product.getPrice());
+        hash = hash * 31 + product.getStock();
+        if (product.getContain_articles() != null) {
+            for (ContainArticle containArticle : product.getContain_articles()) {
+                hash = hash(hash, containArticle.getArt_id());
+                hash = hash * 31 + containArticle.getAmount_of();
+            }
+        }
+        // keeps an article and a sub-assembly of the same name and amount apart
+        hash = hash * 31 + 1;
+        if (product.getContain_products() != null) {
+            for (ContainProduct containProduct : product.getContain_products()) {
+                hash = hash(hash, containProduct.getName());
+                hash = hash * 31 + containProduct.getAmount_of();
+            }
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        hash = hash * 31 + value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = hash * 31 + value.charAt(i);
+        }
+        return hash * 0x9E3779B97F4A7C15L;
+    }
+
+    @FunctionalInterface
+    private interface RecordReader<T> {
+        void read(InputStream in, Consumer<T> sink) throws IOException;
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.inventorymanagement.importer;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.ImportReport;
+import com.example.inventorymanagement.model.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the {@code articles} / {@code products} array of a catalog document one record at a time
+ * with a Jackson {@link JsonParser}, so memory use does not depend on the size of the document.
+ * Records that fail validation are reported and skipped; only malformed JSON aborts the read.
+ * Numeric fields are accepted both as JSON numbers and as numeric strings, as in the bundled files.
+ */
+public class CatalogStreamReader {
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * <B>Description :</B> Invoked to stream the articles of a catalog document
+     *
+     * @param in   catalog document
+     * @param sink receives every valid article in document order
+     * @return ImportReport with accepted and rejected record counts
+     * @throws IOException if the document cannot be read or is not well-formed JSON
+     */
+    public ImportReport readArticles(InputStream in, Consumer<Article> sink) throws IOException {
+        return read(in, "articles", this::parseArticle, sink);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to stream the products of a catalog document
+     *
+     * @param in   catalog document
+     * @param sink receives every valid product in document order
+     * @return ImportReport with accepted and rejected record counts
+     * @throws IOException if the document cannot be read or is not well-formed JSON
+     */
+    public ImportReport readProducts(InputStream in, Consumer<Product> sink) throws IOException {
+        return read(in, "products", this::parseProduct, sink);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to parse and validate one article held in a slice of a document
+     *
+     * @param document bytes of the document
+     * @param offset   start of the record
+     * @param length   length of the record
+     * @param index    position of the record in its array, for the report
+     * @param report   counts the record as accepted or rejected
+     * @return Article, or null if the record was rejected
+     */
+    Article readArticle(byte[] document, int offset, int length, long index, ImportReport report) {
+        return readRecord(document, offset, length, index, this::parseArticle, report);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to parse and validate one product held in a slice of a document,
+     * see {@link #readArticle(byte[], int, int, long, ImportReport)}
+     *
+     * @return Product, or null if the record was rejected
+     */
+    Product readProduct(byte[] document, int offset, int length, long index, ImportReport report) {
+        return readRecord(document, offset, length, index, this::parseProduct, report);
+    }
+
+    /**
+     * Parses a single record. Unlike a streamed document, a malformed record only rejects itself,
+     * since the boundaries of the other records are already known.
+     */
+    private <T> T readRecord(byte[] document, int offset, int length, long index, RecordParser<T> recordParser,
+                             ImportReport report) {
+        try (JsonParser parser = jsonFactory.createParser(document, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                report.reject(index, null, "Expected an object");
+                return null;
+            }
+            RecordProblems problems = new RecordProblems();
+            T record = recordParser.parse(parser, problems);
+            if (problems.message != null) {
+                report.reject(index, problems.key, problems.message);
+                return null;
+            }
+            report.accept();
+            return record;
+        } catch (JsonProcessingException e) {
+            report.reject(index, null, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            report.reject(index, null, "Malformed JSON: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> ImportReport read(InputStream in, String arrayField, RecordParser<T> recordParser,
+                                  Consumer<T> sink) throws IOException {
+        ImportReport report = new ImportReport();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!arrayField.equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                long index = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        report.reject(index, null, "Expected an object");
+                    } else {
+                        RecordProblems problems = new RecordProblems();
+                        T record = recordParser.parse(parser, problems);
+                        if (problems.message == null) {
+                            sink.accept(record);
+                            report.accept();
+                        } else {
+                            report.reject(index, problems.key, problems.message);
+                        }
+                    }
+                    index++;
+                }
+            }
+        }
+        return report;
+    }
+
+    private Article parseArticle(JsonParser parser, RecordProblems problems) throws IOException {
+        String artId = null;
+        String name = null;
+        Integer stock = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "art_id" -> artId = readText(parser, field, problems);
+                case "name" -> name = readText(parser, field, problems);
+                case "stock" -> stock = readInt(parser, field, problems);
+                default -> parser.skipChildren();
+            }
+        }
+        problems.key = artId;
+        if (isBlank(artId)) {
+            problems.report("art_id is required");
+        } else if (isBlank(name)) {
+            problems.report("name is required");
+        } else if (stock == null || stock < 0) {
+            problems.report("stock must be a non-negative integer");
+        }
+        return new Article(artId, name, stock == null ? 0 : stock);
+    }
+
+    private Product parseProduct(JsonParser parser, RecordProblems problems) throws IOException {
+        String name = null;
+        List<ContainArticle> containArticles = new ArrayList<>();
+        List<ContainProduct> containProducts = new ArrayList<>();
+        double price = 0;
+        int stock = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = readText(parser, field, problems);
+                case "price" -> {
+                    Double value = readDouble(parser, field, problems);
+                    price = value == null ? 0 : value;
+                }
+                case "stock" -> {
+                    Integer value = readInt(parser, field, problems);
+                    stock = value == null ? 0 : value;
+                }
+                case "contain_articles" -> readContainArticles(parser, containArticles, problems);
+                case "contain_products" -> readContainProducts(parser, containProducts, problems);
+                default -> parser.skipChildren();
+            }
+        }
+        problems.key = name;
+        if (isBlank(name)) {
+            problems.report("name is required");
+        } else if (price < 0) {
+            problems.report("price must not be negative");
+        } else if (stock < 0) {
+            problems.report("stock must not be negative");
+        }
+        for (ContainProduct containProduct : containProducts) {
+            if (containProduct.getName().equals(name)) {
+                problems.report("a product cannot contain itself");
+            }
+        }
+        return new Product(name, containArticles, containProducts.isEmpty() ? null : containProducts, price, stock);
+    }
+
+    private void readContainProducts(JsonParser parser, List<ContainProduct> containProducts,
+                                     RecordProblems problems) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            problems.report("contain_products must be an array");
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                problems.report("contain_products entries must be objects");
+                continue;
+            }
+            String productName = null;
+            Integer amount = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "name" -> productName = readText(parser, field, problems);
+                    case "amount_of" -> amount = readInt(parser, field, problems);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (isBlank(productName) || amount == null || amount <= 0) {
+                problems.report("contain_products entries need a name and a positive amount_of");
+            } else {
+                containProducts.add(new ContainProduct(productName, amount));
+            }
+        }
+    }
+
+    private void readContainArticles(JsonParser parser, List<ContainArticle> containArticles,
+                                     RecordProblems problems) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            problems.report("contain_articles must be an array");
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                problems.report("contain_articles entries must be objects");
+                continue;
+            }
+            String artId = null;
+            Integer amount = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "art_id" -> artId = readText(parser, field, problems);
+                    case "amount_of" -> amount = readInt(parser, field, problems);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (isBlank(artId) || amount == null || amount <= 0) {
+                problems.report("contain_articles entries need an art_id and a positive amount_of");
+            } else {
+                containArticles.add(new ContainArticle(artId, amount));
+            }
+        }
+    }
+
+    private static String readText(JsonParser parser, String field, RecordProblems problems) throws IOException {
+        if (parser.currentToken().isScalarValue() && parser.currentToken() != JsonToken.VALUE_NULL) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        problems.report(field + " must be a string");
+        return null;
+    }
+
+    private static Integer readInt(JsonParser parser, String field, RecordProblems problems) throws IOException {
+        try {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getIntValue();
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return Integer.parseInt(parser.getText().trim());
+            }
+        } catch (NumberFormatException | InputCoercionException e) {
+            problems.report(field + " must be an integer");
+            return null;
+        }
+        parser.skipChildren();
+        problems.report(field + " must be an integer");
+        return null;
+    }
+
+    private static Double readDouble(JsonParser parser, String field, RecordProblems problems) throws IOException {
+        try {
+            if (parser.currentToken().isNumeric()) {
+                return parser.getDoubleValue();
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return Double.parseDouble(parser.getText().trim());
+            }
+        } catch (NumberFormatException e) {
+            problems.report(field + " must be a number");
+            return null;
+        }
+        parser.skipChildren();
+        problems.report(field + " must be a number");
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @FunctionalInterface
+    private interface RecordParser<T> {
+        T parse(JsonParser parser, RecordProblems problems) throws IOException;
+    }
+
+    /**
+     * First validation problem of the record being parsed, together with its identifying key.
+     */
+    private static class RecordProblems {
+        private String key;
+        private String message;
+
+        void report(String problem) {
+            if (message == null) {
+                message = problem;
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.inventorymanagement.importer;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ImportReport;
+import com.example.inventorymanagement.model.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads a whole catalog document holding an {@code articles} and/or a {@code products} array and
+ * parses its records in parallel. One pass over the raw bytes, which only tracks nesting and
+ * string literals, finds where every record of both arrays starts and ends; the records are then
+ * cut into chunks that are parsed and validated on a {@link ForkJoinPool}, each record with its own
+ * small parser, and the chunks are joined back in document order.
+ * <p>
+ * A record that is malformed JSON is rejected on its own like any invalid record. Only a document
+ * whose structure cannot be followed, such as an unterminated string or unbalanced brackets, is
+ * rejected as a whole.
+ */
+public class ParallelCatalogReader {
+    private static final byte[][] ARRAY_FIELDS = {"articles".getBytes(StandardCharsets.UTF_8),
+            "products".getBytes(StandardCharsets.UTF_8)};
+
+    private final CatalogStreamReader recordReader = new CatalogStreamReader();
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxBytes;
+
+    public ParallelCatalogReader(ForkJoinPool pool, int chunkSize, int maxBytes) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read a catalog document and parse its records in parallel
+     *
+     * @param in catalog document of at most the configured number of bytes
+     * @return Catalog with the valid records in document order and a report per array
+     * @throws IOException if the document cannot be read, is too large or its structure is malformed
+     */
+    public Catalog read(InputStream in) throws IOException {
+        byte[] document = in.readNBytes(maxBytes + 1);
+        if (document.length > maxBytes) {
+            throw new IOException("Document is larger than " + maxBytes + " bytes");
+        }
+        return read(document);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to parse the records of a catalog document held in memory in parallel
+     *
+     * @param document bytes of the catalog document
+     * @return Catalog with the valid records in document order and a report per array
+     * @throws IOException if the structure of the document is malformed
+     */
+    public Catalog read(byte[] document) throws IOException {
+        Spans[] spans = scan(document);
+        List<Callable<Chunk<Article>>> articleChunks = chunks(spans[0], (offset, length, index, report) ->
+                recordReader.readArticle(document, offset, length, index, report));
+        List<Callable<Chunk<Product>>> productChunks = chunks(spans[1], (offset, length, index, report) ->
+                recordReader.readProduct(document, offset, length, index, report));
+        List<Future<Chunk<Article>>> articles = pool.invokeAll(articleChunks);
+        List<Future<Chunk<Product>>> products = pool.invokeAll(productChunks);
+        ImportReport articleReport = new ImportReport();
+        ImportReport productReport = new ImportReport();
+        return new Catalog(join(articles, spans[0].size, articleReport), articleReport,
+                join(products, spans[1].size, productReport), productReport);
+    }
+
+    private <T> List<Callable<Chunk<T>>> chunks(Spans spans, SliceParser<T> parser) {
+        List<Callable<Chunk<T>>> chunks = new ArrayList<>(spans.size / chunkSize + 1);
+        for (int from = 0; from < spans.size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(spans.size, from + chunkSize);
+            chunks.add(() -> {
+                Chunk<T> chunk = new Chunk<>(end - start);
+                for (int i = start; i < end; i++) {
+                    T record = parser.parse(spans.starts[i], spans.ends[i] - spans.starts[i], i, chunk.report);
+                    if (record != null) {
+                        chunk.records.add(record);
+                    }
+                }
+                return chunk;
+            });
+        }
+        return chunks;
+    }
+
+    private static <T> List<T> join(List<Future<Chunk<T>>> chunks, int size, ImportReport report) throws IOException {
+        List<T> records = new ArrayList<>(size);
+        for (Future<Chunk<T>> future : chunks) {
+            try {
+                Chunk<T> chunk = future.get();
+                records.addAll(chunk.records);
+                report.merge(chunk.report);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing the document", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Document could not be parsed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Finds the start and end of every element of the top level {@code articles} and
+     * {@code products} arrays without tokenizing the document.
+     */
+    static Spans[] scan(byte[] document) throws IOException {
+        Spans[] spans = {new Spans(), new Spans()};
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean expectKey = false;
+        boolean started = false;
+        int keyStart = -1;
+        int key = -1;
+        Spans target = null;
+        int elementStart = -1;
+        boolean elementExpected = false;
+        int lastSignificant = -1;
+        for (int i = 0; i < document.length; i++) {
+            byte b = document[i];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    if (keyStart >= 0) {
+                        key = arrayField(document, keyStart, i);
+                        keyStart = -1;
+                    }
+                }
+                lastSignificant = i;
+                continue;
+            }
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                continue;
+            }
+            if (started && depth == 0) {
+                throw malformed("content after the end of the document", i);
+            }
+            if (target != null && depth == 2 && elementStart < 0 && b != ']' && b != ',') {
+                elementStart = i;
+                elementExpected = false;
+            }
+            switch (b) {
+                case '"' -> {
+                    inString = true;
+                    if (depth == 1 && expectKey) {
+                        keyStart = i + 1;
+                        expectKey = false;
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (depth == 1) {
+                        if (b != '{') {
+                            throw malformed("expected a JSON object", i);
+                        }
+                        started = true;
+                        expectKey = true;
+                    } else if (depth == 2 && b == '[' && key >= 0) {
+                        target = spans[key];
+                        elementExpected = false;
+                    }
+                }
+                case '}', ']' -> {
+                    if (target != null && depth == 2) {
+                        if (b != ']' || elementExpected) {
+                            throw malformed("unexpected '" + (char) b + "'", i);
+                        }
+                        if (elementStart >= 0) {
+                            target.add(elementStart, lastSignificant + 1);
+                            elementStart = -1;
+                        }
+                        target = null;
+                    }
+                    if (--depth < 0) {
+                        throw malformed("unbalanced '" + (char) b + "'", i);
+                    }
+                }
+                case ',' -> {
+                    if (target != null && depth == 2) {
+                        if (elementStart < 0) {
+                            throw malformed("missing array element", i);
+                        }
+                        target.add(elementStart, lastSignificant + 1);
+                        elementStart = -1;
+                        elementExpected = true;
+                    } else if (depth == 1) {
+                        expectKey = true;
+                        key = -1;
+                    }
+                }
+                default -> {
+                    if (depth == 0) {
+                        throw malformed("expected a JSON object", i);
+                    }
+                }
+            }
+            lastSignificant = i;
+        }
+        if (!started || depth != 0 || inString) {
+            throw malformed("unexpected end of document", document.length);
+        }
+        return spans;
+    }
+
+    private static int arrayField(byte[] document, int start, int end) {
+        for (int field = 0; field < ARRAY_FIELDS.length; field++) {
+            if (Arrays.equals(document, start, end, ARRAY_FIELDS[field], 0, ARRAY_FIELDS[field].length)) {
+                return field;
+            }
+        }
+        return -1;
+    }
+
+    private static IOException malformed(String problem, int offset) {
+        return new IOException("Malformed document at byte " + offset + ": " + problem);
+    }
+
+    /**
+     * Valid records and reports of a document.
+     */
+    public static class Catalog {
+        private final List<Article> articles;
+        private final ImportReport articleReport;
+        private final List<Product> products;
+        private final ImportReport productReport;
+
+        Catalog(List<Article> articles, ImportReport articleReport, List<Product> products, ImportReport productReport) {
+            this.articles = articles;
+            this.articleReport = articleReport;
+            this.products = products;
+            this.productReport = productReport;
+        }
+
+        public List<Article> getArticles() {
+            return articles;
+        }
+
+        public ImportReport getArticleReport() {
+            return articleReport;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        public ImportReport getProductReport() {
+            return productReport;
+        }
+    }
+
+    /**
+     * Byte ranges of the elements of one array, in document order.
+     */
+    static class Spans {
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private int size;
+
+        void add(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size++] = end;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    private static class Chunk<T> {
+        private final List<T> records;
+        private final ImportReport report = new ImportReport();
+
+        Chunk(int capacity) {
+            this.records = new ArrayList<>(capacity);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SliceParser<T> {
+        T parse(int offset, int length, long index, ImportReport report);
+    }
+}
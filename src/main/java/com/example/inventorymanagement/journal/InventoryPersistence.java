@@ -0,0 +1,176 @@
+package com.example.inventorymanagement.journal;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.snapshot.MappedSnapshot;
+import com.example.inventorymanagement.snapshot.SnapshotWriter;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Owns the journal and snapshots of an {@link InventoryStore}. On startup the newest snapshot (or
+ * the catalog when there is none) is loaded and the journal segments written after it are
+ * replayed. Compaction periodically writes the current state as a snapshot and drops the journal
+ * segments it covers.
+ */
+public class InventoryPersistence implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryPersistence.class);
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d+)\\.snap");
+
+    private final Path directory;
+    private final InventoryStore store;
+    private final StockJournal journal;
+    private final ScheduledExecutorService compactor;
+
+    private InventoryPersistence(Path directory, InventoryStore store, StockJournal journal,
+                                 long compactionIntervalSeconds) {
+        this.directory = directory;
+        this.store = store;
+        this.journal = journal;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compactor.scheduleWithFixedDelay(this::compactQuietly, compactionIntervalSeconds,
+                compactionIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * <B>Description :</B> Invoked at startup to rebuild the inventory from the latest snapshot and
+     * journal, falling back to the catalog when no snapshot exists yet
+     *
+     * @param directory                 directory holding snapshots and journal segments
+     * @param catalog                   loads the initial catalog when there is no snapshot
+     * @param compactionIntervalSeconds delay between two compactions
+     * @return InventoryPersistence with the recovered store attached to the journal
+     * @throws IOException if the snapshot, journal or catalog cannot be read
+     */
+    public static InventoryPersistence recover(Path directory, Callable<InventoryStore> catalog,
+                                               long compactionIntervalSeconds) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotGeneration = latestSnapshotGeneration(directory);
+        InventoryStore store;
+        if (snapshotGeneration > 0) {
+            store = InventoryStore.fromSnapshot(MappedSnapshot.open(snapshotPath(directory, snapshotGeneration)));
+            LOGGER.info("Loaded inventory snapshot {}", snapshotGeneration);
+        } else {
+            try {
+                store = catalog.call();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to load catalog: " + e.getMessage(), e);
+            }
+            snapshotGeneration = 1;
+        }
+        StockJournal journal = StockJournal.open(directory);
+        long replayed;
+        try {
+            replayed = journal.replay(snapshotGeneration, store::apply);
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        LOGGER.info("Replayed {} journal entries", replayed);
+        store.attachJournal(journal);
+        return new InventoryPersistence(directory, store, journal, compactionIntervalSeconds);
+    }
+
+    public InventoryStore getStore() {
+        return store;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to write the current inventory as a snapshot and delete the
+     * journal segments and snapshots it supersedes
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void compact() throws IOException {
+        if (!journal.hasEntriesInCurrentSegment()) {
+            return;
+        }
+        Snapshot snapshot = store.withExclusiveAccess(() -> {
+            try {
+                return new Snapshot(journal.rollover(), store.getArticles(), store.getProducts());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        SnapshotWriter.write(snapshotPath(directory, snapshot.generation), snapshot.generation, snapshot.articles,
+                snapshot.products);
+        journal.deleteSegmentsBefore(snapshot.generation);
+        for (long existing : snapshotGenerations(directory)) {
+            if (existing < snapshot.generation) {
+                Files.deleteIfExists(snapshotPath(directory, existing));
+            }
+        }
+        LOGGER.info("Compacted stock journal into snapshot {}", snapshot.generation);
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            LOGGER.error("Error while compacting stock journal: " + e.getMessage(), e);
+        }
+    }
+
+    private static long latestSnapshotGeneration(Path directory) throws IOException {
+        List<Long> generations = snapshotGenerations(directory);
+        return generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+    }
+
+    private static List<Long> snapshotGenerations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SNAPSHOT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(String.format("snapshot-%016d.snap", generation));
+    }
+
+    /**
+     * State of the store after every journal segment older than {@code generation} was applied.
+     */
+    private static class Snapshot {
+        private final long generation;
+        private final List<Article> articles;
+        private final List<Product> products;
+
+        Snapshot(long generation, List<Article> articles, List<Product> products) {
+            this.generation = generation;
+            this.articles = articles;
+            this.products = products;
+        }
+    }
+}
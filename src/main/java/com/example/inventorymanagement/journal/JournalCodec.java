@@ -0,0 +1,99 @@
+package com.example.inventorymanagement.journal;
+
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.RequiredProduct;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of {@link JournalEntry} bodies. The first byte is the entry type, followed by
+ * the type specific fields written with {@link DataOutputStream}. Product entries end with their
+ * sub-assemblies, which entries written before sub-assemblies existed do not have.
+ */
+final class JournalCodec {
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(entry.getType().ordinal());
+            switch (entry.getType()) {
+                case ORDER_PLACED, ORDER_CANCELLED -> {
+                    out.writeInt(entry.getOrderLines().size());
+                    for (RequiredProduct line : entry.getOrderLines()) {
+                        out.writeUTF(line.getName());
+                        out.writeInt(line.getQuantity());
+                    }
+                }
+                case ARTICLE_RESTOCKED, ARTICLE_IMPORTED -> {
+                    out.writeUTF(entry.getId());
+                    out.writeUTF(entry.getName());
+                    out.writeInt(entry.getQuantity());
+                }
+                case PRODUCT_ASSEMBLED, PRODUCT_IMPORTED -> {
+                    out.writeUTF(entry.getName());
+                    out.writeDouble(entry.getPrice());
+                    out.writeInt(entry.getQuantity());
+                    out.writeInt(entry.getContainArticles().size());
+                    for (ContainArticle containArticle : entry.getContainArticles()) {
+                        out.writeUTF(containArticle.getArt_id());
+                        out.writeInt(containArticle.getAmount_of());
+                    }
+                    out.writeInt(entry.getContainProducts().size());
+                    for (ContainProduct containProduct : entry.getContainProducts()) {
+                        out.writeUTF(containProduct.getName());
+                        out.writeInt(containProduct.getAmount_of());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        JournalEntry.Type type = JournalEntry.Type.values()[in.readUnsignedByte()];
+        switch (type) {
+            case ORDER_PLACED, ORDER_CANCELLED -> {
+                int size = in.readInt();
+                List<RequiredProduct> lines = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    lines.add(new RequiredProduct(in.readUTF(), in.readInt()));
+                }
+                return type == JournalEntry.Type.ORDER_CANCELLED
+                        ? JournalEntry.orderCancelled(lines)
+                        : JournalEntry.orderPlaced(lines);
+            }
+            case ARTICLE_RESTOCKED -> {
+                return JournalEntry.articleRestocked(in.readUTF(), in.readUTF(), in.readInt());
+            }
+            case ARTICLE_IMPORTED -> {
+                return JournalEntry.articleImported(in.readUTF(), in.readUTF(), in.readInt());
+            }
+            default -> {
+                String name = in.readUTF();
+                double price = in.readDouble();
+                int quantity = in.readInt();
+                int size = in.readInt();
+                List<ContainArticle> containArticles = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    containArticles.add(new ContainArticle(in.readUTF(), in.readInt()));
+                }
+                int products = in.available() > 0 ? in.readInt() : 0;
+                List<ContainProduct> containProducts = new ArrayList<>(products);
+                for (int i = 0; i < products; i++) {
+                    containProducts.add(new ContainProduct(in.readUTF(), in.readInt()));
+                }
+                return type == JournalEntry.Type.PRODUCT_IMPORTED
+                        ? JournalEntry.productImported(name, price, quantity, containArticles, containProducts)
+                        : JournalEntry.productAssembled(name, price, quantity, containArticles, containProducts);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.inventorymanagement.journal;
+
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.RequiredProduct;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single stock change as it is written to the journal. Entries describe what was applied, not
+ * what was requested, so replaying them never has to repeat a stock check. Restock, assembly and
+ * order entries carry deltas; imported records carry the absolute stock from the catalog. Product
+ * entries carry their sub-assemblies as well as their articles; replaying entries in order explodes
+ * sub-assemblies with the same bills of materials they were applied with.
+ */
+public class JournalEntry {
+    public enum Type {
+        ORDER_PLACED, ARTICLE_RESTOCKED, PRODUCT_ASSEMBLED, ARTICLE_IMPORTED, PRODUCT_IMPORTED, ORDER_CANCELLED
+    }
+
+    private final Type type;
+    private final String id;
+    private final String name;
+    private final int quantity;
+    private final double price;
+    private final List<ContainArticle> containArticles;
+    private final List<ContainProduct> containProducts;
+    private final List<RequiredProduct> orderLines;
+
+    private JournalEntry(Type type, String id, String name, int quantity, double price,
+                         List<ContainArticle> containArticles, List<ContainProduct> containProducts,
+                         List<RequiredProduct> orderLines) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.quantity = quantity;
+        this.price = price;
+        this.containArticles = containArticles == null ? Collections.emptyList() : containArticles;
+        this.containProducts = containProducts == null ? Collections.emptyList() : containProducts;
+        this.orderLines = orderLines;
+    }
+
+    public static JournalEntry orderPlaced(List<RequiredProduct> orderLines) {
+        return new JournalEntry(Type.ORDER_PLACED, null, null, 0, 0, null, null, orderLines);
+    }
+
+    public static JournalEntry orderCancelled(List<RequiredProduct> orderLines) {
+        return new JournalEntry(Type.ORDER_CANCELLED, null, null, 0, 0, null, null, orderLines);
+    }
+
+    public static JournalEntry articleRestocked(String artId, String name, int quantity) {
+        return new JournalEntry(Type.ARTICLE_RESTOCKED, artId, name, quantity, 0, null, null, null);
+    }
+
+    public static JournalEntry productAssembled(String name, double price, int quantity,
+                                                List<ContainArticle> containArticles) {
+        return productAssembled(name, price, quantity, containArticles, null);
+    }
+
+    public static JournalEntry productAssembled(String name, double price, int quantity,
+                                                List<ContainArticle> containArticles,
+                                                List<ContainProduct> containProducts) {
+        return new JournalEntry(Type.PRODUCT_ASSEMBLED, null, name, quantity, price, containArticles,
+                containProducts, null);
+    }
+
+    public static JournalEntry articleImported(String artId, String name, int stock) {
+        return new JournalEntry(Type.ARTICLE_IMPORTED, artId, name, stock, 0, null, null, null);
+    }
+
+    public static JournalEntry productImported(String name, double price, int stock,
+                                               List<ContainArticle> containArticles) {
+        return productImported(name, price, stock, containArticles, null);
+    }
+
+    public static JournalEntry productImported(String name, double price, int stock,
+                                               List<ContainArticle> containArticles,
+                                               List<ContainProduct> containProducts) {
+        return new JournalEntry(Type.PRODUCT_IMPORTED, null, name, stock, price, containArticles,
+                containProducts, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public List<ContainArticle> getContainArticles() {
+        return containArticles;
+    }
+
+    public List<ContainProduct> getContainProducts() {
+        return containProducts;
+    }
+
+    public List<RequiredProduct> getOrderLines() {
+        return orderLines;
+    }
+}
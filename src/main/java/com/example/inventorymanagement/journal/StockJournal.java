@@ -0,0 +1,428 @@
+package com.example.inventorymanagement.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented journal of stock deltas. Callers append entries while they still hold
+ * the inventory lock, which keeps the journal in the same order as the in-memory changes, and then
+ * wait for durability after releasing it. A single flusher thread writes everything appended since
+ * its previous pass and issues one fsync for the whole batch (group commit), so concurrent requests
+ * share the cost of a sync instead of paying one each.
+ * <p>
+ * Each frame is {@code [int length][int crc32c][body]} where the body is produced by
+ * {@link JournalCodec}. A torn or corrupt frame marks the end of the usable journal.
+ * <p>
+ * A failed write or sync is final: the flusher stops, and every later append, wait or rollover
+ * fails with the same error, since whatever reached the segment after the last successful sync is
+ * unknown and writing past it could leave a gap that replay would take for a torn tail.
+ */
+public class StockJournal implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockJournal.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition pendingWrites = appendLock.newCondition();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final Thread flusher;
+
+    // guarded by appendLock
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long appendedPosition;
+    private long entriesInSegment;
+    private boolean closed;
+
+    // guarded by flushLock
+    private ByteBuffer flushing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private FileChannel channel;
+    private long generation;
+
+    // guarded by durableLock
+    private long durablePosition;
+
+    // written once, under durableLock
+    private volatile IOException failure;
+
+    private StockJournal(Path directory, long generation) throws IOException {
+        this.directory = directory;
+        this.generation = generation;
+        this.channel = openSegment(generation);
+        this.flusher = new Thread(this::runFlusher, "stock-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to open the journal in a directory. Existing segments are kept
+     * for {@link #replay} and new entries always go to a fresh segment.
+     *
+     * @param directory directory holding the journal segments
+     * @return StockJournal ready for appends
+     * @throws IOException if the directory or the new segment cannot be created
+     */
+    public static StockJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long lastGeneration = 0;
+        for (long existing : segmentGenerations(directory)) {
+            lastGeneration = Math.max(lastGeneration, existing);
+        }
+        StockJournal journal = new StockJournal(directory, lastGeneration + 1);
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * <B>Description :</B> Invoked at startup to feed every entry written before this journal was
+     * opened, starting at the given generation, to the consumer. Only the last of those segments
+     * holding any bytes can have been cut short by a crash, since every start writes to a fresh
+     * segment: its torn tail is truncated, while a short or corrupt frame in any earlier segment
+     * fails recovery.
+     *
+     * @param fromGeneration first segment generation to replay
+     * @param consumer       receives each entry in journal order
+     * @return number of entries replayed
+     * @throws IOException if a segment cannot be read or a segment other than the last is corrupt
+     */
+    public long replay(long fromGeneration, Consumer<JournalEntry> consumer) throws IOException {
+        long current = currentGeneration();
+        List<Long> segments = segmentGenerations(directory).stream()
+                .filter(segment -> segment >= fromGeneration && segment < current)
+                .toList();
+        int last = segments.size() - 1;
+        while (last > 0 && Files.size(segmentPath(segments.get(last))) == 0) {
+            last--;
+        }
+        long replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segmentPath(segments.get(i));
+            long validBytes = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                while (true) {
+                    byte[] body = readFrame(in);
+                    if (body == null) {
+                        break;
+                    }
+                    consumer.accept(JournalCodec.decode(body));
+                    validBytes += FRAME_HEADER_BYTES + body.length;
+                    replayed++;
+                }
+            }
+            if (validBytes < Files.size(path)) {
+                if (i < last) {
+                    throw new IOException("Journal segment " + path + " is corrupt after " + validBytes
+                            + " bytes and is followed by later segments");
+                }
+                LOGGER.warn("Journal segment {} has a torn tail after {} bytes, ignoring the remainder", path, validBytes);
+                try (FileChannel segmentChannel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    segmentChannel.truncate(validBytes);
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to append an entry to the pending batch
+     *
+     * @param entry JournalEntry
+     * @return ticket to pass to {@link #awaitDurable(long)}
+     */
+    public long append(JournalEntry entry) {
+        byte[] body = JournalCodec.encode(entry);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            ensureWritable();
+            pending = ensureCapacity(pending, FRAME_HEADER_BYTES + body.length);
+            pending.putInt(body.length).putInt((int) crc.getValue()).put(body);
+            appendedPosition += FRAME_HEADER_BYTES + body.length;
+            entriesInSegment++;
+            pendingWrites.signal();
+            return appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked before changing state that will be appended, to fail early once
+     * the journal can no longer be written
+     *
+     * @throws UncheckedIOException if a write or sync of the journal has failed
+     */
+    public void ensureWritable() {
+        IOException current = failure;
+        if (current != null) {
+            throw new UncheckedIOException("Journal can no longer be written", current);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to block until the entry behind a ticket has been synced to disk
+     *
+     * @param ticket value returned by {@link #append(JournalEntry)}
+     * @throws IOException if the journal could not be written, now or at any earlier flush
+     */
+    public void awaitDurable(long ticket) throws IOException {
+        durableLock.lock();
+        try {
+            while (failure == null && durablePosition < ticket) {
+                durableAdvanced.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to block until everything appended so far has been synced to disk
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void sync() throws IOException {
+        long target;
+        appendLock.lock();
+        try {
+            target = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * <B>Description :</B> Invoked by compaction to close the current segment and start a new one.
+     * The caller must make sure no entries are appended concurrently.
+     *
+     * @return generation of the new segment; every earlier segment is complete on disk
+     * @throws IOException if the current segment cannot be synced or the new one created
+     */
+    public long rollover() throws IOException {
+        flushLock.lock();
+        try {
+            flushPending();
+            channel.close();
+            generation++;
+            channel = openSegment(generation);
+            appendLock.lock();
+            try {
+                entriesInSegment = 0;
+            } finally {
+                appendLock.unlock();
+            }
+            return generation;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to check whether anything was appended since the last rollover
+     *
+     * @return true if the current segment holds entries
+     */
+    public boolean hasEntriesInCurrentSegment() {
+        appendLock.lock();
+        try {
+            return entriesInSegment > 0;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked once a snapshot covers them to delete segments older than a generation
+     *
+     * @param generation first generation to keep
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteSegmentsBefore(long generation) throws IOException {
+        for (long segment : segmentGenerations(directory)) {
+            if (segment < generation) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+    }
+
+    public long currentGeneration() {
+        flushLock.lock();
+        try {
+            return generation;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            closed = true;
+            pendingWrites.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            channel.close();
+            flushLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            appendLock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            flushLock.lock();
+            try {
+                flushPending();
+            } catch (IOException e) {
+                LOGGER.error("Error while writing stock journal, no further changes will be accepted: "
+                        + e.getMessage(), e);
+                return;
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes and syncs everything appended so far. Must be called with {@link #flushLock} held.
+     * Never retries once a write or sync has failed.
+     */
+    private void flushPending() throws IOException {
+        IOException previous = failure;
+        if (previous != null) {
+            throw previous;
+        }
+        long target;
+        appendLock.lock();
+        try {
+            if (pending.position() == 0) {
+                return;
+            }
+            ByteBuffer swap = flushing;
+            flushing = pending;
+            pending = swap;
+            target = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flushing.flip();
+            while (flushing.hasRemaining()) {
+                channel.write(flushing);
+            }
+            flushing.clear();
+            channel.force(false);
+        } catch (IOException e) {
+            markFailed(e);
+            throw e;
+        }
+        durableLock.lock();
+        try {
+            durablePosition = target;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void markFailed(IOException e) {
+        durableLock.lock();
+        try {
+            failure = e;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("journal-%016d.log", segment));
+    }
+
+    private static List<Long> segmentGenerations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_FRAME_BYTES) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            return (int) crc.getValue() == checksum ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int extra) {
+        if (buffer.remaining() >= extra) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
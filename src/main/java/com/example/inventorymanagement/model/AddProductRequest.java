@@ -5,6 +5,7 @@ import java.util.List;
 public class AddProductRequest {
     private String name;
     private List<ContainArticle> articleQuantities;
+    private List<ContainProduct> productQuantities;
     private double price;
     private int stock;
 
@@ -24,6 +25,14 @@ public class AddProductRequest {
         this.articleQuantities = articleQuantities;
     }
 
+    public List<ContainProduct> getProductQuantities() {
+        return productQuantities;
+    }
+
+    public void setProductQuantities(List<ContainProduct> productQuantities) {
+        this.productQuantities = productQuantities;
+    }
+
     public double getPrice() {
         return price;
     }
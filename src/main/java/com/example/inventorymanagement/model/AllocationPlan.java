@@ -0,0 +1,52 @@
+package com.example.inventorymanagement.model;
+
+import java.util.Map;
+
+public class AllocationPlan {
+    private Map<String, Integer> allocation;
+    private long requested;
+    private long allocated;
+    private int components;
+
+    public AllocationPlan(Map<String, Integer> allocation, long requested, long allocated, int components) {
+        this.allocation = allocation;
+        this.requested = requested;
+        this.allocated = allocated;
+        this.components = components;
+    }
+
+    public AllocationPlan() {
+    }
+
+    public Map<String, Integer> getAllocation() {
+        return allocation;
+    }
+
+    public void setAllocation(Map<String, Integer> allocation) {
+        this.allocation = allocation;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public void setRequested(long requested) {
+        this.requested = requested;
+    }
+
+    public long getAllocated() {
+        return allocated;
+    }
+
+    public void setAllocated(long allocated) {
+        this.allocated = allocated;
+    }
+
+    public int getComponents() {
+        return components;
+    }
+
+    public void setComponents(int components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventorymanagement.model;
+
+public class BulkUploadReport {
+    private ImportReport articles;
+    private ImportReport products;
+
+    public BulkUploadReport(ImportReport articles, ImportReport products) {
+        this.articles = articles;
+        this.products = products;
+    }
+
+    public BulkUploadReport() {
+    }
+
+    public ImportReport getArticles() {
+        return articles;
+    }
+
+    public void setArticles(ImportReport articles) {
+        this.articles = articles;
+    }
+
+    public ImportReport getProducts() {
+        return products;
+    }
+
+    public void setProducts(ImportReport products) {
+        this.products = products;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.inventorymanagement.model;
+
+import java.util.List;
+
+public class CatalogPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public CatalogPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public CatalogPage() {
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
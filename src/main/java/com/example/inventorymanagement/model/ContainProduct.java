@@ -0,0 +1,27 @@
+package com.example.inventorymanagement.model;
+
+public class ContainProduct {
+    private String name;
+    private int amount_of;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAmount_of() {
+        return amount_of;
+    }
+
+    public void setAmount_of(int amount_of) {
+        this.amount_of = amount_of;
+    }
+
+    public ContainProduct(String name, int amount_of) {
+        this.name = name;
+        this.amount_of = amount_of;
+    }
+}
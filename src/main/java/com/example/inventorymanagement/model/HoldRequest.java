@@ -0,0 +1,24 @@
+package com.example.inventorymanagement.model;
+
+import java.util.List;
+
+public class HoldRequest {
+    private List<RequiredProduct> requiredProductList;
+    private Long ttlSeconds;
+
+    public List<RequiredProduct> getRequiredProductList() {
+        return requiredProductList;
+    }
+
+    public void setRequiredProductList(List<RequiredProduct> requiredProductList) {
+        this.requiredProductList = requiredProductList;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventorymanagement.model;
+
+public class HoldResult {
+    private long holdId;
+    private String message;
+
+    public HoldResult(long holdId, String message) {
+        this.holdId = holdId;
+        this.message = message;
+    }
+
+    public HoldResult() {
+    }
+
+    public long getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(long holdId) {
+        this.holdId = holdId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.inventorymanagement.model;
+
+public class ImportError {
+    private long index;
+    private String key;
+    private String message;
+
+    public ImportError(long index, String key, String message) {
+        this.index = index;
+        this.key = key;
+        this.message = message;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
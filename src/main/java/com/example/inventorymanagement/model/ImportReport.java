@@ -0,0 +1,80 @@
+package com.example.inventorymanagement.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long accepted;
+    private long rejected;
+    private List<ImportError> errors = new ArrayList<>();
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportError> errors) {
+        this.errors = errors;
+    }
+
+    public void accept() {
+        accepted++;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to add the counts and errors of a report covering later records
+     *
+     * @param other report of the records that follow the ones of this report
+     */
+    public void merge(ImportReport other) {
+        accepted += other.accepted;
+        rejected += other.rejected;
+        for (ImportError error : other.errors) {
+            if (errors.size() == MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count a record accepted when it was read as rejected, because
+     * it could not be applied once the whole document was read. Its position is no longer known,
+     * so its error has index -1.
+     *
+     * @param key     key of the record
+     * @param message why the record was rejected
+     */
+    public void revoke(String key, String message) {
+        accepted--;
+        reject(-1, key, message);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count a rejected record; only the first
+     * {@link #MAX_REPORTED_ERRORS} rejections are kept in detail
+     */
+    public void reject(long index, String key, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportError(index, key, message));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventorymanagement.model;
+
+public class OrderResult {
+    private boolean success;
+    private String message;
+
+    public OrderResult(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    public OrderResult() {
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
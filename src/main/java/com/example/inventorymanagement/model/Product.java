@@ -5,6 +5,7 @@ import java.util.List;
 public class Product {
     private String name;
     private List<ContainArticle> contain_articles;
+    private List<ContainProduct> contain_products;
     private double price;
     private int stock;
 
@@ -24,6 +25,14 @@ public class Product {
         this.contain_articles = contain_articles;
     }
 
+    public List<ContainProduct> getContain_products() {
+        return contain_products;
+    }
+
+    public void setContain_products(List<ContainProduct> contain_products) {
+        this.contain_products = contain_products;
+    }
+
     public double getPrice() {
         return price;
     }
@@ -47,6 +56,12 @@ public class Product {
         this.stock = stock;
     }
 
+    public Product(String name, List<ContainArticle> contain_articles, List<ContainProduct> contain_products,
+                   double price, int stock) {
+        this(name, contain_articles, price, stock);
+        this.contain_products = contain_products;
+    }
+
     public Product() {
     }
 
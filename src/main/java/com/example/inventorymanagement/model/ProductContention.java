@@ -0,0 +1,40 @@
+package com.example.inventorymanagement.model;
+
+public class ProductContention {
+    private String name;
+    private long contendedLocks;
+    private double lockWaitMillis;
+
+    public ProductContention(String name, long contendedLocks, double lockWaitMillis) {
+        this.name = name;
+        this.contendedLocks = contendedLocks;
+        this.lockWaitMillis = lockWaitMillis;
+    }
+
+    public ProductContention() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getContendedLocks() {
+        return contendedLocks;
+    }
+
+    public void setContendedLocks(long contendedLocks) {
+        this.contendedLocks = contendedLocks;
+    }
+
+    public double getLockWaitMillis() {
+        return lockWaitMillis;
+    }
+
+    public void setLockWaitMillis(double lockWaitMillis) {
+        this.lockWaitMillis = lockWaitMillis;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.inventorymanagement.model;
+
+import java.util.List;
+
+public class ShardTransaction {
+    private String transactionId;
+    private List<RequiredProduct> requiredProductList;
+
+    public ShardTransaction(String transactionId, List<RequiredProduct> requiredProductList) {
+        this.transactionId = transactionId;
+        this.requiredProductList = requiredProductList;
+    }
+
+    public ShardTransaction() {
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public List<RequiredProduct> getRequiredProductList() {
+        return requiredProductList;
+    }
+
+    public void setRequiredProductList(List<RequiredProduct> requiredProductList) {
+        this.requiredProductList = requiredProductList;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventorymanagement.model;
+
+public class StockChange {
+    public static final String ARTICLE = "ARTICLE";
+    public static final String PRODUCT = "PRODUCT";
+
+    private long sequence;
+    private String type;
+    private String id;
+    private int stock;
+    private int delta;
+
+    public StockChange(long sequence, String type, String id, int stock, int delta) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.stock = stock;
+        this.delta = delta;
+    }
+
+    public StockChange() {
+    }
+
+    /**
+     * <B>Description :</B> Invoked to merge a later change of the same article or product into
+     * this one, keeping the later stock and sequence and the sum of both deltas
+     *
+     * @param later change applied after this one
+     * @return StockChange covering both changes
+     */
+    public StockChange then(StockChange later) {
+        return new StockChange(later.sequence, type, id, later.stock, delta + later.delta);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
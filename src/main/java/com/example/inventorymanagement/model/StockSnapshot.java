@@ -0,0 +1,42 @@
+package com.example.inventorymanagement.model;
+
+import java.util.Map;
+
+public class StockSnapshot {
+    private long sequence;
+    private Map<String, Integer> articles;
+    private Map<String, Integer> products;
+
+    public StockSnapshot(long sequence, Map<String, Integer> articles, Map<String, Integer> products) {
+        this.sequence = sequence;
+        this.articles = articles;
+        this.products = products;
+    }
+
+    public StockSnapshot() {
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Map<String, Integer> getArticles() {
+        return articles;
+    }
+
+    public void setArticles(Map<String, Integer> articles) {
+        this.articles = articles;
+    }
+
+    public Map<String, Integer> getProducts() {
+        return products;
+    }
+
+    public void setProducts(Map<String, Integer> products) {
+        this.products = products;
+    }
+}
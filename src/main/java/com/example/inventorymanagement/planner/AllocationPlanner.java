@@ -0,0 +1,277 @@
+package com.example.inventorymanagement.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Decides how many units of each wanted product can be assembled from article stock at once, so
+ * that products sharing articles do not starve each other silently. Products are first split into
+ * components that share no article, with a union-find over the articles of each product, and
+ * components are allocated independently on a {@link ForkJoinPool}.
+ * <p>
+ * Within a component two allocations are tried and the one fulfilling more units is kept:
+ * <ul>
+ *     <li>every product gets the same fraction of its demand, the largest fraction the scarcest
+ *     article allows, and the stock left over is handed out greedily;</li>
+ *     <li>stock is handed out greedily from nothing.</li>
+ * </ul>
+ * The greedy pass visits products by how much of the scarce stock one unit consumes, cheapest
+ * first, and gives each product as many more units as its articles allow. Every allocation is
+ * feasible: no article is allocated beyond its stock. A product needing no article gets no units,
+ * just as {@code InventoryStore#getBuildableStock} counts it as not buildable.
+ */
+public class AllocationPlanner {
+    private static final int MIN_TASK_PRODUCTS = 1024;
+
+    private final ForkJoinPool pool;
+
+    public AllocationPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to allocate article stock to the products of a problem, filling
+     * in the units allocated to each product and the number of components
+     *
+     * @param problem AllocationProblem to solve
+     */
+    public void plan(AllocationProblem problem) {
+        int products = problem.productCount();
+        int[] offsets = problem.offsets();
+        int[] articles = problem.articles();
+        int articleCount = problem.articleCount();
+
+        int[] parent = new int[articleCount];
+        for (int article = 0; article < articleCount; article++) {
+            parent[article] = article;
+        }
+        for (int product = 0; product < products; product++) {
+            for (int k = offsets[product] + 1; k < offsets[product + 1]; k++) {
+                union(parent, articles[offsets[product]], articles[k]);
+            }
+        }
+
+        // products without articles are components of their own, numbered after the articles
+        int[] componentOf = new int[products];
+        int[] dense = new int[articleCount + products];
+        Arrays.fill(dense, -1);
+        int components = 0;
+        for (int product = 0; product < products; product++) {
+            int root = offsets[product] == offsets[product + 1] ? articleCount + product
+                    : find(parent, articles[offsets[product]]);
+            if (dense[root] < 0) {
+                dense[root] = components++;
+            }
+            componentOf[product] = dense[root];
+        }
+        int[] componentOffsets = new int[components + 1];
+        for (int product = 0; product < products; product++) {
+            componentOffsets[componentOf[product] + 1]++;
+        }
+        for (int component = 0; component < components; component++) {
+            componentOffsets[component + 1] += componentOffsets[component];
+        }
+        int[] members = new int[products];
+        int[] fill = Arrays.copyOf(componentOffsets, components);
+        for (int product = 0; product < products; product++) {
+            members[fill[componentOf[product]]++] = product;
+        }
+
+        Scratch scratch = new Scratch(articleCount);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int first = 0; first < components; ) {
+            int last = first;
+            while (last < components && componentOffsets[last] - componentOffsets[first] < MIN_TASK_PRODUCTS) {
+                last++;
+            }
+            int from = first;
+            int to = last;
+            tasks.add(() -> {
+                for (int component = from; component < to; component++) {
+                    allocate(problem, members, componentOffsets[component], componentOffsets[component + 1], scratch);
+                }
+                return null;
+            });
+            first = last;
+        }
+        run(tasks);
+        problem.setComponents(components);
+    }
+
+    private void run(List<Callable<Void>> tasks) {
+        if (tasks.size() == 1) {
+            try {
+                tasks.get(0).call();
+            } catch (Exception e) {
+                throw new IllegalStateException("Allocation failed: " + e.getMessage(), e);
+            }
+            return;
+        }
+        for (Future<Void> task : pool.invokeAll(tasks)) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while planning the allocation", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Allocation failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Allocates the products {@code members[from] .. members[to - 1]} of one component. Components
+     * share no article, so concurrent calls touch disjoint slots of the scratch arrays.
+     */
+    private static void allocate(AllocationProblem problem, int[] members, int from, int to, Scratch scratch) {
+        int[] offsets = problem.offsets();
+        int[] articles = problem.articles();
+        int[] amounts = problem.amounts();
+        int[] stock = problem.stock();
+        int[] allocation = problem.allocation();
+        int size = to - from;
+        if (size == 1 && offsets[members[from]] == offsets[members[from] + 1]) {
+            allocation[members[from]] = 0;
+            return;
+        }
+
+        // proportional share: the largest fraction stock / need that every article of the component allows
+        long shareStock = 1;
+        long shareNeed = 1;
+        for (int i = from; i < to; i++) {
+            int product = members[i];
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                scratch.need[articles[k]] = 0;
+                scratch.remaining[articles[k]] = stock[articles[k]];
+                scratch.trial[articles[k]] = stock[articles[k]];
+            }
+        }
+        for (int i = from; i < to; i++) {
+            int product = members[i];
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                scratch.need[articles[k]] = saturatedAdd(scratch.need[articles[k]],
+                        (long) problem.demand(product) * amounts[k]);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            int product = members[i];
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                long need = scratch.need[articles[k]];
+                long available = stock[articles[k]];
+                if (compareProducts(available, shareNeed, shareStock, need) < 0) {
+                    shareStock = available;
+                    shareNeed = need;
+                }
+            }
+        }
+
+        // visit order of the greedy pass: cheapest products in terms of scarce stock first
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            int product = members[from + i];
+            double cost = 0;
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                cost += (double) amounts[k] / (stock[articles[k]] + 1L);
+            }
+            order[i] = ((long) Float.floatToIntBits((float) cost) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] shared = new int[size];
+        for (int i = 0; i < size; i++) {
+            int product = members[from + i];
+            shared[i] = (int) (problem.demand(product) * shareStock / shareNeed);
+            take(problem, product, shared[i], scratch.remaining);
+        }
+        long sharedTotal = fill(problem, members, from, order, shared, scratch.remaining);
+        int[] greedy = new int[size];
+        long greedyTotal = fill(problem, members, from, order, greedy, scratch.trial);
+
+        int[] best = greedyTotal > sharedTotal ? greedy : shared;
+        for (int i = 0; i < size; i++) {
+            allocation[members[from + i]] = best[i];
+        }
+    }
+
+    /**
+     * Gives each product in visit order as many more units as the remaining stock allows and
+     * returns the units allocated in total.
+     */
+    private static long fill(AllocationProblem problem, int[] members, int from, long[] order, int[] units,
+                             long[] remaining) {
+        int[] offsets = problem.offsets();
+        int[] articles = problem.articles();
+        int[] amounts = problem.amounts();
+        long total = 0;
+        for (long key : order) {
+            int i = (int) key;
+            int product = members[from + i];
+            long extra = problem.demand(product) - units[i];
+            for (int k = offsets[product]; k < offsets[product + 1] && extra > 0; k++) {
+                extra = Math.min(extra, remaining[articles[k]] / amounts[k]);
+            }
+            take(problem, product, extra, remaining);
+            units[i] += (int) extra;
+            total += units[i];
+        }
+        return total;
+    }
+
+    private static void take(AllocationProblem problem, int product, long units, long[] remaining) {
+        int[] offsets = problem.offsets();
+        int[] articles = problem.articles();
+        int[] amounts = problem.amounts();
+        for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+            remaining[articles[k]] -= units * amounts[k];
+        }
+    }
+
+    /**
+     * Compares {@code a * b} with {@code c * d} for non-negative values without overflow.
+     */
+    private static int compareProducts(long a, long b, long c, long d) {
+        int high = Long.compare(Math.multiplyHigh(a, b), Math.multiplyHigh(c, d));
+        return high != 0 ? high : Long.compareUnsigned(a * b, c * d);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static int find(int[] parent, int article) {
+        while (parent[article] != article) {
+            parent[article] = parent[parent[article]];
+            article = parent[article];
+        }
+        return article;
+    }
+
+    private static void union(int[] parent, int first, int second) {
+        int a = find(parent, first);
+        int b = find(parent, second);
+        if (a != b) {
+            parent[Math.max(a, b)] = Math.min(a, b);
+        }
+    }
+
+    /**
+     * Per article working arrays shared by all components of one plan.
+     */
+    private static final class Scratch {
+        private final long[] need;
+        private final long[] remaining;
+        private final long[] trial;
+
+        Scratch(int articles) {
+            this.need = new long[articles];
+            this.remaining = new long[articles];
+            this.trial = new long[articles];
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.inventorymanagement.planner;
+
+/**
+ * Products wanted in some quantity, the articles each unit consumes and the stock of those
+ * articles, as compact arrays: the articles of product {@code p} are
+ * {@code articles[offsets[p]] .. articles[offsets[p + 1] - 1]} with the matching {@code amounts},
+ * each article at most once per product and numbered from 0 within the problem. The
+ * {@link AllocationPlanner} fills in how many units of each product are allocated.
+ */
+public final class AllocationProblem {
+    private final String[] products;
+    private final int[] demand;
+    private final int[] offsets;
+    private final int[] articles;
+    private final int[] amounts;
+    private final int[] stock;
+    private final int[] allocated;
+    private int components;
+
+    public AllocationProblem(String[] products, int[] demand, int[] offsets, int[] articles, int[] amounts, int[] stock) {
+        this.products = products;
+        this.demand = demand;
+        this.offsets = offsets;
+        this.articles = articles;
+        this.amounts = amounts;
+        this.stock = stock;
+        this.allocated = new int[products.length];
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    public int articleCount() {
+        return stock.length;
+    }
+
+    public String product(int product) {
+        return products[product];
+    }
+
+    public int demand(int product) {
+        return demand[product];
+    }
+
+    public int allocated(int product) {
+        return allocated[product];
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the number of groups of products that share no article
+     * with each other, which the planner allocated independently
+     *
+     * @return number of components
+     */
+    public int components() {
+        return components;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] articles() {
+        return articles;
+    }
+
+    int[] amounts() {
+        return amounts;
+    }
+
+    int[] stock() {
+        return stock;
+    }
+
+    int[] allocation() {
+        return allocated;
+    }
+
+    void setComponents(int components) {
+        this.components = components;
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.inventorymanagement.service;
 
+import com.example.inventorymanagement.exception.BulkUploadException;
 import com.example.inventorymanagement.exception.RetrieveProductsException;
 import com.example.inventorymanagement.exception.ImportArticlesException;
 import com.example.inventorymanagement.exception.ImportProductsException;
+import com.example.inventorymanagement.exception.PlanAllocationException;
 import com.example.inventorymanagement.exception.ProcessOrderException;
 import com.example.inventorymanagement.model.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -15,11 +19,45 @@ public interface WarehouseManagementService {
 
     List<Product> importProducts() throws ImportProductsException;
 
+    ImportReport importArticles(InputStream catalog) throws ImportArticlesException;
+
+    ImportReport importProducts(InputStream catalog) throws ImportProductsException;
+
+    BulkUploadReport bulkUpload(InputStream catalog) throws BulkUploadException;
+
+    CatalogPage<Article> listArticles(String cursor, int limit) throws ImportArticlesException;
+
+    CatalogPage<Product> listProducts(String cursor, int limit) throws ImportProductsException;
+
+    void streamArticles(OutputStream out) throws ImportArticlesException;
+
+    void streamProducts(OutputStream out) throws ImportProductsException;
+
     List<Article> updateOrAddArticle(AddArticleRequest request) throws IOException;
 
     Boolean updateOrAddProduct(AddProductRequest request) throws IOException;
 
     Map<String, Integer> retrieveAllProducts() throws RetrieveProductsException;
 
+    Map<String, Integer> retrieveAssemblableProducts() throws RetrieveProductsException;
+
+    List<Article> findArticlesByStock(int minStock, int maxStock, int limit) throws ImportArticlesException;
+
+    Map<String, Integer> findProductsByStock(int minStock, int maxStock, int limit) throws RetrieveProductsException;
+
+    Map<String, Integer> retrieveTopProducts(int limit, boolean scarcest) throws RetrieveProductsException;
+
+    AllocationPlan planAllocation(BuyProductRequest request) throws PlanAllocationException;
+
     Boolean processOrder(BuyProductRequest request) throws ProcessOrderException;
+
+    Boolean processOrder(BuyProductRequest request, String idempotencyKey) throws ProcessOrderException;
+
+    List<Boolean> processOrders(List<BuyProductRequest> requests) throws ProcessOrderException;
+
+    long createHold(HoldRequest request) throws ProcessOrderException;
+
+    boolean confirmHold(long holdId) throws ProcessOrderException;
+
+    boolean releaseHold(long holdId) throws ProcessOrderException;
 }
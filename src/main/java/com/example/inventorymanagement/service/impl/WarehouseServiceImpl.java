@@ -1,66 +1,298 @@
 package com.example.inventorymanagement.service.impl;
 
+import com.example.inventorymanagement.exception.BulkUploadException;
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
 import com.example.inventorymanagement.exception.ImportArticlesException;
 import com.example.inventorymanagement.exception.ImportProductsException;
+import com.example.inventorymanagement.exception.InvalidHoldException;
+import com.example.inventorymanagement.exception.OrderReleasedException;
+import com.example.inventorymanagement.exception.PlanAllocationException;
 import com.example.inventorymanagement.exception.ProcessOrderException;
 import com.example.inventorymanagement.exception.RetrieveProductsException;
+import com.example.inventorymanagement.idempotency.IdempotencyCache;
+import com.example.inventorymanagement.importer.BatchingConsumer;
+import com.example.inventorymanagement.importer.CatalogStreamReader;
+import com.example.inventorymanagement.importer.ParallelCatalogReader;
 import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.planner.AllocationPlanner;
+import com.example.inventorymanagement.planner.AllocationProblem;
 import com.example.inventorymanagement.service.WarehouseManagementService;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
+import com.example.inventorymanagement.shard.LocalShard;
+import com.example.inventorymanagement.shard.ShardRouter;
+import com.example.inventorymanagement.store.InventoryMetrics;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.ProductImport;
+import com.example.inventorymanagement.store.StockHolds;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class WarehouseServiceImpl implements WarehouseManagementService {
-    private final Gson gson = new Gson();
+    @Autowired
+    private InventoryStore inventoryStore;
+    // set when this instance is one shard of a cluster, see ShardConfig
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+    @Autowired(required = false)
+    private LocalShard localShard;
+    @Autowired
+    private StockHolds stockHolds;
+    @Autowired
+    private IdempotencyCache<Boolean> idempotencyCache;
+    @Autowired
+    private ParallelCatalogReader parallelCatalogReader;
+    @Autowired
+    private AllocationPlanner allocationPlanner;
+
+    private final CatalogStreamReader catalogReader = new CatalogStreamReader();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 256;
+    private static final long DEFAULT_HOLD_TTL_SECONDS = 900;
+    private static final long MAX_HOLD_TTL_SECONDS = StockHolds.MAX_TTL_MILLIS / 1000;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(WarehouseServiceImpl.class);
 
     /**
-     * <B>Description :</B> Invoked to import articles from JSON file
+     * <B>Description :</B> Invoked to list the articles held by the inventory store
      *
      * @return List<Article>
      * @throws ImportArticlesException if there's an issue importing articles
      */
     public List<Article> importArticles() throws ImportArticlesException {
-        try (FileReader reader = new FileReader("src/main/resources/articles.json")) {
-            JsonObject jsonObject = gson.fromJson(reader, JsonObject.class);
-            JsonArray articlesArray = jsonObject.getAsJsonArray("articles");
-            return gson.fromJson(articlesArray, new TypeToken<List<Article>>() {
-            }.getType());
+        try {
+            return inventoryStore.getArticles();
         } catch (Exception e) {
             LOGGER.error("Error while importing article: " + e.getMessage(), e);
-            throw new ImportArticlesException("Failed to read JSON file", e);
+            throw new ImportArticlesException("Failed to read articles", e);
         }
     }
 
     /**
-     * <B>Description :</B> Invoked to import products from JSON file
+     * <B>Description :</B> Invoked to list the products held by the inventory store
      *
      * @return List<Product>
      * @throws ImportProductsException if there's an issue importing products
      */
 
     public List<Product> importProducts() throws ImportProductsException {
-        try (FileReader reader = new FileReader("src/main/resources/products.json")) {
-            JsonObject jsonObject = gson.fromJson(reader, JsonObject.class);
-            JsonArray productsArray = jsonObject.getAsJsonArray("products");
-            return gson.fromJson(productsArray, new TypeToken<List<Product>>() {
-            }.getType());
+        try {
+            return inventoryStore.getProducts();
+        } catch (Exception e) {
+            LOGGER.error("Error while importing products: " + e.getMessage(), e);
+            throw new ImportProductsException("Failed to read products", e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to stream an articles document into the inventory store record
+     * by record. Invalid records are skipped and reported.
+     *
+     * @param catalog articles JSON document
+     * @return ImportReport with accepted and rejected records
+     * @throws ImportArticlesException if the document cannot be read or is not well-formed JSON
+     */
+    @Override
+    public ImportReport importArticles(InputStream catalog) throws ImportArticlesException {
+        try {
+            long start = System.nanoTime();
+            ImportReport report;
+            try (BatchingConsumer<Article> batch = new BatchingConsumer<>(InventoryStore.IMPORT_BATCH_SIZE,
+                    inventoryStore::upsertArticles)) {
+                report = catalogReader.readArticles(catalog, batch);
+            }
+            inventoryStore.awaitJournal();
+            inventoryStore.getMetrics().recordImport(InventoryMetrics.ARTICLES, report, System.nanoTime() - start);
+            return report;
+        } catch (Exception e) {
+            LOGGER.error("Error while importing article: " + e.getMessage(), e);
+            throw new ImportArticlesException("Failed to read JSON file", e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to stream a products document into the inventory store record
+     * by record. Invalid records are skipped and reported.
+     *
+     * @param catalog products JSON document
+     * @return ImportReport with accepted and rejected records
+     * @throws ImportProductsException if the document cannot be read or is not well-formed JSON
+     */
+    @Override
+    public ImportReport importProducts(InputStream catalog) throws ImportProductsException {
+        try {
+            long start = System.nanoTime();
+            ImportReport report;
+            ProductImport productImport = new ProductImport(inventoryStore);
+            try (BatchingConsumer<Product> batch = new BatchingConsumer<>(InventoryStore.IMPORT_BATCH_SIZE,
+                    productImport)) {
+                report = catalogReader.readProducts(catalog, batch);
+            }
+            productImport.finish(report);
+            inventoryStore.awaitJournal();
+            inventoryStore.getMetrics().recordImport(InventoryMetrics.PRODUCTS, report, System.nanoTime() - start);
+            return report;
         } catch (Exception e) {
             LOGGER.error("Error while importing products: " + e.getMessage(), e);
             throw new ImportProductsException("Failed to read JSON file", e);
         }
     }
 
+    /**
+     * <B>Description :</B> Invoked to upload a document holding articles and/or products. The
+     * records are parsed and validated in parallel and then applied with a single version bump.
+     * Invalid records are skipped and reported.
+     *
+     * @param catalog JSON document with an articles and/or a products array
+     * @return BulkUploadReport with accepted and rejected records of each array
+     * @throws BulkUploadException if the document cannot be read, is too large or is malformed
+     */
+    @Override
+    public BulkUploadReport bulkUpload(InputStream catalog) throws BulkUploadException {
+        try {
+            long start = System.nanoTime();
+            ParallelCatalogReader.Catalog parsed = parallelCatalogReader.read(catalog);
+            inventoryStore.bulkUpsert(parsed.getArticles(), parsed.getProducts(), parsed.getProductReport());
+            inventoryStore.awaitJournal();
+            long nanos = System.nanoTime() - start;
+            inventoryStore.getMetrics().recordImport(InventoryMetrics.ARTICLES, parsed.getArticleReport(), nanos);
+            inventoryStore.getMetrics().recordImport(InventoryMetrics.PRODUCTS, parsed.getProductReport(), nanos);
+            return new BulkUploadReport(parsed.getArticleReport(), parsed.getProductReport());
+        } catch (Exception e) {
+            LOGGER.error("Error while uploading catalog: " + e.getMessage(), e);
+            throw new BulkUploadException("Failed to upload catalog: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list one page of articles
+     *
+     * @param cursor position returned with the previous page, or null for the first page
+     * @param limit  maximum number of articles, capped at {@value #MAX_PAGE_SIZE}
+     * @return CatalogPage<Article> with the cursor of the next page, null after the last page
+     * @throws ImportArticlesException if the cursor is invalid or the articles cannot be read
+     */
+    @Override
+    public CatalogPage<Article> listArticles(String cursor, int limit) throws ImportArticlesException {
+        try {
+            List<Article> articles = new ArrayList<>();
+            int next = inventoryStore.readArticles(parseCursor(cursor), pageSize(limit), articles::add);
+            return new CatalogPage<>(articles, formatCursor(next));
+        } catch (Exception e) {
+            LOGGER.error("Error while listing articles: " + e.getMessage(), e);
+            throw new ImportArticlesException("Failed to list articles: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list one page of products
+     *
+     * @param cursor position returned with the previous page, or null for the first page
+     * @param limit  maximum number of products, capped at {@value #MAX_PAGE_SIZE}
+     * @return CatalogPage<Product> with the cursor of the next page, null after the last page
+     * @throws ImportProductsException if the cursor is invalid or the products cannot be read
+     */
+    @Override
+    public CatalogPage<Product> listProducts(String cursor, int limit) throws ImportProductsException {
+        try {
+            List<Product> products = new ArrayList<>();
+            int next = inventoryStore.readProducts(parseCursor(cursor), pageSize(limit), products::add);
+            return new CatalogPage<>(products, formatCursor(next));
+        } catch (Exception e) {
+            LOGGER.error("Error while listing products: " + e.getMessage(), e);
+            throw new ImportProductsException("Failed to list products: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to write every article as newline-delimited JSON. Articles are
+     * read and written {@value #STREAM_PAGE_SIZE} at a time, so memory use does not depend on the
+     * size of the catalog.
+     *
+     * @param out response stream
+     * @throws ImportArticlesException if the articles cannot be read or written
+     */
+    @Override
+    public void streamArticles(OutputStream out) throws ImportArticlesException {
+        try (JsonGenerator generator = ndjsonGenerator(out)) {
+            List<Article> page = new ArrayList<>(STREAM_PAGE_SIZE);
+            int cursor = 0;
+            while (cursor >= 0) {
+                page.clear();
+                cursor = inventoryStore.readArticles(cursor, STREAM_PAGE_SIZE, page::add);
+                writeRecords(generator, page);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error while streaming articles: " + e.getMessage(), e);
+            throw new ImportArticlesException("Failed to stream articles", e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to write every product as newline-delimited JSON, see
+     * {@link #streamArticles(OutputStream)}
+     *
+     * @param out response stream
+     * @throws ImportProductsException if the products cannot be read or written
+     */
+    @Override
+    public void streamProducts(OutputStream out) throws ImportProductsException {
+        try (JsonGenerator generator = ndjsonGenerator(out)) {
+            List<Product> page = new ArrayList<>(STREAM_PAGE_SIZE);
+            int cursor = 0;
+            while (cursor >= 0) {
+                page.clear();
+                cursor = inventoryStore.readProducts(cursor, STREAM_PAGE_SIZE, page::add);
+                writeRecords(generator, page);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error while streaming products: " + e.getMessage(), e);
+            throw new ImportProductsException("Failed to stream products", e);
+        }
+    }
+
+    private JsonGenerator ndjsonGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeRecords(JsonGenerator generator, List<?> records) throws IOException {
+        for (Object record : records) {
+            generator.writeObject(record);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static int parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        int position = Integer.parseInt(cursor);
+        if (position < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return position;
+    }
+
+    private static String formatCursor(int next) {
+        return next < 0 ? null : String.valueOf(next);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
 
     /**
      * <B>Description :</B> Invoked to fetch all available products and quantities
@@ -71,12 +303,7 @@ public class WarehouseServiceImpl implements WarehouseManagementService {
     @Override
     public Map<String, Integer> retrieveAllProducts() throws RetrieveProductsException {
         try {
-            List<Product> products = importProducts();
-            return products.stream()
-                    .collect(Collectors.toMap(
-                            Product::getName,
-                            Product::getStock
-                    ));
+            return inventoryStore.getProductStock();
         } catch (Exception e) {
             LOGGER.error("Error while retrieving products: " + e.getMessage(), e);
             throw new RetrieveProductsException("Failed to retrieve products: " + e.getMessage());
@@ -84,61 +311,124 @@ public class WarehouseServiceImpl implements WarehouseManagementService {
     }
 
     /**
-     * <B>Description :</B> Invoked to add a new product
+     * <B>Description :</B> Invoked to fetch how many units of each product can be assembled from
+     * current article stock
      *
-     * @param request AddProductRequest
-     * @return Boolean to indicate operation success or not
-     * @throws IOException if there's an issue in importing products
+     * @return Map<String, Integer>
+     * @throws RetrieveProductsException if there's an issue in retrieving products
      */
-    public Boolean updateOrAddProduct(AddProductRequest request) throws IOException {
+    @Override
+    public Map<String, Integer> retrieveAssemblableProducts() throws RetrieveProductsException {
         try {
-            List<Article> articles = importArticles();
-            List<Product> products = importProducts();
-            Map<String, Article> articleStockMap = new HashMap<>();
-            Set<String> productName = new HashSet<>();
-            for (Article article : articles) {
-                articleStockMap.put(article.getArt_id(), article);
-            }
-            for (Product product : products) {
-                productName.add(product.getName());
-            }
-            for (ContainArticle articleQuantity : request.getArticleQuantities()) {
-                Article article = articleStockMap.get(articleQuantity.getArt_id());
-                if (article == null || article.getStock() < (request.getStock() * articleQuantity.getAmount_of())) {
-                    return false;
-                }
+            return inventoryStore.getBuildableStock();
+        } catch (Exception e) {
+            LOGGER.error("Error while retrieving assemblable products: " + e.getMessage(), e);
+            throw new RetrieveProductsException("Failed to retrieve assemblable products: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find articles whose stock lies in a range, scarcest first
+     *
+     * @param minStock lowest stock, inclusive
+     * @param maxStock highest stock, inclusive
+     * @param limit    maximum number of articles, capped at {@value #MAX_PAGE_SIZE}
+     * @return List<Article> ordered by stock
+     * @throws ImportArticlesException if the articles cannot be read
+     */
+    @Override
+    public List<Article> findArticlesByStock(int minStock, int maxStock, int limit) throws ImportArticlesException {
+        try {
+            return inventoryStore.getArticlesByStock(minStock, maxStock, pageSize(limit));
+        } catch (Exception e) {
+            LOGGER.error("Error while finding articles by stock: " + e.getMessage(), e);
+            throw new ImportArticlesException("Failed to find articles by stock: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find products whose available stock lies in a range, scarcest first
+     *
+     * @param minStock lowest available stock, inclusive
+     * @param maxStock highest available stock, inclusive
+     * @param limit    maximum number of products, capped at {@value #MAX_PAGE_SIZE}
+     * @return Map<String, Integer> of product and available quantity, in order
+     * @throws RetrieveProductsException if there's an issue in retrieving products
+     */
+    @Override
+    public Map<String, Integer> findProductsByStock(int minStock, int maxStock, int limit) throws RetrieveProductsException {
+        try {
+            return inventoryStore.getProductsByStock(minStock, maxStock, pageSize(limit));
+        } catch (Exception e) {
+            LOGGER.error("Error while finding products by stock: " + e.getMessage(), e);
+            throw new RetrieveProductsException("Failed to find products by stock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the products with the most or the least available stock
+     *
+     * @param limit    number of products, capped at {@value #MAX_PAGE_SIZE}
+     * @param scarcest true for the least available products first
+     * @return Map<String, Integer> of product and available quantity, in order
+     * @throws RetrieveProductsException if there's an issue in retrieving products
+     */
+    @Override
+    public Map<String, Integer> retrieveTopProducts(int limit, boolean scarcest) throws RetrieveProductsException {
+        try {
+            return inventoryStore.getTopProducts(pageSize(limit), scarcest);
+        } catch (Exception e) {
+            LOGGER.error("Error while retrieving top products: " + e.getMessage(), e);
+            throw new RetrieveProductsException("Failed to retrieve top products: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to work out how many units of each wanted product can be
+     * assembled together from current article stock, so that products sharing articles are weighed
+     * against each other. Nothing is reserved or consumed.
+     *
+     * @param request products and the quantities wanted of each
+     * @return AllocationPlan with the units allocated to each product, in request order
+     * @throws PlanAllocationException if there's an issue in planning the allocation
+     */
+    @Override
+    public AllocationPlan planAllocation(BuyProductRequest request) throws PlanAllocationException {
+        try {
+            List<RequiredProduct> targets = request.getRequiredProductList();
+            AllocationProblem problem = inventoryStore.allocationProblem(targets);
+            allocationPlanner.plan(problem);
+            Map<String, Integer> allocation = new LinkedHashMap<>();
+            long requested = 0;
+            for (RequiredProduct target : targets) {
+                allocation.put(target.getName(), 0);
+                requested += Math.max(0, target.getQuantity());
             }
-            boolean containsProduct = productName.contains(request.getName());
-            if (containsProduct) {
-                for (Product product : products) {
-                    if (product.getName().equals(request.getName())) {
-                        product.setStock(product.getStock() + request.getStock());
-                        updateArticleStock(articleStockMap, request);
-                        break;
-                    }
-                }
-            } else {
-                Product product = new Product();
-                product.setName(request.getName());
-                product.setContain_articles(request.getArticleQuantities());
-                product.setPrice(request.getPrice());
-                products.add(product);
-                updateArticleStock(articleStockMap, request);
+            long allocated = 0;
+            for (int product = 0; product < problem.productCount(); product++) {
+                allocation.put(problem.product(product), problem.allocated(product));
+                allocated += problem.allocated(product);
             }
-            return true;
+            return new AllocationPlan(allocation, requested, allocated, problem.components());
         } catch (Exception e) {
-            LOGGER.error("Error while adding/updating products: " + e.getMessage(), e);
-            throw new IOException("Failed to get products: " + e.getMessage());
+            LOGGER.error("Error while planning allocation: " + e.getMessage(), e);
+            throw new PlanAllocationException("Failed to plan allocation: " + e.getMessage(), e);
         }
     }
 
     /**
-     * <B>Description :</B> Invoked to update article count
+     * <B>Description :</B> Invoked to add a new product
+     *
+     * @param request AddProductRequest
+     * @return Boolean to indicate operation success or not
+     * @throws IOException if there's an issue in importing products
      */
-    private void updateArticleStock(Map<String, Article> articleStockMap, AddProductRequest request) {
-        for (ContainArticle articleQuantity : request.getArticleQuantities()) {
-            Article article = articleStockMap.get(articleQuantity.getArt_id());
-            article.setStock(article.getStock() - (articleQuantity.getAmount_of() * request.getStock()));
+    public Boolean updateOrAddProduct(AddProductRequest request) throws IOException {
+        try {
+            return inventoryStore.assembleProduct(request);
+        } catch (Exception e) {
+            LOGGER.error("Error while adding/updating products: " + e.getMessage(), e);
+            throw new IOException("Failed to get products: " + e.getMessage());
         }
     }
 
@@ -151,21 +441,7 @@ public class WarehouseServiceImpl implements WarehouseManagementService {
      */
     public List<Article> updateOrAddArticle(AddArticleRequest request) throws IOException {
         try {
-            List<Article> articles = importArticles();
-            Article existingArticle = articles.stream()
-                    .filter(article -> article.getName().equals(request.getName()))
-                    .findFirst()
-                    .orElse(null);
-            if (existingArticle != null) {
-                existingArticle.setStock(existingArticle.getStock() + request.getStock());
-            } else {
-                Article newArticle = new Article();
-                newArticle.setArt_id(String.valueOf(articles.size() + 1));
-                newArticle.setName(request.getName());
-                newArticle.setStock(request.getStock());
-                articles.add(newArticle);
-            }
-            return articles;
+            return inventoryStore.restockArticle(request);
         } catch (Exception e) {
             LOGGER.error("Error while adding/updating article: " + e.getMessage(), e);
             throw new IOException("Failed to update or add article: " + e.getMessage());
@@ -181,25 +457,137 @@ public class WarehouseServiceImpl implements WarehouseManagementService {
      */
     public Boolean processOrder(BuyProductRequest request) throws ProcessOrderException {
         try {
-            List<RequiredProduct> requiredProductList = request.getRequiredProductList();
-            List<Product> productList = importProducts();
-            Map<String, Product> productMap = new HashMap<>();
+            return shardRouter != null
+                    ? shardRouter.placeOrder(request.getRequiredProductList())
+                    : inventoryStore.placeOrder(request.getRequiredProductList());
+        } catch (Exception e) {
+            LOGGER.error("Error while processing your order: " + e.getMessage(), e);
+            throw new ProcessOrderException("Failed to process your order: " + e.getMessage(), e);
+        }
+    }
 
-            for (Product product : productList) {
-                productMap.put(product.getName(), product);
+    /**
+     * <B>Description :</B> Invoked to process an order at most once per idempotency key, returning
+     * the outcome of the first attempt when a client retries it. A failed attempt is replayed as
+     * well, since it may have taken stock before failing, unless the order was invalid or was
+     * released on every shard, in which case a retry places it again.
+     *
+     * @param request        BuyProductRequest
+     * @param idempotencyKey key the client sends with every attempt of the same order
+     * @return Boolean to indicate operation success or not
+     * @throws ProcessOrderException if there's an issue in processing the order
+     * @throws IdempotencyKeyMismatchException if the key was used for a different order
+     */
+    @Override
+    public Boolean processOrder(BuyProductRequest request, String idempotencyKey) throws ProcessOrderException {
+        List<RequiredProduct> lines = request.getRequiredProductList();
+        if (lines == null || lines.stream().anyMatch(line -> line == null || line.getName() == null)) {
+            throw new ProcessOrderException("Failed to process your order: every line must name a product");
+        }
+        return idempotencyCache.execute(idempotencyKey, fingerprint(lines), () -> processOrder(request),
+                e -> e.getCause() instanceof OrderReleasedException);
+    }
+
+    /**
+     * Order independent fingerprint of the lines of an order, so that a replay listing the same
+     * lines in another order still matches.
+     */
+    private static long fingerprint(List<RequiredProduct> lines) {
+        long fingerprint = 0;
+        if (lines != null) {
+            for (RequiredProduct line : lines) {
+                long hash = (Objects.hashCode(line.getName()) * 31L + line.getQuantity()) * 0x9E3779B97F4A7C15L;
+                fingerprint += hash ^ (hash >>> 29);
             }
-            for (RequiredProduct requiredProduct : requiredProductList) {
-                Product product = productMap.get(requiredProduct.getName());
-                if (product != null && product.getStock() >= requiredProduct.getQuantity()) {
-                    product.setStock(product.getStock() - requiredProduct.getQuantity());
-                } else {
-                    return false;
-                }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to process a batch of orders in one pass over the inventory
+     *
+     * @param requests orders to place, each all-or-nothing
+     * @return List<Boolean> success of each order in request order
+     * @throws ProcessOrderException if there's an issue in processing the batch
+     */
+    @Override
+    public List<Boolean> processOrders(List<BuyProductRequest> requests) throws ProcessOrderException {
+        try {
+            List<List<RequiredProduct>> orders = new ArrayList<>(requests.size());
+            for (BuyProductRequest request : requests) {
+                orders.add(request == null ? null : request.getRequiredProductList());
             }
-            return true;
+            boolean[] placed = shardRouter != null ? shardRouter.placeOrders(orders) : inventoryStore.placeOrders(orders);
+            List<Boolean> results = new ArrayList<>(placed.length);
+            for (boolean orderPlaced : placed) {
+                results.add(orderPlaced);
+            }
+            return results;
         } catch (Exception e) {
-            LOGGER.error("Error while processing your order: " + e.getMessage(), e);
-            throw new ProcessOrderException("Failed to process your order: " + e.getMessage());
+            LOGGER.error("Error while processing order batch: " + e.getMessage(), e);
+            throw new ProcessOrderException("Failed to process your orders: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to hold products while the customer pays; held units do not
+     * count as available until the hold is released or expires. Holds live in the store of this
+     * instance, so in a cluster they may only cover products this instance's shard owns.
+     *
+     * @param request products to hold and, optionally, how long to hold them
+     * @return id of the hold, or {@link StockHolds#NO_HOLD} if an item is out of stock
+     * @throws InvalidHoldException if the time to live is out of range or a product belongs to another shard
+     * @throws ProcessOrderException if there's an issue in holding the products
+     */
+    @Override
+    public long createHold(HoldRequest request) throws ProcessOrderException {
+        long ttlSeconds = request.getTtlSeconds() == null ? DEFAULT_HOLD_TTL_SECONDS : request.getTtlSeconds();
+        if (ttlSeconds <= 0 || ttlSeconds > MAX_HOLD_TTL_SECONDS) {
+            throw new InvalidHoldException("Hold time to live must be between 1 and " + MAX_HOLD_TTL_SECONDS
+                    + " seconds: " + ttlSeconds);
+        }
+        if (shardRouter != null && !shardRouter.ownsAll(request.getRequiredProductList(), localShard)) {
+            throw new InvalidHoldException("Holds can only cover products owned by this instance");
+        }
+        try {
+            return stockHolds.create(request.getRequiredProductList(), ttlSeconds * 1000);
+        } catch (Exception e) {
+            LOGGER.error("Error while holding products: " + e.getMessage(), e);
+            throw new ProcessOrderException("Failed to hold products: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to turn a hold into an order
+     *
+     * @param holdId id of the hold
+     * @return true if the hold was active and the order is placed
+     * @throws ProcessOrderException if there's an issue in confirming the hold
+     */
+    @Override
+    public boolean confirmHold(long holdId) throws ProcessOrderException {
+        try {
+            return stockHolds.confirm(holdId);
+        } catch (Exception e) {
+            LOGGER.error("Error while confirming hold: " + e.getMessage(), e);
+            throw new ProcessOrderException("Failed to confirm hold: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to release a hold before it expires
+     *
+     * @param holdId id of the hold
+     * @return true if the hold was active
+     * @throws ProcessOrderException if there's an issue in releasing the hold
+     */
+    @Override
+    public boolean releaseHold(long holdId) throws ProcessOrderException {
+        try {
+            return stockHolds.release(holdId);
+        } catch (Exception e) {
+            LOGGER.error("Error while releasing hold: " + e.getMessage(), e);
+            throw new ProcessOrderException("Failed to release hold: " + e.getMessage());
         }
     }
 }
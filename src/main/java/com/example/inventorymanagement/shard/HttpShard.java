@@ -0,0 +1,111 @@
+package com.example.inventorymanagement.shard;
+
+import com.example.inventorymanagement.exception.ShardUnavailableException;
+import com.example.inventorymanagement.model.BuyProductRequest;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.ShardTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shard served by another instance of this application, reached through the participant endpoints
+ * under {@code /ikea/shard} of {@link com.example.inventorymanagement.controller.ShardController}.
+ * A request that fails or times out surfaces as {@link ShardUnavailableException}, which the router
+ * treats like a shard that could not prepare.
+ */
+public class HttpShard implements InventoryShard {
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HttpShard(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public boolean placeOrder(List<RequiredProduct> lines) {
+        return post("/ikea/shard/orders", request(lines), Boolean.class);
+    }
+
+    @Override
+    public boolean[] placeOrders(List<List<RequiredProduct>> orders) {
+        List<BuyProductRequest> requests = new ArrayList<>(orders.size());
+        for (List<RequiredProduct> lines : orders) {
+            requests.add(request(lines));
+        }
+        return post("/ikea/shard/orders/batch", requests, boolean[].class);
+    }
+
+    @Override
+    public boolean prepare(String transactionId, List<RequiredProduct> lines) {
+        return post("/ikea/shard/transactions/" + transactionId + "/prepare", request(lines), Boolean.class);
+    }
+
+    @Override
+    public boolean[] prepareAll(List<ShardTransaction> transactions) {
+        return post("/ikea/shard/transactions/prepare", transactions, boolean[].class);
+    }
+
+    @Override
+    public boolean commit(String transactionId) {
+        return post("/ikea/shard/transactions/" + transactionId + "/commit", null, Boolean.class);
+    }
+
+    @Override
+    public boolean[] commitAll(List<String> transactionIds) {
+        return post("/ikea/shard/transactions/commit", transactionIds, boolean[].class);
+    }
+
+    @Override
+    public void abort(String transactionId) {
+        post("/ikea/shard/transactions/" + transactionId + "/abort", null, null);
+    }
+
+    @Override
+    public void abortAll(List<String> transactionIds) {
+        post("/ikea/shard/transactions/abort", transactionIds, null);
+    }
+
+    private static BuyProductRequest request(List<RequiredProduct> lines) {
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(lines);
+        return request;
+    }
+
+    /**
+     * Posts a JSON body, or none if it is null, and reads the answer as the given type, or ignores
+     * it if the type is null.
+     */
+    private <T> T post(String path, Object body, Class<T> answer) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+            if (body == null) {
+                request.POST(HttpRequest.BodyPublishers.noBody());
+            } else {
+                request.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new ShardUnavailableException("Shard " + baseUrl + " answered " + response.statusCode() + " to " + path);
+            }
+            return answer == null ? null : objectMapper.readValue(response.body(), answer);
+        } catch (IOException e) {
+            throw new ShardUnavailableException("Shard " + baseUrl + " is unavailable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardUnavailableException("Interrupted while calling shard " + baseUrl, e);
+        }
+    }
+}
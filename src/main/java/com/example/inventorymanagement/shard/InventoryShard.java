@@ -0,0 +1,87 @@
+package com.example.inventorymanagement.shard;
+
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.ShardTransaction;
+
+import java.util.List;
+
+/**
+ * One partition of the inventory as seen by the {@link ShardRouter}. Orders that only touch one
+ * shard are placed directly; orders spanning shards reserve their lines on every involved shard
+ * with {@link #prepare} and then either {@link #commit} or {@link #abort} every reservation. Each
+ * operation also has a batch form, so that a batch of orders costs one call per shard and phase
+ * rather than one per order.
+ */
+public interface InventoryShard {
+
+    /**
+     * <B>Description :</B> Invoked to place an order whose lines all belong to this shard
+     *
+     * @param lines products and quantities of the order
+     * @return true if every line was in stock, false otherwise
+     */
+    boolean placeOrder(List<RequiredProduct> lines);
+
+    /**
+     * <B>Description :</B> Invoked to place many orders whose lines all belong to this shard, each
+     * all or nothing
+     *
+     * @param orders lines of each order
+     * @return success of each order, in request order
+     */
+    boolean[] placeOrders(List<List<RequiredProduct>> orders);
+
+    /**
+     * <B>Description :</B> Invoked in the first phase of a distributed order to reserve its lines
+     * on this shard, all or nothing. Preparing the same transaction again has no further effect.
+     *
+     * @param transactionId id of the distributed order
+     * @param lines         lines of the order that belong to this shard
+     * @return true if the lines are reserved, false if any of them is short
+     */
+    boolean prepare(String transactionId, List<RequiredProduct> lines);
+
+    /**
+     * <B>Description :</B> Invoked in the first phase of many distributed orders to reserve the
+     * lines of each on this shard, with the same rules as {@link #prepare(String, List)}
+     *
+     * @param transactions ids of the distributed orders with their lines that belong to this shard
+     * @return whether the lines of each order are reserved, in request order
+     */
+    boolean[] prepareAll(List<ShardTransaction> transactions);
+
+    /**
+     * <B>Description :</B> Invoked once every shard has prepared, to keep the reservation.
+     * Committing the same transaction again answers true as long as the shard remembers it.
+     *
+     * @param transactionId id of the distributed order
+     * @return true if the reservation is kept, false if it had already expired or been aborted
+     */
+    boolean commit(String transactionId);
+
+    /**
+     * <B>Description :</B> Invoked to keep the reservations of many distributed orders, with the
+     * same rules as {@link #commit(String)}
+     *
+     * @param transactionIds ids of the distributed orders
+     * @return whether each reservation is kept, in request order
+     */
+    boolean[] commitAll(List<String> transactionIds);
+
+    /**
+     * <B>Description :</B> Invoked when any shard could not prepare or commit, to release the
+     * reservation, also one already committed while the shard remembers it. Aborting a transaction
+     * that is not prepared has no effect.
+     *
+     * @param transactionId id of the distributed order
+     */
+    void abort(String transactionId);
+
+    /**
+     * <B>Description :</B> Invoked to release the reservations of many distributed orders, with the
+     * same rules as {@link #abort(String)}
+     *
+     * @param transactionIds ids of the distributed orders
+     */
+    void abortAll(List<String> transactionIds);
+}
@@ -0,0 +1,191 @@
+package com.example.inventorymanagement.shard;
+
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.ShardTransaction;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shard backed by an {@link InventoryStore} in this process. Preparing places the lines as an
+ * ordinary order, so the reserved units leave the stock at once and cannot be sold twice; aborting
+ * returns them with {@link InventoryStore#cancelOrder(List)} and committing only marks the
+ * reservation as kept.
+ * <p>
+ * Reservations that are neither committed nor aborted within the timeout, because the coordinator
+ * failed, are aborted by a background sweep. The coordinator stops committing well before that
+ * timeout, so the sweep never releases units it could still commit. A committed reservation is
+ * remembered for another timeout, so that a coordinator which fails to commit on another shard can
+ * still abort it and retried commits keep answering true. Reservations are not journaled
+ * themselves: a shard that restarts while holding one recovers it as a placed order.
+ */
+public class LocalShard implements InventoryShard, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalShard.class);
+
+    private final InventoryStore store;
+    private final long timeoutNanos;
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public LocalShard(InventoryStore store, long timeoutMillis) {
+        this.store = store;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-reservation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, timeoutMillis / 2);
+        this.sweeper.scheduleWithFixedDelay(this::abortExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean placeOrder(List<RequiredProduct> lines) {
+        return store.placeOrder(lines);
+    }
+
+    @Override
+    public boolean[] placeOrders(List<List<RequiredProduct>> orders) {
+        return store.placeOrders(orders);
+    }
+
+    @Override
+    public boolean prepare(String transactionId, List<RequiredProduct> lines) {
+        if (reservations.containsKey(transactionId)) {
+            return true;
+        }
+        if (!store.placeOrder(lines)) {
+            return false;
+        }
+        reserve(transactionId, lines, System.nanoTime() + timeoutNanos);
+        return true;
+    }
+
+    /**
+     * Places the lines of every transaction not prepared yet in one {@link InventoryStore#placeOrders}
+     * pass and reserves those that were in stock.
+     */
+    @Override
+    public boolean[] prepareAll(List<ShardTransaction> transactions) {
+        boolean[] reserved = new boolean[transactions.size()];
+        List<List<RequiredProduct>> orders = new ArrayList<>(transactions.size());
+        for (int i = 0; i < reserved.length; i++) {
+            reserved[i] = reservations.containsKey(transactions.get(i).getTransactionId());
+            orders.add(reserved[i] ? null : transactions.get(i).getRequiredProductList());
+        }
+        boolean[] placed = store.placeOrders(orders);
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (int i = 0; i < reserved.length; i++) {
+            if (placed[i]) {
+                reserve(transactions.get(i).getTransactionId(), orders.get(i), deadline);
+                reserved[i] = true;
+            }
+        }
+        return reserved;
+    }
+
+    @Override
+    public boolean commit(String transactionId) {
+        Reservation reservation = reservations.get(transactionId);
+        while (reservation != null && !reservation.committed) {
+            if (reservations.replace(transactionId, reservation, reservation.commit())) {
+                return true;
+            }
+            reservation = reservations.get(transactionId);
+        }
+        return reservation != null;
+    }
+
+    @Override
+    public boolean[] commitAll(List<String> transactionIds) {
+        boolean[] committed = new boolean[transactionIds.size()];
+        for (int i = 0; i < committed.length; i++) {
+            committed[i] = commit(transactionIds.get(i));
+        }
+        return committed;
+    }
+
+    @Override
+    public void abort(String transactionId) {
+        Reservation reservation = reservations.remove(transactionId);
+        if (reservation != null) {
+            store.cancelOrder(reservation.lines);
+        }
+    }
+
+    @Override
+    public void abortAll(List<String> transactionIds) {
+        for (String transactionId : transactionIds) {
+            abort(transactionId);
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the reservations waiting for their second phase
+     *
+     * @return number of prepared transactions
+     */
+    public int pendingReservations() {
+        return (int) reservations.values().stream().filter(reservation -> !reservation.committed).count();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private void reserve(String transactionId, List<RequiredProduct> lines, long deadline) {
+        if (reservations.putIfAbsent(transactionId, new Reservation(lines, deadline)) != null) {
+            // a concurrent retry of the same prepare won, so these units were reserved twice
+            store.cancelOrder(lines);
+        }
+    }
+
+    private void abortExpired() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Reservation> entry : reservations.entrySet()) {
+            Reservation reservation = entry.getValue();
+            if (reservation.committed) {
+                if (now - reservation.deadline - timeoutNanos > 0) {
+                    reservations.remove(entry.getKey(), reservation);
+                }
+            } else if (now - reservation.deadline > 0 && reservations.remove(entry.getKey(), reservation)) {
+                LOGGER.warn("Reservation {} was not committed in time and is released", entry.getKey());
+                store.cancelOrder(reservation.lines);
+            }
+        }
+    }
+
+    /**
+     * Lines reserved by a prepared transaction, the time they are released unless committed and
+     * whether they were committed.
+     */
+    private static class Reservation {
+        private final List<RequiredProduct> lines;
+        private final long deadline;
+        private final boolean committed;
+
+        Reservation(List<RequiredProduct> lines, long deadline) {
+            this(lines, deadline, false);
+        }
+
+        private Reservation(List<RequiredProduct> lines, long deadline, boolean committed) {
+            this.lines = lines;
+            this.deadline = deadline;
+            this.committed = committed;
+        }
+
+        Reservation commit() {
+            return new Reservation(lines, deadline, true);
+        }
+    }
+}
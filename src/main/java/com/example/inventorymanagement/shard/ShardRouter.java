@@ -0,0 +1,368 @@
+package com.example.inventorymanagement.shard;
+
+import com.example.inventorymanagement.exception.OrderReleasedException;
+import com.example.inventorymanagement.exception.ShardUnavailableException;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.ShardTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes orders over inventory partitioned by product name. A product belongs to shard
+ * {@code floorMod(hash(name), shardCount)}, so every router configured with the same shard list
+ * agrees on the owner without coordination.
+ * <p>
+ * An order whose lines all belong to one shard is placed on that shard directly. Otherwise the
+ * lines are grouped per shard and reserved with two-phase commit: each involved shard prepares its
+ * lines in ascending shard order, the first shortfall or unreachable shard aborts every shard
+ * prepared so far, and only when all have prepared are the reservations committed. A commit that
+ * fails is retried, but no attempt starts once the commit window since the first prepare has
+ * passed; the window is shorter than the shards' reservation timeout by at least one request, so a
+ * shard never releases a reservation the router may still commit. When a shard cannot commit in
+ * time, or answers that its reservation expired, every shard of the order is aborted, including
+ * those that already committed, and the order fails with {@link OrderReleasedException} once every
+ * shard confirmed the abort, or with {@link ShardUnavailableException} otherwise. If a lost commit
+ * had in fact been applied and its abort failed too, that shard keeps the units: the order is
+ * undersold, never oversold.
+ */
+public class ShardRouter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardRouter.class);
+    private static final int COMMIT_ATTEMPTS = 3;
+
+    private final List<InventoryShard> shards;
+    private final long commitWindowNanos;
+    private final String routerId = UUID.randomUUID().toString();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public ShardRouter(List<InventoryShard> shards, long commitWindowMillis) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.commitWindowNanos = TimeUnit.MILLISECONDS.toNanos(commitWindowMillis);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find the shard owning a product
+     *
+     * @param productName name of the product
+     * @return shard index
+     */
+    public int shardOf(String productName) {
+        int hash = productName.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to check that every line of a request belongs to one shard
+     *
+     * @param lines products and quantities
+     * @param shard shard expected to own them
+     * @return true if the shard owns every line
+     */
+    public boolean ownsAll(List<RequiredProduct> lines, InventoryShard shard) {
+        int index = shards.indexOf(shard);
+        if (lines != null) {
+            for (RequiredProduct line : lines) {
+                if ((line.getName() == null ? 0 : shardOf(line.getName())) != index) {
+                    return false;
+                }
+            }
+        }
+        return index >= 0;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to place an order on the shards owning its products, all or nothing
+     *
+     * @param lines products and quantities of the order
+     * @return true if every line was in stock, false otherwise
+     * @throws OrderReleasedException if the order spans shards, could not be committed on all of them and was released
+     * @throws ShardUnavailableException if the order could not be placed and may have left units reserved
+     */
+    public boolean placeOrder(List<RequiredProduct> lines) {
+        List<List<RequiredProduct>> linesByShard = linesByShard(lines);
+        int owner = soleOwner(linesByShard);
+        if (owner >= 0) {
+            return shards.get(owner).placeOrder(lines);
+        }
+        return placeDistributed(linesByShard);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to place many orders, each with the same rule as {@link #placeOrder(List)},
+     * at the cost of one call per shard and phase rather than per order: the orders owned by one
+     * shard are placed on it in one batch, and the orders spanning shards are prepared, committed
+     * and aborted in one batch per shard. Orders of the batch competing for the same units may
+     * therefore be served in another order than requested. An order that could not be placed or
+     * committed on all its shards is released and reported as not placed.
+     *
+     * @param orders lines of each order
+     * @return success of each order, in request order
+     */
+    public boolean[] placeOrders(List<List<RequiredProduct>> orders) {
+        boolean[] placed = new boolean[orders.size()];
+        List<List<Integer>> direct = perShard();
+        List<List<Integer>> distributed = perShard();
+        List<List<ShardTransaction>> prepares = perShard();
+        for (int i = 0; i < placed.length; i++) {
+            if (orders.get(i) == null) {
+                continue;
+            }
+            List<List<RequiredProduct>> linesByShard = linesByShard(orders.get(i));
+            int owner = soleOwner(linesByShard);
+            if (owner >= 0) {
+                direct.get(owner).add(i);
+                continue;
+            }
+            String transactionId = nextTransactionId();
+            for (int shard = 0; shard < linesByShard.size(); shard++) {
+                if (linesByShard.get(shard) != null) {
+                    distributed.get(shard).add(i);
+                    prepares.get(shard).add(new ShardTransaction(transactionId, linesByShard.get(shard)));
+                }
+            }
+        }
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<Integer> indexes = direct.get(shard);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            List<List<RequiredProduct>> batch = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                batch.add(orders.get(index));
+            }
+            try {
+                boolean[] shardPlaced = shards.get(shard).placeOrders(batch);
+                for (int k = 0; k < indexes.size(); k++) {
+                    placed[indexes.get(k)] = shardPlaced[k];
+                }
+            } catch (ShardUnavailableException e) {
+                LOGGER.warn("Shard {} could not place {} orders of the batch: {}", shard, indexes.size(), e.getMessage());
+            }
+        }
+        placeDistributed(distributed, prepares, placed);
+        return placed;
+    }
+
+    /**
+     * Runs both phases for the orders of a batch that span shards, one call per shard and phase.
+     * {@code distributed} and {@code prepares} list, per shard, the index of each such order and its
+     * transaction on that shard, in the same order.
+     */
+    private void placeDistributed(List<List<Integer>> distributed, List<List<ShardTransaction>> prepares,
+                                  boolean[] placed) {
+        long commitDeadline = System.nanoTime() + commitWindowNanos;
+        boolean[] failed = new boolean[placed.length];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<ShardTransaction> batch = prepares.get(shard);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            boolean[] reserved;
+            try {
+                reserved = shards.get(shard).prepareAll(batch);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Shard {} could not prepare {} transactions: {}", shard, batch.size(), e.getMessage());
+                // the request may have reserved the lines before failing, so they are aborted with the others
+                reserved = new boolean[batch.size()];
+            }
+            for (int k = 0; k < batch.size(); k++) {
+                failed[distributed.get(shard).get(k)] |= !reserved[k];
+            }
+        }
+        releaseAll(distributed, prepares, failed);
+        boolean[] lost = new boolean[placed.length];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<String> transactionIds = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (int k = 0; k < prepares.get(shard).size(); k++) {
+                if (!failed[distributed.get(shard).get(k)]) {
+                    transactionIds.add(prepares.get(shard).get(k).getTransactionId());
+                    indexes.add(distributed.get(shard).get(k));
+                }
+            }
+            if (transactionIds.isEmpty()) {
+                continue;
+            }
+            boolean[] committed = commitAll(shards.get(shard), transactionIds, commitDeadline);
+            for (int k = 0; k < committed.length; k++) {
+                lost[indexes.get(k)] |= !committed[k];
+            }
+        }
+        releaseAll(distributed, prepares, lost);
+        for (List<Integer> indexes : distributed) {
+            for (int index : indexes) {
+                placed[index] = !failed[index] && !lost[index];
+            }
+        }
+    }
+
+    private boolean placeDistributed(List<List<RequiredProduct>> linesByShard) {
+        String transactionId = nextTransactionId();
+        long commitDeadline = System.nanoTime() + commitWindowNanos;
+        List<InventoryShard> prepared = new ArrayList<>(linesByShard.size());
+        for (int shard = 0; shard < linesByShard.size(); shard++) {
+            List<RequiredProduct> lines = linesByShard.get(shard);
+            if (lines == null) {
+                continue;
+            }
+            boolean reserved;
+            try {
+                reserved = shards.get(shard).prepare(transactionId, lines);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Shard {} could not prepare {}: {}", shard, transactionId, e.getMessage());
+                // the request may have reserved the lines before failing
+                prepared.add(shards.get(shard));
+                reserved = false;
+            }
+            if (!reserved) {
+                release(transactionId, prepared);
+                return false;
+            }
+            prepared.add(shards.get(shard));
+        }
+        for (InventoryShard shard : prepared) {
+            if (!commit(transactionId, shard, commitDeadline)) {
+                if (release(transactionId, prepared)) {
+                    throw new OrderReleasedException("Order " + transactionId + " could not be committed and was released");
+                }
+                throw new ShardUnavailableException("Order " + transactionId
+                        + " could not be committed and was not released on every shard");
+            }
+        }
+        return true;
+    }
+
+    private static boolean commit(String transactionId, InventoryShard shard, long commitDeadline) {
+        for (int attempt = 1; attempt <= COMMIT_ATTEMPTS; attempt++) {
+            if (System.nanoTime() - commitDeadline > 0) {
+                LOGGER.error("Commit window of {} elapsed before the reservation was committed", transactionId);
+                return false;
+            }
+            try {
+                if (shard.commit(transactionId)) {
+                    return true;
+                }
+                LOGGER.error("Reservation {} expired before it was committed", transactionId);
+                return false;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Commit attempt {} of {} failed: {}", attempt, transactionId, e.getMessage());
+            }
+        }
+        LOGGER.error("Commit of {} failed after {} attempts", transactionId, COMMIT_ATTEMPTS);
+        return false;
+    }
+
+    /**
+     * Commits a batch of transactions on one shard, retried like {@link #commit(String, InventoryShard, long)}.
+     */
+    private static boolean[] commitAll(InventoryShard shard, List<String> transactionIds, long commitDeadline) {
+        for (int attempt = 1; attempt <= COMMIT_ATTEMPTS; attempt++) {
+            if (System.nanoTime() - commitDeadline > 0) {
+                LOGGER.error("Commit window elapsed before {} reservations were committed", transactionIds.size());
+                break;
+            }
+            try {
+                return shard.commitAll(transactionIds);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Commit attempt {} of {} transactions failed: {}", attempt, transactionIds.size(),
+                        e.getMessage());
+            }
+        }
+        return new boolean[transactionIds.size()];
+    }
+
+    /**
+     * Aborts the transactions of the flagged orders on every shard they span, one call per shard.
+     */
+    private void releaseAll(List<List<Integer>> distributed, List<List<ShardTransaction>> prepares, boolean[] release) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<String> transactionIds = new ArrayList<>();
+            for (int k = 0; k < prepares.get(shard).size(); k++) {
+                if (release[distributed.get(shard).get(k)]) {
+                    transactionIds.add(prepares.get(shard).get(k).getTransactionId());
+                }
+            }
+            if (transactionIds.isEmpty()) {
+                continue;
+            }
+            try {
+                shards.get(shard).abortAll(transactionIds);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Abort of {} transactions failed, the shard releases the reservations on timeout: {}",
+                        transactionIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Groups the lines of an order by owning shard; shards owning none of them get null.
+     */
+    private List<List<RequiredProduct>> linesByShard(List<RequiredProduct> lines) {
+        List<List<RequiredProduct>> linesByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            linesByShard.add(null);
+        }
+        for (RequiredProduct line : lines) {
+            int shard = line.getName() == null ? 0 : shardOf(line.getName());
+            if (linesByShard.get(shard) == null) {
+                linesByShard.set(shard, new ArrayList<>());
+            }
+            linesByShard.get(shard).add(line);
+        }
+        return linesByShard;
+    }
+
+    /**
+     * Returns the only shard owning lines of an order, the first shard for an order without lines,
+     * or -1 if the order spans shards.
+     */
+    private static int soleOwner(List<List<RequiredProduct>> linesByShard) {
+        int owner = -1;
+        for (int shard = 0; shard < linesByShard.size(); shard++) {
+            if (linesByShard.get(shard) != null) {
+                if (owner >= 0) {
+                    return -1;
+                }
+                owner = shard;
+            }
+        }
+        return Math.max(owner, 0);
+    }
+
+    private <T> List<List<T>> perShard() {
+        List<List<T>> perShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            perShard.add(new ArrayList<>());
+        }
+        return perShard;
+    }
+
+    private String nextTransactionId() {
+        return routerId + "-" + transactions.incrementAndGet();
+    }
+
+    /**
+     * Aborts a transaction on every prepared shard and tells whether all of them confirmed it.
+     */
+    private static boolean release(String transactionId, List<InventoryShard> prepared) {
+        boolean released = true;
+        for (InventoryShard shard : prepared) {
+            try {
+                shard.abort(transactionId);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Abort of {} failed, the shard releases the reservation on timeout: {}", transactionId,
+                        e.getMessage());
+                released = false;
+            }
+        }
+        return released;
+    }
+}
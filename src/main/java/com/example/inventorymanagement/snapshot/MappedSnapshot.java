@@ -0,0 +1,179 @@
+package com.example.inventorymanagement.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.example.inventorymanagement.snapshot.SnapshotLayout.*;
+
+/**
+ * Read-only view over a binary snapshot mapped with {@link MappedByteBuffer}. Accessors read the
+ * records in place, so opening a snapshot costs a header check regardless of catalog size.
+ */
+public class MappedSnapshot {
+    private final ByteBuffer buffer;
+    private final int articleCount;
+    private final int productCount;
+    private final int bomEntryCount;
+    private final int stringCount;
+    private final int articles;
+    private final int products;
+    private final int bomRowPointers;
+    private final int bomArticles;
+    private final int bomAmounts;
+    private final int stringOffsets;
+    private final int stringData;
+    private final int components;
+
+    private MappedSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.articleCount = buffer.getInt(ARTICLE_COUNT_OFFSET);
+        this.productCount = buffer.getInt(PRODUCT_COUNT_OFFSET);
+        this.bomEntryCount = buffer.getInt(BOM_ENTRY_COUNT_OFFSET);
+        this.stringCount = buffer.getInt(STRING_COUNT_OFFSET);
+        this.articles = buffer.getInt(ARTICLES_OFFSET);
+        this.products = buffer.getInt(PRODUCTS_OFFSET);
+        this.bomRowPointers = buffer.getInt(BOM_ROW_POINTERS_OFFSET);
+        this.bomArticles = buffer.getInt(BOM_ARTICLES_OFFSET);
+        this.bomAmounts = buffer.getInt(BOM_AMOUNTS_OFFSET);
+        this.stringOffsets = buffer.getInt(STRING_OFFSETS_OFFSET);
+        this.stringData = buffer.getInt(STRING_DATA_OFFSET);
+        this.components = buffer.getInt(VERSION_OFFSET) == FIRST_VERSION ? -1
+                : stringData + buffer.getInt(STRING_DATA_LENGTH_OFFSET);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to map a snapshot file into memory
+     *
+     * @param path snapshot file
+     * @return MappedSnapshot
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static MappedSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ORDER);
+            int version = mapped.getInt(VERSION_OFFSET);
+            if (mapped.getInt(MAGIC_OFFSET) != MAGIC || version < FIRST_VERSION || version > VERSION) {
+                throw new IOException("Unsupported snapshot file: " + path);
+            }
+            return new MappedSnapshot(mapped);
+        }
+    }
+
+    public long generation() {
+        return buffer.getLong(GENERATION_OFFSET);
+    }
+
+    public int articleCount() {
+        return articleCount;
+    }
+
+    public String articleId(int article) {
+        return string(buffer.getInt(articles + article * ARTICLE_RECORD_BYTES));
+    }
+
+    public String articleName(int article) {
+        return string(buffer.getInt(articles + article * ARTICLE_RECORD_BYTES + 4));
+    }
+
+    public int articleStock(int article) {
+        return buffer.getInt(articles + article * ARTICLE_RECORD_BYTES + 8);
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public String productName(int product) {
+        return string(buffer.getInt(products + product * PRODUCT_RECORD_BYTES));
+    }
+
+    public int productStock(int product) {
+        return buffer.getInt(products + product * PRODUCT_RECORD_BYTES + 4);
+    }
+
+    public double productPrice(int product) {
+        return buffer.getDouble(products + product * PRODUCT_RECORD_BYTES + 8);
+    }
+
+    public int bomEntryCount() {
+        return bomEntryCount;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find the first BOM entry of a product
+     *
+     * @param product product index
+     * @return index of the first entry; entries run up to {@code bomStart(product + 1)}
+     */
+    public int bomStart(int product) {
+        return buffer.getInt(bomRowPointers + product * 4);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read the article of a BOM entry
+     *
+     * @param entry BOM entry index
+     * @return article index, or {@code -(stringIndex + 1)} for an art_id without article record
+     */
+    public int bomArticle(int entry) {
+        return buffer.getInt(bomArticles + entry * 4);
+    }
+
+    public String bomArticleId(int entry) {
+        int article = bomArticle(entry);
+        return article >= 0 ? articleId(article) : string(-article - 1);
+    }
+
+    public int bomAmount(int entry) {
+        return buffer.getInt(bomAmounts + entry * 4);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find the first sub-assembly entry of a product
+     *
+     * @param product product index
+     * @return index of the first entry; entries run up to {@code componentStart(product + 1)}
+     */
+    public int componentStart(int product) {
+        return components < 0 ? 0 : buffer.getInt(components + 4 + product * 4);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read the sub-assembly of an entry
+     *
+     * @param entry sub-assembly entry index
+     * @return index of the product record of the sub-assembly
+     */
+    public int componentProduct(int entry) {
+        return buffer.getInt(componentPairs() + entry * 8);
+    }
+
+    public int componentAmount(int entry) {
+        return buffer.getInt(componentPairs() + entry * 8 + 4);
+    }
+
+    private int componentPairs() {
+        return components + 4 + (productCount + 1) * 4;
+    }
+
+    public int stringCount() {
+        return stringCount;
+    }
+
+    public String string(int index) {
+        int start = buffer.getInt(stringOffsets + index * 4);
+        int end = buffer.getInt(stringOffsets + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringData + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.inventorymanagement.snapshot;
+
+import com.example.inventorymanagement.store.InventoryStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line converter from the JSON catalog files to a binary snapshot:
+ * <pre>
+ * java -Dloader.main=com.example.inventorymanagement.snapshot.SnapshotConverter \
+ *     -cp warehouse-management.jar org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     articles.json products.json catalog.snap
+ * </pre>
+ */
+public final class SnapshotConverter {
+    private SnapshotConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: SnapshotConverter <articles.json> <products.json> <output.snap>");
+            System.exit(2);
+        }
+        InventoryStore store = InventoryStore.load(args[0], args[1]);
+        SnapshotWriter.write(Path.of(args[2]), 0, store.getArticles(), store.getProducts());
+        System.out.println("Wrote " + args[2]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.inventorymanagement.snapshot;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary inventory snapshot. All values are little-endian and every section starts
+ * at an offset recorded in the fixed 64 byte header:
+ * <pre>
+ *  0 magic            4 version          8 generation (long)
+ * 16 articleCount    20 productCount    24 bomEntryCount    28 stringCount
+ * 32 articles        36 products        40 bomRowPointers   44 bomArticles
+ * 48 bomAmounts      52 stringOffsets   56 stringData       60 stringDataLength
+ * </pre>
+ * Articles are fixed 12 byte records {@code [idString][nameString][stock]}, products fixed 16 byte
+ * records {@code [nameString][stock][price as double]}. Each product's {@code contain_articles} are
+ * CSR encoded: entries {@code bomRowPointers[p]} to {@code bomRowPointers[p + 1]} of
+ * {@code bomArticles}/{@code bomAmounts} belong to product {@code p}. A BOM article is the index of
+ * the article record, or {@code -(stringIndex + 1)} when the art_id has no article record. Strings
+ * are UTF-8 and addressed through {@code stringOffsets}, which has {@code stringCount + 1} entries.
+ * <p>
+ * Since version 2 the string data is followed by the sub-assemblies of each product
+ * ({@code contain_products}): {@code [componentCount]}, then {@code productCount + 1} row pointers
+ * and {@code componentCount} pairs {@code [product index][amount]}, CSR encoded like the articles.
+ * Version 1 files have no sub-assemblies.
+ */
+final class SnapshotLayout {
+    static final int MAGIC = 0x57485331;
+    static final int VERSION = 2;
+    static final int FIRST_VERSION = 1;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int HEADER_BYTES = 64;
+    static final int ARTICLE_RECORD_BYTES = 12;
+    static final int PRODUCT_RECORD_BYTES = 16;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int GENERATION_OFFSET = 8;
+    static final int ARTICLE_COUNT_OFFSET = 16;
+    static final int PRODUCT_COUNT_OFFSET = 20;
+    static final int BOM_ENTRY_COUNT_OFFSET = 24;
+    static final int STRING_COUNT_OFFSET = 28;
+    static final int ARTICLES_OFFSET = 32;
+    static final int PRODUCTS_OFFSET = 36;
+    static final int BOM_ROW_POINTERS_OFFSET = 40;
+    static final int BOM_ARTICLES_OFFSET = 44;
+    static final int BOM_AMOUNTS_OFFSET = 48;
+    static final int STRING_OFFSETS_OFFSET = 52;
+    static final int STRING_DATA_OFFSET = 56;
+    static final int STRING_DATA_LENGTH_OFFSET = 60;
+
+    private SnapshotLayout() {
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.inventorymanagement.snapshot;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.Product;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.inventorymanagement.snapshot.SnapshotLayout.*;
+
+/**
+ * Writes articles and products in the binary snapshot format described by {@link SnapshotLayout}.
+ * The file is written next to its target and atomically moved into place once it is synced.
+ */
+public final class SnapshotWriter {
+    private SnapshotWriter() {
+    }
+
+    /**
+     * <B>Description :</B> Invoked to write a snapshot file
+     *
+     * @param target     snapshot file to create or replace
+     * @param generation journal generation the snapshot lines up with
+     * @param articles   List<Article>
+     * @param products   List<Product>
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path target, long generation, List<Article> articles, List<Product> products) throws IOException {
+        StringTable strings = new StringTable();
+        Map<String, Integer> articleIndex = new HashMap<>();
+        int[] articleIds = new int[articles.size()];
+        int[] articleNames = new int[articles.size()];
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            articleIds[i] = strings.indexOf(article.getArt_id());
+            articleNames[i] = strings.indexOf(article.getName());
+            articleIndex.put(article.getArt_id(), i);
+        }
+        int[] productNames = new int[products.size()];
+        int[] bomRowPointers = new int[products.size() + 1];
+        int bomEntryCount = 0;
+        for (int p = 0; p < products.size(); p++) {
+            productNames[p] = strings.indexOf(products.get(p).getName());
+            List<ContainArticle> containArticles = products.get(p).getContain_articles();
+            bomEntryCount += containArticles == null ? 0 : containArticles.size();
+            bomRowPointers[p + 1] = bomEntryCount;
+        }
+        Map<String, Integer> productIndex = new HashMap<>();
+        for (int p = 0; p < products.size(); p++) {
+            productIndex.put(products.get(p).getName(), p);
+        }
+        int[] componentRowPointers = new int[products.size() + 1];
+        List<Integer> components = new ArrayList<>();
+        for (int p = 0; p < products.size(); p++) {
+            List<ContainProduct> containProducts = products.get(p).getContain_products();
+            for (int k = 0; containProducts != null && k < containProducts.size(); k++) {
+                Integer component = productIndex.get(containProducts.get(k).getName());
+                if (component != null) {
+                    components.add(component);
+                    components.add(containProducts.get(k).getAmount_of());
+                }
+            }
+            componentRowPointers[p + 1] = components.size() / 2;
+        }
+        int[] bomArticles = new int[bomEntryCount];
+        int[] bomAmounts = new int[bomEntryCount];
+        for (int p = 0; p < products.size(); p++) {
+            List<ContainArticle> containArticles = products.get(p).getContain_articles();
+            for (int k = 0; containArticles != null && k < containArticles.size(); k++) {
+                ContainArticle containArticle = containArticles.get(k);
+                Integer article = articleIndex.get(containArticle.getArt_id());
+                bomArticles[bomRowPointers[p] + k] = article != null ? article : -strings.indexOf(containArticle.getArt_id()) - 1;
+                bomAmounts[bomRowPointers[p] + k] = containArticle.getAmount_of();
+            }
+        }
+
+        int articlesOffset = HEADER_BYTES;
+        int productsOffset = articlesOffset + articles.size() * ARTICLE_RECORD_BYTES;
+        int rowPointersOffset = productsOffset + products.size() * PRODUCT_RECORD_BYTES;
+        int bomArticlesOffset = rowPointersOffset + bomRowPointers.length * 4;
+        int bomAmountsOffset = bomArticlesOffset + bomEntryCount * 4;
+        int stringOffsetsOffset = bomAmountsOffset + bomEntryCount * 4;
+        int stringDataOffset = stringOffsetsOffset + (strings.count() + 1) * 4;
+        long size = (long) stringDataOffset + strings.data.size() + 4 + componentRowPointers.length * 4L
+                + components.size() * 4L;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds 2 GiB: " + size + " bytes");
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ORDER);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(generation)
+                    .putInt(articles.size()).putInt(products.size()).putInt(bomEntryCount).putInt(strings.count())
+                    .putInt(articlesOffset).putInt(productsOffset).putInt(rowPointersOffset).putInt(bomArticlesOffset)
+                    .putInt(bomAmountsOffset).putInt(stringOffsetsOffset).putInt(stringDataOffset).putInt(strings.data.size());
+            for (int i = 0; i < articles.size(); i++) {
+                buffer.putInt(articleIds[i]).putInt(articleNames[i]).putInt(articles.get(i).getStock());
+            }
+            for (int p = 0; p < products.size(); p++) {
+                buffer.putInt(productNames[p]).putInt(products.get(p).getStock()).putDouble(products.get(p).getPrice());
+            }
+            putInts(buffer, bomRowPointers);
+            putInts(buffer, bomArticles);
+            putInts(buffer, bomAmounts);
+            putInts(buffer, strings.offsets, strings.count() + 1);
+            buffer.put(strings.data.toByteArray());
+            buffer.putInt(components.size() / 2);
+            putInts(buffer, componentRowPointers);
+            for (int value : components) {
+                buffer.putInt(value);
+            }
+            buffer.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        putInts(buffer, values, values.length);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values, int length) {
+        buffer.asIntBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * 4);
+    }
+
+    /**
+     * Deduplicating UTF-8 string table.
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private int[] offsets = new int[16];
+
+        int indexOf(String value) {
+            Integer existing = indexes.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int index = indexes.size();
+            indexes.put(value, index);
+            data.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            if (index + 2 > offsets.length) {
+                int[] grown = new int[offsets.length * 2];
+                System.arraycopy(offsets, 0, grown, 0, offsets.length);
+                offsets = grown;
+            }
+            offsets[index + 1] = data.size();
+            return index;
+        }
+
+        int count() {
+            return indexes.size();
+        }
+    }
+}
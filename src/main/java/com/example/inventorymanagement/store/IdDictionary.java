@@ -0,0 +1,59 @@
+package com.example.inventorymanagement.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns string keys (art_ids, product names) to dense ids assigned in insertion order, so that
+ * stock and bill-of-materials data can be kept in primitive arrays indexed by id. Not thread-safe;
+ * the store only interns while holding its catalog write lock.
+ */
+final class IdDictionary {
+    private final Map<String, Integer> ids;
+    private String[] keys;
+
+    IdDictionary(int expectedSize) {
+        this.ids = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        this.keys = new String[Math.max(16, expectedSize)];
+    }
+
+    /**
+     * <B>Description :</B> Invoked to look up the id of a key
+     *
+     * @param key art_id or product name
+     * @return dense id, or -1 if the key was never interned
+     */
+    int idOf(String key) {
+        Integer id = ids.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the id of a key, assigning the next id if it is new
+     *
+     * @param key art_id or product name
+     * @return dense id
+     */
+    int intern(String key) {
+        Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int id = ids.size();
+        if (id == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[id] = key;
+        ids.put(key, id);
+        return id;
+    }
+
+    String keyOf(int id) {
+        return keys[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.ImportReport;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters recorded by the inventory on its hot paths and read by the metrics registry when it is
+ * scraped. Recording only increments preallocated {@link LongAdder}s and the per-stripe counters
+ * of {@link LockStripes}, so it allocates nothing per request; sums are computed on read.
+ */
+public final class InventoryMetrics {
+    public static final int ARTICLES = 0;
+    public static final int PRODUCTS = 1;
+
+    private final LockStripes lockStripes;
+    private final LongAdder ordersPlaced = new LongAdder();
+    private final LongAdder ordersOutOfStock = new LongAdder();
+    private final LongAdder assemblies = new LongAdder();
+    private final LongAdder assembliesOutOfStock = new LongAdder();
+    private final LongAdder[] imports = {new LongAdder(), new LongAdder()};
+    private final LongAdder[] importNanos = {new LongAdder(), new LongAdder()};
+    private final LongAdder[] importAccepted = {new LongAdder(), new LongAdder()};
+    private final LongAdder[] importRejected = {new LongAdder(), new LongAdder()};
+
+    InventoryMetrics(LockStripes lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the outcome of an order
+     *
+     * @param placed whether the order was placed
+     * @return placed, so the outcome can be returned in the same statement
+     */
+    boolean order(boolean placed) {
+        (placed ? ordersPlaced : ordersOutOfStock).increment();
+        return placed;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the outcome of an assembly
+     *
+     * @param assembled whether the articles were consumed
+     * @return assembled, so the outcome can be returned in the same statement
+     */
+    boolean assembly(boolean assembled) {
+        (assembled ? assemblies : assembliesOutOfStock).increment();
+        return assembled;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to record a finished catalog import
+     *
+     * @param kind   {@link #ARTICLES} or {@link #PRODUCTS}
+     * @param report accepted and rejected records of the import
+     * @param nanos  duration of the import
+     */
+    public void recordImport(int kind, ImportReport report, long nanos) {
+        imports[kind].increment();
+        importNanos[kind].add(nanos);
+        importAccepted[kind].add(report.getAccepted());
+        importRejected[kind].add(report.getRejected());
+    }
+
+    public long ordersPlaced() {
+        return ordersPlaced.sum();
+    }
+
+    public long ordersOutOfStock() {
+        return ordersOutOfStock.sum();
+    }
+
+    public long assemblies() {
+        return assemblies.sum();
+    }
+
+    public long assembliesOutOfStock() {
+        return assembliesOutOfStock.sum();
+    }
+
+    public long imports(int kind) {
+        return imports[kind].sum();
+    }
+
+    public long importNanos(int kind) {
+        return importNanos[kind].sum();
+    }
+
+    public long importAccepted(int kind) {
+        return importAccepted[kind].sum();
+    }
+
+    public long importRejected(int kind) {
+        return importRejected[kind].sum();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to sum the contended acquisitions of the product or article stripes
+     *
+     * @param kind {@link #ARTICLES} or {@link #PRODUCTS}
+     * @return number of acquisitions that had to wait
+     */
+    public long lockContended(int kind) {
+        long sum = 0;
+        for (int stripe = stripeParity(kind); stripe < lockStripes.stripeCount(); stripe += 2) {
+            sum += lockStripes.contended(stripe);
+        }
+        return sum;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to sum the time spent waiting for the product or article stripes
+     *
+     * @param kind {@link #ARTICLES} or {@link #PRODUCTS}
+     * @return nanoseconds spent waiting
+     */
+    public long lockWaitNanos(int kind) {
+        long sum = 0;
+        for (int stripe = stripeParity(kind); stripe < lockStripes.stripeCount(); stripe += 2) {
+            sum += lockStripes.waitNanos(stripe);
+        }
+        return sum;
+    }
+
+    private static int stripeParity(int kind) {
+        return kind == ARTICLES ? 1 : 0;
+    }
+}
@@ -0,0 +1,1969 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.importer.BatchingConsumer;
+import com.example.inventorymanagement.importer.CatalogStreamReader;
+import com.example.inventorymanagement.journal.JournalEntry;
+import com.example.inventorymanagement.journal.StockJournal;
+import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.planner.AllocationProblem;
+import com.example.inventorymanagement.snapshot.MappedSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Resident, indexed copy of the article and product catalogs. Both JSON files are parsed once
+ * when the store is loaded and every read or stock mutation is served from memory afterwards.
+ * When a {@link StockJournal} is attached, every applied change is journaled before the calling
+ * request returns, and when a {@link StockFeed} is attached, every stock change is published to it.
+ * <p>
+ * art_ids and product names are interned to dense ids. Stock lives in {@link AtomicIntegerArray}s
+ * indexed by those ids and each product's {@code contain_articles} is a range of packed
+ * {@code [article, amount]} pairs in one shared int array (CSR layout), so orders and assemblies
+ * check stock without touching per-record objects. An art_id that a product references before any
+ * article defines it gets an id without a name; it is not listed and has no stock. Articles are
+ * also indexed by name for restocks, and articles added by name get the next numeric art_id above
+ * every numeric art_id the store has seen.
+ * <p>
+ * A product can also contain other products ({@code contain_products}), such as a drawer unit used
+ * in several cabinets. Such a product keeps its own articles and sub-assemblies aside, and its CSR
+ * range holds its bill of materials exploded to leaf articles, so every stock check, buildable
+ * count and allocation reads a flat range however deep the product is. The exploded range is only
+ * rebuilt when a bill of materials changes: for the changed product and then for every product
+ * that contains it, directly or not, sub-assemblies before the assemblies using them. A bill of
+ * materials that would make a product contain itself is rejected.
+ * <p>
+ * The number of units of each product that could be assembled from current article stock is kept
+ * up to date incrementally: a reverse index lists the products whose bill of materials uses each
+ * article, and only those products are recomputed when the article's stock changes. Articles by
+ * stock and products by available stock are likewise kept in {@link StockIndex}es, which every
+ * stock change updates, so threshold and top-N queries do not sort the catalog.
+ * <p>
+ * Locking has two levels. Stock changes on known articles and products hold the catalog read lock
+ * plus the {@link LockStripes} of every id they touch, so they only contend with changes to the
+ * same ids. Adding articles or products, imports and recovery hold the catalog write lock, which
+ * is also the only time the arrays below are grown or replaced.
+ * <p>
+ * Alternatively {@link #startSequencer(int)} switches the store to a single-writer mode: every
+ * mutation is handed to a {@link Sequencer} and applied by its writer thread without catalog read
+ * locks or stripes, since nothing else mutates concurrently. The writer still takes the catalog
+ * write lock when it adds articles or products, so that readers never see the arrays being grown.
+ */
+public class InventoryStore {
+    public static final int IMPORT_BATCH_SIZE = 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryStore.class);
+    private static final int LOCK_STRIPES = 1024;
+    private static final long OUT_OF_STOCK = -1;
+    private static final int MIN_BOM_COMPACTION = 1024;
+
+    private final ReadWriteLock catalogLock = new ReentrantReadWriteLock();
+    private final LockStripes lockStripes = new LockStripes(LOCK_STRIPES);
+    private final LockStripes buildableLocks = new LockStripes(LOCK_STRIPES);
+    private final InventoryMetrics metrics = new InventoryMetrics(lockStripes);
+    private volatile StockJournal journal;
+    private volatile StockFeed feed;
+    private volatile Sequencer sequencer;
+    private final AtomicLong version = new AtomicLong();
+
+    // replaced under the catalog write lock; stock cells are also written under their stripe
+    private final IdDictionary articleIds;
+    private final IdDictionary productIds;
+    private String[] articleNames;
+    private final Map<String, Integer> articlesByName = new HashMap<>();
+    private long nextArticleId = 1;
+    private AtomicIntegerArray articleStock;
+    private AtomicIntegerArray productStock;
+    // units set aside by holds, see StockHolds; written under the product's stripe
+    private AtomicIntegerArray productHeld;
+    // contended stripe acquisitions and nanoseconds waited by operations on each product
+    private AtomicLongArray productContended;
+    private AtomicLongArray productWaitNanos;
+    private double[] productPrices;
+    private int[] bomOffsets;
+    private int[] bomLengths;
+    private int[] bomEntries;
+    private int bomSize;
+    private int bomLive;
+    private int[][] dependents;
+    private int[] dependentCounts;
+    private Assembly[] assemblies;
+    private int[][] parents;
+    private int[] parentCounts;
+    private AtomicIntegerArray buildable;
+    // articles by stock and products by available stock
+    private final StockIndex articleIndex;
+    private final StockIndex productIndex;
+
+    public InventoryStore(List<Article> articles, List<Product> products) {
+        this(articles.size(), products.size());
+        for (Article article : articles) {
+            upsertArticle(article.getArt_id(), article.getName(), article.getStock());
+        }
+        List<String> problems = new ArrayList<>();
+        List<Product> skipped = upsertInOrder(products, problems, product -> {
+        });
+        for (int i = 0; i < skipped.size(); i++) {
+            LOGGER.warn("Skipped product {}: {}", skipped.get(i).getName(), problems.get(i));
+        }
+    }
+
+    private InventoryStore(int expectedArticles, int expectedProducts) {
+        int articleCapacity = Math.max(16, expectedArticles);
+        int productCapacity = Math.max(16, expectedProducts);
+        this.articleIds = new IdDictionary(articleCapacity);
+        this.productIds = new IdDictionary(productCapacity);
+        this.articleNames = new String[articleCapacity];
+        this.articleStock = new AtomicIntegerArray(articleCapacity);
+        this.productStock = new AtomicIntegerArray(productCapacity);
+        this.productHeld = new AtomicIntegerArray(productCapacity);
+        this.productContended = new AtomicLongArray(productCapacity);
+        this.productWaitNanos = new AtomicLongArray(productCapacity);
+        this.productPrices = new double[productCapacity];
+        this.bomOffsets = new int[productCapacity];
+        this.bomLengths = new int[productCapacity];
+        this.bomEntries = new int[productCapacity * 8];
+        this.dependents = new int[articleCapacity][];
+        this.dependentCounts = new int[articleCapacity];
+        this.assemblies = new Assembly[productCapacity];
+        this.parents = new int[productCapacity][];
+        this.parentCounts = new int[productCapacity];
+        this.buildable = new AtomicIntegerArray(productCapacity);
+        this.articleIndex = new StockIndex(articleCapacity);
+        this.productIndex = new StockIndex(productCapacity);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to build a store by streaming the articles and products JSON files
+     *
+     * @param articlesPath path of the articles JSON file
+     * @param productsPath path of the products JSON file
+     * @return InventoryStore
+     * @throws IOException if either file cannot be read or is not well-formed JSON
+     */
+    public static InventoryStore load(String articlesPath, String productsPath) throws IOException {
+        InventoryStore store = new InventoryStore(Collections.emptyList(), Collections.emptyList());
+        CatalogStreamReader reader = new CatalogStreamReader();
+        ImportReport articles;
+        ImportReport products;
+        try (InputStream in = Files.newInputStream(Path.of(articlesPath));
+             BatchingConsumer<Article> batch = new BatchingConsumer<>(IMPORT_BATCH_SIZE, store::upsertArticles)) {
+            articles = reader.readArticles(in, batch);
+        }
+        ProductImport productImport = new ProductImport(store);
+        try (InputStream in = Files.newInputStream(Path.of(productsPath));
+             BatchingConsumer<Product> batch = new BatchingConsumer<>(IMPORT_BATCH_SIZE, productImport)) {
+            products = reader.readProducts(in, batch);
+        }
+        productImport.finish(products);
+        if (articles.getRejected() > 0 || products.getRejected() > 0) {
+            LOGGER.warn("Skipped {} invalid articles and {} invalid products while loading the catalog",
+                    articles.getRejected(), products.getRejected());
+        }
+        return store;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to build a store from a binary snapshot. Stock and the CSR
+     * encoded bills of materials are copied straight into the store arrays; only the string keys
+     * are decoded, to fill the id dictionaries.
+     *
+     * @param snapshot MappedSnapshot
+     * @return InventoryStore
+     */
+    public static InventoryStore fromSnapshot(MappedSnapshot snapshot) {
+        int articleCount = snapshot.articleCount();
+        int productCount = snapshot.productCount();
+        InventoryStore store = new InventoryStore(articleCount, productCount);
+        for (int a = 0; a < articleCount; a++) {
+            store.upsertArticle(snapshot.articleId(a), snapshot.articleName(a), snapshot.articleStock(a));
+        }
+        store.ensureBomCapacity(snapshot.bomEntryCount() * 2);
+        for (int p = 0; p < productCount; p++) {
+            int product = store.internProduct(snapshot.productName(p));
+            store.productStock.set(product, snapshot.productStock(p));
+            store.productChanged(product, snapshot.productStock(p));
+            store.productPrices[product] = snapshot.productPrice(p);
+            int start = snapshot.bomStart(p);
+            int length = snapshot.bomStart(p + 1) - start;
+            store.ensureBomCapacity(store.bomSize + length * 2);
+            store.bomOffsets[product] = store.bomSize;
+            store.bomLengths[product] = length;
+            for (int k = start; k < start + length; k++) {
+                int article = snapshot.bomArticle(k);
+                article = article >= 0 ? article : store.internArticle(snapshot.bomArticleId(k));
+                link(store.dependents, store.dependentCounts, article, product);
+                store.bomEntries[store.bomSize++] = article;
+                store.bomEntries[store.bomSize++] = snapshot.bomAmount(k);
+            }
+            store.bomLive += length * 2;
+            store.refreshBuildable(product);
+        }
+        for (int p = 0; p < productCount; p++) {
+            int start = snapshot.componentStart(p);
+            int end = snapshot.componentStart(p + 1);
+            if (start < end) {
+                int product = store.productIds.idOf(snapshot.productName(p));
+                int[] components = new int[(end - start) * 2];
+                for (int k = start; k < end; k++) {
+                    components[(k - start) * 2] = store.productIds.idOf(snapshot.productName(snapshot.componentProduct(k)));
+                    components[(k - start) * 2 + 1] = snapshot.componentAmount(k);
+                }
+                store.setBom(product, store.containArticlesOf(product), components);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list a copy of all articles in insertion order
+     *
+     * @return List<Article>
+     */
+    public List<Article> getArticles() {
+        catalogLock.readLock().lock();
+        try {
+            List<Article> copy = new ArrayList<>(articleIds.size());
+            for (int article = 0; article < articleIds.size(); article++) {
+                if (articleNames[article] != null) {
+                    copy.add(new Article(articleIds.keyOf(article), articleNames[article], articleStock.get(article)));
+                }
+            }
+            return copy;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list a copy of all products in insertion order
+     *
+     * @return List<Product>
+     */
+    public List<Product> getProducts() {
+        catalogLock.readLock().lock();
+        try {
+            List<Product> copy = new ArrayList<>(productIds.size());
+            for (int product = 0; product < productIds.size(); product++) {
+                copy.add(productOf(product));
+            }
+            return copy;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read one page of articles in insertion order. Only the page is
+     * read under the catalog lock, so callers can stream the whole catalog page by page without
+     * holding it.
+     *
+     * @param cursor first article id to read, 0 for the first page
+     * @param limit  maximum number of articles to read
+     * @param sink   receives a copy of every article of the page
+     * @return cursor of the next page, or -1 when the page reached the end of the catalog
+     */
+    public int readArticles(int cursor, int limit, Consumer<Article> sink) {
+        catalogLock.readLock().lock();
+        try {
+            int article = Math.max(0, cursor);
+            for (int read = 0; article < articleIds.size() && read < limit; article++) {
+                if (articleNames[article] != null) {
+                    sink.accept(new Article(articleIds.keyOf(article), articleNames[article], articleStock.get(article)));
+                    read++;
+                }
+            }
+            return article < articleIds.size() ? article : -1;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read one page of products in insertion order, see
+     * {@link #readArticles(int, int, Consumer)}
+     *
+     * @param cursor first product id to read, 0 for the first page
+     * @param limit  maximum number of products to read
+     * @param sink   receives a copy of every product of the page
+     * @return cursor of the next page, or -1 when the page reached the end of the catalog
+     */
+    public int readProducts(int cursor, int limit, Consumer<Product> sink) {
+        catalogLock.readLock().lock();
+        try {
+            int product = Math.max(0, cursor);
+            int end = (int) Math.min(productIds.size(), (long) product + limit);
+            for (; product < end; product++) {
+                sink.accept(productOf(product));
+            }
+            return product < productIds.size() ? product : -1;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the available stock of every product keyed by product
+     * name, which excludes the units set aside by active holds
+     *
+     * @return Map<String, Integer>
+     */
+    public Map<String, Integer> getProductStock() {
+        catalogLock.readLock().lock();
+        try {
+            Map<String, Integer> stock = new LinkedHashMap<>();
+            for (int product = 0; product < productIds.size(); product++) {
+                stock.put(productIds.keyOf(product), Math.max(0, productStock.get(product) - productHeld.get(product)));
+            }
+            return stock;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list articles whose stock lies in a range, by ascending stock,
+     * from the stock index rather than by scanning the catalog
+     *
+     * @param minStock lowest stock, inclusive
+     * @param maxStock highest stock, inclusive
+     * @param limit    maximum number of articles
+     * @return List<Article> ordered by stock, then by insertion
+     */
+    public List<Article> getArticlesByStock(int minStock, int maxStock, int limit) {
+        catalogLock.readLock().lock();
+        try {
+            List<Article> articles = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+            if (limit > 0) {
+                articleIndex.range(minStock, maxStock, article -> {
+                    if (articleNames[article] != null) {
+                        articles.add(new Article(articleIds.keyOf(article), articleNames[article],
+                                articleStock.get(article)));
+                    }
+                    return articles.size() < limit;
+                });
+            }
+            return articles;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the available stock of products whose available stock
+     * lies in a range, by ascending available stock, see {@link #getArticlesByStock(int, int, int)}
+     *
+     * @param minStock lowest available stock, inclusive
+     * @param maxStock highest available stock, inclusive
+     * @param limit    maximum number of products
+     * @return Map<String, Integer> of product name and available stock, in order
+     */
+    public Map<String, Integer> getProductsByStock(int minStock, int maxStock, int limit) {
+        catalogLock.readLock().lock();
+        try {
+            Map<String, Integer> products = new LinkedHashMap<>();
+            if (limit > 0) {
+                productIndex.range(minStock, maxStock, product -> addAvailable(products, product, limit));
+            }
+            return products;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the products with the most or the least available stock
+     *
+     * @param limit    number of products
+     * @param scarcest true for the least available products first, false for the most available first
+     * @return Map<String, Integer> of product name and available stock, in order
+     */
+    public Map<String, Integer> getTopProducts(int limit, boolean scarcest) {
+        catalogLock.readLock().lock();
+        try {
+            Map<String, Integer> products = new LinkedHashMap<>();
+            if (limit > 0) {
+                productIndex.ordered(scarcest, product -> addAvailable(products, product, limit));
+            }
+            return products;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    private boolean addAvailable(Map<String, Integer> products, int product, int limit) {
+        products.put(productIds.keyOf(product), Math.max(0, productStock.get(product) - productHeld.get(product)));
+        return products.size() < limit;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch how many units of every product could be assembled
+     * from current article stock. The counts are maintained as article stock changes, so this
+     * costs O(1) per product.
+     *
+     * @return Map<String, Integer> keyed by product name
+     */
+    public Map<String, Integer> getBuildableStock() {
+        catalogLock.readLock().lock();
+        try {
+            Map<String, Integer> units = new LinkedHashMap<>();
+            for (int product = 0; product < productIds.size(); product++) {
+                units.put(productIds.keyOf(product), buildable.get(product));
+            }
+            return units;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to capture what an allocation plan needs: the wanted products with
+     * their merged quantities, their bills of materials and the current stock of the articles they
+     * use. Unknown products and lines without a positive quantity are left out, and articles with a
+     * zero amount are dropped since they constrain nothing. Articles are numbered through a small
+     * open-addressed table sized to the entries of the wanted products, so the cost does not grow
+     * with the catalog.
+     *
+     * @param targets products and the quantities wanted of each
+     * @return AllocationProblem over the known products, in order of first appearance
+     */
+    public AllocationProblem allocationProblem(List<RequiredProduct> targets) {
+        catalogLock.readLock().lock();
+        try {
+            Map<Integer, Integer> positions = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            int[] ids = new int[targets.size()];
+            long[] quantities = new long[targets.size()];
+            for (RequiredProduct target : targets) {
+                int product = productIds.idOf(target.getName());
+                if (product < 0 || target.getQuantity() <= 0) {
+                    continue;
+                }
+                int position = positions.computeIfAbsent(product, id -> {
+                    ids[names.size()] = id;
+                    names.add(productIds.keyOf(id));
+                    return names.size() - 1;
+                });
+                quantities[position] += target.getQuantity();
+            }
+            int count = names.size();
+            int[] demand = new int[count];
+            int[] offsets = new int[count + 1];
+            int entries = 0;
+            for (int i = 0; i < count; i++) {
+                demand[i] = (int) Math.min(Integer.MAX_VALUE, quantities[i]);
+                entries += bomLengths[ids[i]];
+            }
+            int[] articles = new int[entries];
+            int[] amounts = new int[entries];
+            // open-addressed table from article + 1 to its number within the problem, at most half full
+            int[] keys = new int[Integer.highestOneBit(Math.max(2, entries * 2 - 1)) << 1];
+            int[] local = new int[keys.length];
+            int[] stamp = new int[keys.length];
+            int[] slot = new int[keys.length];
+            int[] stock = new int[entries];
+            int localCount = 0;
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int offset = bomOffsets[ids[i]];
+                for (int k = 0; k < bomLengths[ids[i]]; k++) {
+                    int article = bomEntries[offset + k * 2];
+                    int amount = bomEntries[offset + k * 2 + 1];
+                    if (amount <= 0) {
+                        continue;
+                    }
+                    int cell = tableCell(keys, article);
+                    if (keys[cell] == 0) {
+                        keys[cell] = article + 1;
+                        local[cell] = localCount;
+                        stock[localCount++] = Math.max(0, articleStock.get(article));
+                    }
+                    if (stamp[cell] == i + 1) {
+                        amounts[slot[cell]] += amount;
+                    } else {
+                        stamp[cell] = i + 1;
+                        slot[cell] = size;
+                        articles[size] = local[cell];
+                        amounts[size++] = amount;
+                    }
+                }
+                offsets[i + 1] = size;
+            }
+            return new AllocationProblem(names.toArray(new String[0]), demand, offsets, articles, amounts,
+                    Arrays.copyOf(stock, localCount));
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the cell of an article in an open-addressed table of {@code article + 1} keys whose
+     * length is a power of two, or the empty cell where it belongs.
+     */
+    private static int tableCell(int[] keys, int article) {
+        int mask = keys.length - 1;
+        int hash = article * 0x9E3779B9;
+        int cell = (hash ^ (hash >>> 16)) & mask;
+        while (keys[cell] != 0 && keys[cell] != article + 1) {
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to assemble units of a product from article stock, registering
+     * the product first if it is not known yet. Either every article is consumed or none is.
+     *
+     * @param request AddProductRequest
+     * @return true if every required article had enough stock, false otherwise
+     */
+    public boolean assembleProduct(AddProductRequest request) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            return metrics.assembly(awaitDurable(current.execute(() -> assembleSequenced(request))));
+        }
+        long ticket = OUT_OF_STOCK;
+        int product;
+        catalogLock.readLock().lock();
+        try {
+            product = productIds.idOf(request.getName());
+            if (product >= 0) {
+                Demand demand = articleDemand(request.getArticleQuantities(), request.getProductQuantities(),
+                        request.getStock());
+                if (demand == null) {
+                    return metrics.assembly(false);
+                }
+                int[] stripes = new int[demand.size + 1];
+                for (int k = 0; k < demand.size; k++) {
+                    stripes[k] = lockStripes.articleStripe(demand.ids[k]);
+                }
+                stripes[demand.size] = lockStripes.productStripe(product);
+                stripes = LockStripes.canonical(stripes);
+                lockProducts(stripes, new int[]{product}, 1);
+                try {
+                    ticket = applyAssembly(product, demand, request);
+                } finally {
+                    lockStripes.unlock(stripes);
+                }
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+        if (product < 0) {
+            catalogLock.writeLock().lock();
+            try {
+                ticket = assembleLocked(request);
+            } finally {
+                catalogLock.writeLock().unlock();
+            }
+        }
+        return metrics.assembly(awaitDurable(ticket));
+    }
+
+    /**
+     * Assembles a product, registering it first if needed, while the whole catalog is locked
+     * exclusively.
+     */
+    private long assembleLocked(AddProductRequest request) {
+        Demand demand = articleDemand(request.getArticleQuantities(), request.getProductQuantities(),
+                request.getStock());
+        if (demand == null || !hasArticleStock(demand)) {
+            return OUT_OF_STOCK;
+        }
+        int product = productIds.idOf(request.getName());
+        if (product < 0) {
+            int[] components = resolveComponents(-1, request.getProductQuantities());
+            product = internProduct(request.getName());
+            productPrices[product] = request.getPrice();
+            setBom(product, request.getArticleQuantities(), components);
+        }
+        return applyAssembly(product, demand, request);
+    }
+
+    /**
+     * Assembles a product on the sequencer's writer thread.
+     */
+    private long assembleSequenced(AddProductRequest request) {
+        int product = productIds.idOf(request.getName());
+        if (product < 0) {
+            catalogLock.writeLock().lock();
+            try {
+                return assembleLocked(request);
+            } finally {
+                catalogLock.writeLock().unlock();
+            }
+        }
+        Demand demand = articleDemand(request.getArticleQuantities(), request.getProductQuantities(),
+                request.getStock());
+        return demand == null ? OUT_OF_STOCK : applyAssembly(product, demand, request);
+    }
+
+    /**
+     * Applies an assembly once the product and all its articles are locked, or on the sequencer's
+     * writer thread. Returns the journal ticket, or {@link #OUT_OF_STOCK} when an article is short.
+     */
+    private long applyAssembly(int product, Demand demand, AddProductRequest request) {
+        if (!hasArticleStock(demand)) {
+            return OUT_OF_STOCK;
+        }
+        ensureJournalWritable();
+        for (int k = 0; k < demand.size; k++) {
+            articleStock.addAndGet(demand.ids[k], (int) -demand.amounts[k]);
+        }
+        for (int k = 0; k < demand.size; k++) {
+            refreshDependents(demand.ids[k]);
+            articleChanged(demand.ids[k], (int) -demand.amounts[k]);
+        }
+        productStock.addAndGet(product, request.getStock());
+        productChanged(product, request.getStock());
+        return record(JournalEntry.productAssembled(request.getName(), request.getPrice(), request.getStock(),
+                request.getArticleQuantities(), request.getProductQuantities()));
+    }
+
+    private boolean hasArticleStock(Demand demand) {
+        for (int k = 0; k < demand.size; k++) {
+            if (articleStock.get(demand.ids[k]) < demand.amounts[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to restock an article by name, adding it if it does not exist
+     *
+     * @param request AddArticleRequest
+     * @return List of articles after the operation
+     */
+    public List<Article> restockArticle(AddArticleRequest request) {
+        Objects.requireNonNull(request.getName(), "Article name is required");
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            awaitDurable(current.execute(() -> restockSequenced(request)));
+            return getArticles();
+        }
+        long ticket = 0;
+        int article;
+        catalogLock.readLock().lock();
+        try {
+            article = findArticleByName(request.getName());
+            if (article >= 0) {
+                int[] stripes = {lockStripes.articleStripe(article)};
+                lockStripes.lock(stripes);
+                try {
+                    ticket = applyRestock(article, request.getStock());
+                } finally {
+                    lockStripes.unlock(stripes);
+                }
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+        if (article < 0) {
+            catalogLock.writeLock().lock();
+            try {
+                ticket = restockLocked(request);
+            } finally {
+                catalogLock.writeLock().unlock();
+            }
+        }
+        awaitDurable(ticket);
+        return getArticles();
+    }
+
+    /**
+     * Restocks or adds an article while the whole catalog is locked exclusively.
+     */
+    private long restockLocked(AddArticleRequest request) {
+        int article = findArticleByName(request.getName());
+        if (article < 0) {
+            article = internArticle(String.valueOf(nextArticleId));
+            nameArticle(article, request.getName());
+        }
+        return applyRestock(article, request.getStock());
+    }
+
+    /**
+     * Restocks an article on the sequencer's writer thread.
+     */
+    private long restockSequenced(AddArticleRequest request) {
+        int article = findArticleByName(request.getName());
+        if (article >= 0) {
+            return applyRestock(article, request.getStock());
+        }
+        catalogLock.writeLock().lock();
+        try {
+            return restockLocked(request);
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    private long applyRestock(int article, int quantity) {
+        ensureJournalWritable();
+        articleStock.addAndGet(article, quantity);
+        refreshDependents(article);
+        articleChanged(article, quantity);
+        return record(JournalEntry.articleRestocked(articleIds.keyOf(article), articleNames[article], quantity));
+    }
+
+    private int findArticleByName(String name) {
+        Integer article = articlesByName.get(name);
+        return article == null ? -1 : article;
+    }
+
+    /**
+     * Names an article and keeps the name index pointing at the first article with each name.
+     */
+    private void nameArticle(int article, String name) {
+        String previous = articleNames[article];
+        if (Objects.equals(previous, name)) {
+            return;
+        }
+        articleNames[article] = name;
+        if (previous != null && Integer.valueOf(article).equals(articlesByName.get(previous))) {
+            articlesByName.remove(previous);
+            for (int other = 0; other < articleIds.size(); other++) {
+                if (previous.equals(articleNames[other])) {
+                    articlesByName.put(previous, other);
+                    break;
+                }
+            }
+        }
+        if (name != null) {
+            articlesByName.merge(name, article, Math::min);
+        }
+    }
+
+    /**
+     * Keeps the id allocator above a newly interned art_id, so allocated ids never collide with
+     * imported, replayed or snapshotted ones.
+     */
+    private void reserveArticleId(String artId) {
+        if (artId.isEmpty() || artId.length() > 18) {
+            return;
+        }
+        for (int i = 0; i < artId.length(); i++) {
+            if (!Character.isDigit(artId.charAt(i))) {
+                return;
+            }
+        }
+        nextArticleId = Math.max(nextArticleId, Long.parseLong(artId) + 1);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to take ordered quantities out of product stock. The order is
+     * all-or-nothing: the stripes of every ordered product are locked in canonical order, all lines
+     * are checked and only then decremented, so a short line leaves stock untouched and concurrent
+     * orders cannot oversell.
+     *
+     * @param requiredProducts products and quantities of the order
+     * @return true if every line was in stock, false otherwise
+     */
+    public boolean placeOrder(List<RequiredProduct> requiredProducts) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            return metrics.order(awaitDurable(current.execute(() -> {
+                Demand demand = orderDemand(requiredProducts);
+                return demand == null ? OUT_OF_STOCK : applyOrder(demand, requiredProducts);
+            })));
+        }
+        long ticket;
+        catalogLock.readLock().lock();
+        try {
+            Demand demand = orderDemand(requiredProducts);
+            if (demand == null) {
+                return metrics.order(false);
+            }
+            int[] stripes = new int[demand.size];
+            for (int k = 0; k < demand.size; k++) {
+                stripes[k] = lockStripes.productStripe(demand.ids[k]);
+            }
+            stripes = LockStripes.canonical(stripes);
+            lockProducts(stripes, demand.ids, demand.size);
+            try {
+                ticket = applyOrder(demand, requiredProducts);
+            } finally {
+                lockStripes.unlock(stripes);
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+        return metrics.order(awaitDurable(ticket));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to place many orders in one pass. Every order is resolved up
+     * front, the stripes of all ordered products are locked once for the whole batch, and the orders
+     * are then applied in request order with the same all-or-nothing rule as
+     * {@link #placeOrder(List)}. The batch waits for the journal once, after the locks are released.
+     *
+     * @param orders lines of each order
+     * @return success of each order, in request order
+     */
+    public boolean[] placeOrders(List<List<RequiredProduct>> orders) {
+        boolean[] placed = new boolean[orders.size()];
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            awaitDurable(current.execute(() -> {
+                long last = 0;
+                for (int i = 0; i < placed.length; i++) {
+                    Demand demand = orders.get(i) == null ? null : orderDemand(orders.get(i));
+                    long orderTicket = demand == null ? OUT_OF_STOCK : applyOrder(demand, orders.get(i));
+                    placed[i] = orderTicket != OUT_OF_STOCK;
+                    last = Math.max(last, orderTicket);
+                }
+                return last;
+            }));
+            return countOrders(placed);
+        }
+        long ticket = 0;
+        catalogLock.readLock().lock();
+        try {
+            Demand[] demands = new Demand[orders.size()];
+            int stripeCount = 0;
+            for (int i = 0; i < demands.length; i++) {
+                demands[i] = orders.get(i) == null ? null : orderDemand(orders.get(i));
+                stripeCount += demands[i] == null ? 0 : demands[i].size;
+            }
+            int[] stripes = new int[stripeCount];
+            int[] products = new int[stripeCount];
+            stripeCount = 0;
+            for (Demand demand : demands) {
+                for (int k = 0; demand != null && k < demand.size; k++) {
+                    products[stripeCount] = demand.ids[k];
+                    stripes[stripeCount++] = lockStripes.productStripe(demand.ids[k]);
+                }
+            }
+            stripes = LockStripes.canonical(stripes);
+            lockProducts(stripes, products, products.length);
+            try {
+                for (int i = 0; i < demands.length; i++) {
+                    if (demands[i] != null) {
+                        long orderTicket = applyOrder(demands[i], orders.get(i));
+                        placed[i] = orderTicket != OUT_OF_STOCK;
+                        ticket = Math.max(ticket, orderTicket);
+                    }
+                }
+            } finally {
+                lockStripes.unlock(stripes);
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+        awaitDurable(ticket);
+        return countOrders(placed);
+    }
+
+    private boolean[] countOrders(boolean[] placed) {
+        for (boolean order : placed) {
+            metrics.order(order);
+        }
+        return placed;
+    }
+
+    /**
+     * Applies an order once the stripes of all its products are locked, or on the sequencer's
+     * writer thread. Returns the journal ticket, or {@link #OUT_OF_STOCK} when a line is short.
+     */
+    private long applyOrder(Demand demand, List<RequiredProduct> requiredProducts) {
+        if (!hasAvailableStock(demand)) {
+            return OUT_OF_STOCK;
+        }
+        ensureJournalWritable();
+        for (int k = 0; k < demand.size; k++) {
+            productStock.addAndGet(demand.ids[k], (int) -demand.amounts[k]);
+            productChanged(demand.ids[k], (int) -demand.amounts[k]);
+        }
+        return record(JournalEntry.orderPlaced(requiredProducts));
+    }
+
+    /**
+     * Locks sorted, distinct stripes like {@link LockStripes#lock(int[])} and counts a contended
+     * product stripe against the products of this operation it guards. Nothing is allocated
+     * unless a stripe was contended.
+     */
+    private void lockProducts(int[] stripes, int[] products, int count) {
+        long[] waited = null;
+        for (int i = 0; i < stripes.length; i++) {
+            long nanos = lockStripes.lockTimed(stripes[i]);
+            if (nanos >= 0) {
+                if (waited == null) {
+                    waited = new long[stripes.length];
+                    Arrays.fill(waited, -1);
+                }
+                waited[i] = nanos;
+            }
+        }
+        for (int k = 0; waited != null && k < count; k++) {
+            long nanos = waited[Arrays.binarySearch(stripes, lockStripes.productStripe(products[k]))];
+            if (nanos >= 0) {
+                productContended.incrementAndGet(products[k]);
+                productWaitNanos.addAndGet(products[k], nanos);
+            }
+        }
+    }
+
+    private boolean hasAvailableStock(Demand demand) {
+        for (int k = 0; k < demand.size; k++) {
+            if (productStock.get(demand.ids[k]) - productHeld.get(demand.ids[k]) < demand.amounts[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets aside units of products for a hold, all or nothing. Holds only live in memory, so this
+     * is not journaled, but the version is bumped because the available stock changed.
+     */
+    boolean hold(List<RequiredProduct> requiredProducts) {
+        return onProducts(requiredProducts, demand -> {
+            if (!hasAvailableStock(demand)) {
+                return OUT_OF_STOCK;
+            }
+            for (int k = 0; k < demand.size; k++) {
+                productHeld.addAndGet(demand.ids[k], (int) demand.amounts[k]);
+                productChanged(demand.ids[k], (int) -demand.amounts[k]);
+            }
+            version.incrementAndGet();
+            return 0;
+        }) != OUT_OF_STOCK;
+    }
+
+    /**
+     * Returns the units of a released or expired hold to the available stock.
+     */
+    void release(List<RequiredProduct> requiredProducts) {
+        onProducts(requiredProducts, demand -> {
+            for (int k = 0; k < demand.size; k++) {
+                productHeld.addAndGet(demand.ids[k], (int) -demand.amounts[k]);
+                productChanged(demand.ids[k], (int) demand.amounts[k]);
+            }
+            version.incrementAndGet();
+            return 0;
+        });
+    }
+
+    /**
+     * Turns the units of a hold into a placed order, journaled like one. Fails and releases the
+     * hold only if an import has since lowered the stock below the held units.
+     */
+    boolean confirm(List<RequiredProduct> requiredProducts) {
+        return metrics.order(awaitDurable(onProducts(requiredProducts, demand -> {
+            ensureJournalWritable();
+            for (int k = 0; k < demand.size; k++) {
+                productHeld.addAndGet(demand.ids[k], (int) -demand.amounts[k]);
+            }
+            for (int k = 0; k < demand.size; k++) {
+                if (productStock.get(demand.ids[k]) < demand.amounts[k]) {
+                    for (int j = 0; j < demand.size; j++) {
+                        productChanged(demand.ids[j], (int) demand.amounts[j]);
+                    }
+                    version.incrementAndGet();
+                    return OUT_OF_STOCK;
+                }
+            }
+            for (int k = 0; k < demand.size; k++) {
+                productStock.addAndGet(demand.ids[k], (int) -demand.amounts[k]);
+            }
+            return record(JournalEntry.orderPlaced(requiredProducts));
+        })));
+    }
+
+    /**
+     * Runs a change on the products of an order while their stripes are locked, or on the
+     * sequencer's writer thread. Returns the change's ticket, or {@link #OUT_OF_STOCK} when a
+     * product is unknown.
+     */
+    private long onProducts(List<RequiredProduct> requiredProducts, ToLongFunction<Demand> change) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            return current.execute(() -> {
+                Demand demand = orderDemand(requiredProducts);
+                return demand == null ? OUT_OF_STOCK : change.applyAsLong(demand);
+            });
+        }
+        catalogLock.readLock().lock();
+        try {
+            Demand demand = orderDemand(requiredProducts);
+            if (demand == null) {
+                return OUT_OF_STOCK;
+            }
+            int[] stripes = new int[demand.size];
+            for (int k = 0; k < demand.size; k++) {
+                stripes[k] = lockStripes.productStripe(demand.ids[k]);
+            }
+            stripes = LockStripes.canonical(stripes);
+            lockProducts(stripes, demand.ids, demand.size);
+            try {
+                return change.applyAsLong(demand);
+            } finally {
+                lockStripes.unlock(stripes);
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to return the stock taken by a placed order, for example when a
+     * reservation made for a distributed order is aborted. Lines of unknown products are ignored.
+     *
+     * @param requiredProducts lines of the placed order
+     */
+    public void cancelOrder(List<RequiredProduct> requiredProducts) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            awaitDurable(current.execute(() -> applyCancellation(requiredProducts)));
+            return;
+        }
+        long ticket = 0;
+        catalogLock.readLock().lock();
+        try {
+            int[] stripes = new int[requiredProducts.size()];
+            int[] products = new int[requiredProducts.size()];
+            int stripeCount = 0;
+            for (RequiredProduct requiredProduct : requiredProducts) {
+                int product = productIds.idOf(requiredProduct.getName());
+                if (product >= 0) {
+                    products[stripeCount] = product;
+                    stripes[stripeCount++] = lockStripes.productStripe(product);
+                }
+            }
+            stripes = LockStripes.canonical(Arrays.copyOf(stripes, stripeCount));
+            lockProducts(stripes, products, stripeCount);
+            try {
+                ticket = applyCancellation(requiredProducts);
+            } finally {
+                lockStripes.unlock(stripes);
+            }
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+        awaitDurable(ticket);
+    }
+
+    /**
+     * Returns the stock of a cancelled order once the stripes of its products are locked, or on the
+     * sequencer's writer thread.
+     */
+    private long applyCancellation(List<RequiredProduct> requiredProducts) {
+        ensureJournalWritable();
+        for (RequiredProduct requiredProduct : requiredProducts) {
+            int product = productIds.idOf(requiredProduct.getName());
+            if (product >= 0 && requiredProduct.getQuantity() > 0) {
+                productStock.addAndGet(product, requiredProduct.getQuantity());
+                productChanged(product, requiredProduct.getQuantity());
+            }
+        }
+        return record(JournalEntry.orderCancelled(requiredProducts));
+    }
+
+    /**
+     * <B>Description :</B> Invoked by imports to add articles or replace their name and stock.
+     * Journal entries are appended but not awaited, see {@link #awaitJournal()}.
+     *
+     * @param articles batch of validated articles
+     */
+    public void upsertArticles(List<Article> articles) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            current.execute(() -> {
+                upsertArticles(articles);
+                return null;
+            });
+            return;
+        }
+        catalogLock.writeLock().lock();
+        try {
+            ensureJournalWritable();
+            for (Article article : articles) {
+                upsertArticle(article.getArt_id(), article.getName(), article.getStock());
+                record(JournalEntry.articleImported(article.getArt_id(), article.getName(), article.getStock()));
+            }
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked by imports to add products or replace their definition and stock.
+     * Products naming a sub-assembly defined later in the batch are applied after it; products that
+     * still cannot be applied are logged and skipped, see {@link ProductImport} to report them
+     * instead. Journal entries are appended but not awaited, see {@link #awaitJournal()}.
+     *
+     * @param products batch of validated products
+     */
+    public void upsertProducts(List<Product> products) {
+        List<String> problems = new ArrayList<>();
+        List<Product> skipped = applyProducts(products, problems);
+        for (int i = 0; i < skipped.size(); i++) {
+            LOGGER.warn("Skipped product {}: {}", skipped.get(i).getName(), problems.get(i));
+        }
+    }
+
+    /**
+     * Adds or replaces products and journals them, see {@link #upsertInOrder(List, List, Consumer)}.
+     */
+    List<Product> applyProducts(List<Product> products, List<String> problems) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            return current.execute(() -> applyProducts(products, problems));
+        }
+        catalogLock.writeLock().lock();
+        try {
+            ensureJournalWritable();
+            return upsertInOrder(products, problems, product -> record(JournalEntry.productImported(product.getName(),
+                    product.getPrice(), product.getStock(), product.getContain_articles(),
+                    product.getContain_products())));
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked by bulk uploads to add or replace many articles and products.
+     * Articles are applied before products, in batches of {@link #IMPORT_BATCH_SIZE} that each hold
+     * the catalog exclusively, so orders keep being served between batches. Every record is
+     * journaled, but the inventory version is bumped once per batch, before its exclusive access
+     * ends, so cached catalog responses are rebuilt once per batch rather than once per record and
+     * never outlive a batch that was applied, even partly. Products naming a
+     * sub-assembly defined further down the upload are held back until it is applied; those that
+     * never can be are counted as rejected in the products report. Journal entries are appended
+     * but not awaited, see {@link #awaitJournal()}.
+     *
+     * @param articles      validated articles in upload order
+     * @param products      validated products in upload order
+     * @param productReport report of the products, counting every one of them as accepted so far
+     */
+    public void bulkUpsert(List<Article> articles, List<Product> products, ImportReport productReport) {
+        for (int from = 0; from < articles.size(); from += IMPORT_BATCH_SIZE) {
+            List<Article> batch = articles.subList(from, Math.min(articles.size(), from + IMPORT_BATCH_SIZE));
+            withExclusiveAccess(() -> {
+                ensureJournalWritable();
+                try {
+                    for (Article article : batch) {
+                        upsertArticle(article.getArt_id(), article.getName(), article.getStock());
+                        append(JournalEntry.articleImported(article.getArt_id(), article.getName(), article.getStock()));
+                    }
+                } finally {
+                    version.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        ProductImport productImport = new ProductImport((batch, problems) -> withExclusiveAccess(() -> {
+            ensureJournalWritable();
+            try {
+                return upsertInOrder(batch, problems, product -> append(JournalEntry.productImported(product.getName(),
+                        product.getPrice(), product.getStock(), product.getContain_articles(),
+                        product.getContain_products())));
+            } finally {
+                version.incrementAndGet();
+            }
+        }));
+        for (int from = 0; from < products.size(); from += IMPORT_BATCH_SIZE) {
+            productImport.accept(products.subList(from, Math.min(products.size(), from + IMPORT_BATCH_SIZE)));
+        }
+        productImport.finish(productReport);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to wait until every change applied so far is durable
+     */
+    public void awaitJournal() {
+        StockJournal current = journal;
+        if (current != null) {
+            try {
+                current.sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Stock change could not be journaled", e);
+            }
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked while recovering to re-apply a journaled change without any
+     * stock checks
+     *
+     * @param entry JournalEntry read from the journal
+     */
+    public void apply(JournalEntry entry) {
+        catalogLock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            switch (entry.getType()) {
+                case ORDER_PLACED -> {
+                    for (RequiredProduct line : entry.getOrderLines()) {
+                        int product = productIds.idOf(line.getName());
+                        if (product >= 0) {
+                            productStock.addAndGet(product, -line.getQuantity());
+                            productChanged(product, -line.getQuantity());
+                        }
+                    }
+                }
+                case ORDER_CANCELLED -> {
+                    for (RequiredProduct line : entry.getOrderLines()) {
+                        int product = productIds.idOf(line.getName());
+                        if (product >= 0) {
+                            productStock.addAndGet(product, line.getQuantity());
+                            productChanged(product, line.getQuantity());
+                        }
+                    }
+                }
+                case ARTICLE_RESTOCKED -> {
+                    int article = internArticle(entry.getId());
+                    if (articleNames[article] == null) {
+                        nameArticle(article, entry.getName());
+                    }
+                    articleStock.addAndGet(article, entry.getQuantity());
+                    refreshDependents(article);
+                    articleChanged(article, entry.getQuantity());
+                }
+                case PRODUCT_ASSEMBLED -> {
+                    int product = productIds.idOf(entry.getName());
+                    if (product < 0) {
+                        int[] components = resolveComponents(-1, entry.getContainProducts());
+                        product = internProduct(entry.getName());
+                        productPrices[product] = entry.getPrice();
+                        setBom(product, entry.getContainArticles(), components);
+                    }
+                    productStock.addAndGet(product, entry.getQuantity());
+                    productChanged(product, entry.getQuantity());
+                    for (ContainArticle articleQuantity : entry.getContainArticles()) {
+                        int article = articleIds.idOf(articleQuantity.getArt_id());
+                        if (article >= 0) {
+                            consume(article, (long) articleQuantity.getAmount_of() * entry.getQuantity());
+                        }
+                    }
+                    for (ContainProduct productQuantity : entry.getContainProducts()) {
+                        int component = productIds.idOf(productQuantity.getName());
+                        for (int k = 0; component >= 0 && k < bomLengths[component]; k++) {
+                            consume(bomEntries[bomOffsets[component] + k * 2], (long) bomEntries[bomOffsets[component]
+                                    + k * 2 + 1] * productQuantity.getAmount_of() * entry.getQuantity());
+                        }
+                    }
+                }
+                case ARTICLE_IMPORTED -> upsertArticle(entry.getId(), entry.getName(), entry.getQuantity());
+                case PRODUCT_IMPORTED -> upsertProduct(entry.getName(), entry.getPrice(), entry.getQuantity(),
+                        entry.getContainArticles(), entry.getContainProducts());
+            }
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to run an action while no stock change can be applied, for
+     * example to capture a snapshot that lines up with a journal rollover
+     *
+     * @param action work to run exclusively
+     * @return result of the action
+     */
+    public <T> T withExclusiveAccess(Supplier<T> action) {
+        Sequencer current = sequencerForCaller();
+        if (current != null) {
+            return current.execute(() -> withExclusiveAccess(action));
+        }
+        catalogLock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the inventory version, which increases with every applied
+     * change, so that responses built from the same version can be reused
+     *
+     * @return current version
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the counters recorded on the order, assembly, locking
+     * and import paths
+     *
+     * @return InventoryMetrics of this store
+     */
+    public InventoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to list the products whose stock locks were contended the most.
+     * A wait is counted against the products of the operation that waited, not against every
+     * product sharing the stripe, see {@link #lockProducts(int[], int[], int)}.
+     *
+     * @param limit maximum number of products, none if not positive
+     * @return List of products ordered by contended acquisitions, most contended first
+     */
+    public List<ProductContention> getProductContention(int limit) {
+        catalogLock.readLock().lock();
+        try {
+            List<ProductContention> contention = new ArrayList<>();
+            for (int product = 0; product < productIds.size(); product++) {
+                long contended = productContended.get(product);
+                if (contended > 0) {
+                    contention.add(new ProductContention(productIds.keyOf(product), contended,
+                            productWaitNanos.get(product) / 1e6));
+                }
+            }
+            contention.sort(Comparator.comparingLong(ProductContention::getContendedLocks).reversed());
+            int kept = Math.max(0, limit);
+            return contention.size() > kept ? new ArrayList<>(contention.subList(0, kept)) : contention;
+        } finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    public void attachJournal(StockJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to publish every stock change applied from now on to a change feed
+     *
+     * @param feed StockFeed the changes are published to
+     */
+    public void attachFeed(StockFeed feed) {
+        this.feed = feed;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to switch the store to single-writer mode, where every mutation
+     * is applied in order by one writer thread instead of under locks
+     *
+     * @param ringSize number of pending mutations the ring buffer holds, a power of two
+     */
+    public synchronized void startSequencer(int ringSize) {
+        if (sequencer == null) {
+            sequencer = new Sequencer(ringSize, "inventory-writer");
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked on shutdown to apply the mutations already submitted and stop the
+     * writer thread
+     */
+    public synchronized void stopSequencer() {
+        Sequencer current = sequencer;
+        if (current != null) {
+            sequencer = null;
+            current.stop();
+        }
+    }
+
+    /**
+     * Returns the sequencer mutations must be handed to, or null when the caller should apply them
+     * itself: either the store runs in locking mode or the caller already is the writer thread.
+     */
+    private Sequencer sequencerForCaller() {
+        Sequencer current = sequencer;
+        return current == null || current.isWriterThread() ? null : current;
+    }
+
+    private void upsertArticle(String artId, String name, int stock) {
+        int article = internArticle(artId);
+        nameArticle(article, name);
+        int previous = articleStock.getAndSet(article, stock);
+        refreshDependents(article);
+        articleChanged(article, stock - previous);
+    }
+
+    /**
+     * Adds or replaces products in the given order, then retries those whose sub-assemblies could
+     * not be resolved for as long as a pass applies any, so that a product may name a sub-assembly
+     * defined after it. A product that failed is dropped once a later definition of the same name
+     * was applied. Called under exclusive access.
+     *
+     * @param problems receives why each returned product was not applied
+     * @param applied  called with every product applied, in the order applied
+     * @return products not applied, in the given order
+     */
+    private List<Product> upsertInOrder(List<Product> products, List<String> problems, Consumer<Product> applied) {
+        int[] pending = new int[products.size()];
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = i;
+        }
+        String[] failures = new String[pending.length];
+        Map<String, Integer> appliedAt = new HashMap<>();
+        int count = pending.length;
+        while (count > 0) {
+            int left = 0;
+            for (int k = 0; k < count; k++) {
+                int position = pending[k];
+                Product product = products.get(position);
+                if (appliedAt.getOrDefault(product.getName(), -1) > position) {
+                    continue;
+                }
+                String problem = upsertProduct(product.getName(), product.getPrice(), product.getStock(),
+                        product.getContain_articles(), product.getContain_products());
+                if (problem == null) {
+                    appliedAt.put(product.getName(), position);
+                    applied.accept(product);
+                } else {
+                    failures[position] = problem;
+                    pending[left++] = position;
+                }
+            }
+            if (left == count) {
+                break;
+            }
+            count = left;
+        }
+        List<Product> skipped = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            Product product = products.get(pending[k]);
+            if (appliedAt.getOrDefault(product.getName(), -1) < pending[k]) {
+                skipped.add(product);
+                problems.add(failures[pending[k]]);
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Adds or replaces a product, or leaves the store untouched and returns why when one of its
+     * sub-assemblies is unknown or would make the product contain itself.
+     *
+     * @return null if the product was applied
+     */
+    private String upsertProduct(String name, double price, int stock, List<ContainArticle> containArticles,
+                                 List<ContainProduct> containProducts) {
+        int[] components;
+        try {
+            components = resolveComponents(productIds.idOf(name), containProducts);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        int product = internProduct(name);
+        productPrices[product] = price;
+        int previous = productStock.getAndSet(product, stock);
+        setBom(product, containArticles, components);
+        productChanged(product, stock - previous);
+        return null;
+    }
+
+    private void consume(int article, long amount) {
+        articleStock.addAndGet(article, (int) -amount);
+        refreshDependents(article);
+        articleChanged(article, (int) -amount);
+    }
+
+    private int internArticle(String artId) {
+        int known = articleIds.size();
+        int article = articleIds.intern(artId);
+        if (article == known) {
+            reserveArticleId(artId);
+            articleIndex.add(article);
+        }
+        if (article == articleNames.length) {
+            int capacity = articleNames.length * 2;
+            articleNames = Arrays.copyOf(articleNames, capacity);
+            articleStock = grow(articleStock, capacity);
+            dependents = Arrays.copyOf(dependents, capacity);
+            dependentCounts = Arrays.copyOf(dependentCounts, capacity);
+        }
+        return article;
+    }
+
+    private int internProduct(String name) {
+        int known = productIds.size();
+        int product = productIds.intern(name);
+        if (product == known) {
+            productIndex.add(product);
+        }
+        if (product == productPrices.length) {
+            int capacity = productPrices.length * 2;
+            productStock = grow(productStock, capacity);
+            productHeld = grow(productHeld, capacity);
+            productContended = grow(productContended, capacity);
+            productWaitNanos = grow(productWaitNanos, capacity);
+            buildable = grow(buildable, capacity);
+            productPrices = Arrays.copyOf(productPrices, capacity);
+            bomOffsets = Arrays.copyOf(bomOffsets, capacity);
+            bomLengths = Arrays.copyOf(bomLengths, capacity);
+            assemblies = Arrays.copyOf(assemblies, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            parentCounts = Arrays.copyOf(parentCounts, capacity);
+        }
+        return product;
+    }
+
+    /**
+     * Replaces the bill of materials of a product: its own articles and its sub-assemblies as
+     * {@code [product, amount]} pairs, resolved by {@link #resolveComponents(int, List)}. Then the
+     * exploded range of the product and of every product containing it is rebuilt.
+     */
+    private void setBom(int product, List<ContainArticle> containArticles, int[] components) {
+        Assembly previous = assemblies[product];
+        for (int k = 0; previous != null && k < previous.components.length; k += 2) {
+            unlink(parents, parentCounts, previous.components[k], product);
+        }
+        if (components.length == 0) {
+            assemblies[product] = null;
+            int length = containArticles == null ? 0 : containArticles.size();
+            Demand direct = new Demand(length);
+            for (int k = 0; k < length; k++) {
+                direct.append(internArticle(containArticles.get(k).getArt_id()), containArticles.get(k).getAmount_of());
+            }
+            writeBom(product, direct);
+        } else {
+            assemblies[product] = new Assembly(containArticles == null ? Collections.emptyList()
+                    : new ArrayList<>(containArticles), components);
+            for (int k = 0; k < components.length; k += 2) {
+                link(parents, parentCounts, components[k], product);
+            }
+            writeBom(product, explode(assemblies[product]));
+        }
+        for (int ancestor : ancestorsOf(product)) {
+            writeBom(ancestor, explode(assemblies[ancestor]));
+        }
+    }
+
+    /**
+     * Replaces the CSR range of a product by appending a new range of pairs. The old range becomes
+     * garbage and is dropped once garbage outweighs live entries.
+     */
+    private void writeBom(int product, Demand entries) {
+        for (int k = 0; k < bomLengths[product]; k++) {
+            unlink(dependents, dependentCounts, bomEntries[bomOffsets[product] + k * 2], product);
+        }
+        bomLive -= bomLengths[product] * 2;
+        bomLengths[product] = 0;
+        if (bomSize > MIN_BOM_COMPACTION && bomSize - bomLive > bomLive) {
+            compactBom();
+        }
+        ensureBomCapacity(bomSize + entries.size * 2);
+        bomOffsets[product] = bomSize;
+        for (int k = 0; k < entries.size; k++) {
+            link(dependents, dependentCounts, entries.ids[k], product);
+            bomEntries[bomSize++] = entries.ids[k];
+            bomEntries[bomSize++] = (int) Math.min(Integer.MAX_VALUE, entries.amounts[k]);
+        }
+        bomLengths[product] = entries.size;
+        bomLive += entries.size * 2;
+        refreshBuildable(product);
+    }
+
+    /**
+     * Explodes an assembly to the total amount of each leaf article. Sub-assemblies contribute their
+     * own exploded ranges, which are already up to date, so only one level is expanded here.
+     */
+    private Demand explode(Assembly assembly) {
+        int capacity = assembly.articles.size();
+        for (int k = 0; k < assembly.components.length; k += 2) {
+            capacity += bomLengths[assembly.components[k]];
+        }
+        Demand leaves = new Demand(capacity);
+        for (ContainArticle containArticle : assembly.articles) {
+            leaves.add(internArticle(containArticle.getArt_id()), containArticle.getAmount_of());
+        }
+        for (int k = 0; k < assembly.components.length; k += 2) {
+            int component = assembly.components[k];
+            for (int e = 0; e < bomLengths[component]; e++) {
+                int entry = bomOffsets[component] + e * 2;
+                leaves.add(bomEntries[entry], (long) bomEntries[entry + 1] * assembly.components[k + 1]);
+            }
+        }
+        return leaves;
+    }
+
+    /**
+     * Lists every product that contains a product, directly or through other sub-assemblies, with
+     * each product after all of its sub-assemblies among them (reverse post-order of a depth-first
+     * walk up the containment graph).
+     */
+    private int[] ancestorsOf(int product) {
+        if (parentCounts[product] == 0) {
+            return new int[0];
+        }
+        BitSet visited = new BitSet(productIds.size());
+        int[] order = new int[16];
+        int size = 0;
+        Deque<int[]> stack = new ArrayDeque<>();
+        visited.set(product);
+        stack.push(new int[]{product, 0});
+        while (!stack.isEmpty()) {
+            int[] frame = stack.peek();
+            if (frame[1] < parentCounts[frame[0]]) {
+                int parent = parents[frame[0]][frame[1]++];
+                if (!visited.get(parent)) {
+                    visited.set(parent);
+                    stack.push(new int[]{parent, 0});
+                }
+            } else {
+                stack.pop();
+                if (frame[0] != product) {
+                    if (size == order.length) {
+                        order = Arrays.copyOf(order, size * 2);
+                    }
+                    order[size++] = frame[0];
+                }
+            }
+        }
+        int[] ancestors = new int[size];
+        for (int i = 0; i < size; i++) {
+            ancestors[i] = order[size - 1 - i];
+        }
+        return ancestors;
+    }
+
+    /**
+     * Resolves the sub-assemblies of a product to {@code [product, amount]} pairs. Fails when a
+     * sub-assembly is unknown, has no positive amount, or already contains the product, which would
+     * make the product contain itself.
+     *
+     * @param product id of the product, or -1 for a product that does not exist yet
+     */
+    private int[] resolveComponents(int product, List<ContainProduct> containProducts) {
+        int length = containProducts == null ? 0 : containProducts.size();
+        int[] components = new int[length * 2];
+        for (int k = 0; k < length; k++) {
+            ContainProduct containProduct = containProducts.get(k);
+            int component = productIds.idOf(containProduct.getName());
+            if (component < 0) {
+                throw new IllegalArgumentException("unknown sub-assembly " + containProduct.getName());
+            }
+            if (containProduct.getAmount_of() <= 0) {
+                throw new IllegalArgumentException("sub-assembly " + containProduct.getName()
+                        + " needs a positive amount_of");
+            }
+            if (product >= 0 && (component == product || contains(component, product))) {
+                throw new IllegalArgumentException("sub-assembly " + containProduct.getName()
+                        + " would make the product contain itself");
+            }
+            components[k * 2] = component;
+            components[k * 2 + 1] = containProduct.getAmount_of();
+        }
+        return components;
+    }
+
+    /**
+     * Tells whether an assembly contains a product at any depth.
+     */
+    private boolean contains(int assembly, int product) {
+        for (int ancestor : ancestorsOf(product)) {
+            if (ancestor == assembly) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void link(int[][] lists, int[] counts, int owner, int member) {
+        int[] members = lists[owner];
+        int count = counts[owner];
+        for (int i = 0; i < count; i++) {
+            if (members[i] == member) {
+                return;
+            }
+        }
+        if (members == null || count == members.length) {
+            members = lists[owner] = members == null ? new int[4] : Arrays.copyOf(members, count * 2);
+        }
+        members[count] = member;
+        counts[owner] = count + 1;
+    }
+
+    private static void unlink(int[][] lists, int[] counts, int owner, int member) {
+        int[] members = lists[owner];
+        int count = counts[owner];
+        for (int i = 0; i < count; i++) {
+            if (members[i] == member) {
+                members[i] = members[--count];
+                counts[owner] = count;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Recomputes the buildable units of every product that uses an article. Must be called after
+     * the article's stock changed, with the catalog lock held in either mode.
+     */
+    private void refreshDependents(int article) {
+        int[] products = dependents[article];
+        for (int i = 0; i < dependentCounts[article]; i++) {
+            refreshBuildable(products[i]);
+        }
+    }
+
+    /**
+     * Recomputes how many units of a product current article stock allows. The product's leaf lock
+     * serializes recomputations, and every stock change triggers one after it is applied, so the
+     * last write always reflects the latest stock of all articles. Products without article
+     * requirements report 0.
+     */
+    private void refreshBuildable(int product) {
+        int stripe = buildableLocks.productStripe(product);
+        buildableLocks.lock(stripe);
+        try {
+            int offset = bomOffsets[product];
+            int end = offset + bomLengths[product] * 2;
+            long units = Long.MAX_VALUE;
+            for (int k = offset; k < end; k += 2) {
+                int article = bomEntries[k];
+                long amount = 0;
+                boolean repeated = false;
+                for (int j = offset; j < end; j += 2) {
+                    if (bomEntries[j] == article) {
+                        repeated |= j < k;
+                        amount += bomEntries[j + 1];
+                    }
+                }
+                if (!repeated && amount > 0) {
+                    units = Math.min(units, Math.max(0, articleStock.get(article)) / amount);
+                }
+            }
+            buildable.set(product, units == Long.MAX_VALUE ? 0 : (int) units);
+        } finally {
+            buildableLocks.unlock(stripe);
+        }
+    }
+
+    private void compactBom() {
+        int[] compacted = new int[Math.max(bomLive * 2, 16)];
+        int size = 0;
+        for (int product = 0; product < productIds.size(); product++) {
+            int pairs = bomLengths[product] * 2;
+            System.arraycopy(bomEntries, bomOffsets[product], compacted, size, pairs);
+            bomOffsets[product] = size;
+            size += pairs;
+        }
+        bomEntries = compacted;
+        bomSize = size;
+    }
+
+    private void ensureBomCapacity(int capacity) {
+        if (capacity > bomEntries.length) {
+            bomEntries = Arrays.copyOf(bomEntries, Math.max(capacity, bomEntries.length * 2));
+        }
+    }
+
+    private Product productOf(int product) {
+        Assembly assembly = assemblies[product];
+        if (assembly == null) {
+            return new Product(productIds.keyOf(product), containArticlesOf(product), productPrices[product],
+                    productStock.get(product));
+        }
+        List<ContainProduct> containProducts = new ArrayList<>(assembly.components.length / 2);
+        for (int k = 0; k < assembly.components.length; k += 2) {
+            containProducts.add(new ContainProduct(productIds.keyOf(assembly.components[k]), assembly.components[k + 1]));
+        }
+        return new Product(productIds.keyOf(product), new ArrayList<>(assembly.articles), containProducts,
+                productPrices[product], productStock.get(product));
+    }
+
+    private List<ContainArticle> containArticlesOf(int product) {
+        int offset = bomOffsets[product];
+        List<ContainArticle> containArticles = new ArrayList<>(bomLengths[product]);
+        for (int k = 0; k < bomLengths[product]; k++) {
+            containArticles.add(new ContainArticle(articleIds.keyOf(bomEntries[offset + k * 2]),
+                    bomEntries[offset + k * 2 + 1]));
+        }
+        return containArticles;
+    }
+
+    /**
+     * Resolves the articles and sub-assemblies of an assembly to distinct leaf article ids and total
+     * amounts, or null when an article or sub-assembly is unknown or an amount is negative. A
+     * sub-assembly costs one pass over its exploded range.
+     */
+    private Demand articleDemand(List<ContainArticle> containArticles, List<ContainProduct> containProducts,
+                                 int units) {
+        int capacity = containArticles.size();
+        int[] components = new int[containProducts == null ? 0 : containProducts.size()];
+        for (int k = 0; k < components.length; k++) {
+            components[k] = productIds.idOf(containProducts.get(k).getName());
+            if (components[k] < 0 || containProducts.get(k).getAmount_of() <= 0) {
+                return null;
+            }
+            capacity += bomLengths[components[k]];
+        }
+        Demand demand = new Demand(capacity);
+        for (ContainArticle containArticle : containArticles) {
+            int article = articleIds.idOf(containArticle.getArt_id());
+            if (article < 0 || articleNames[article] == null || containArticle.getAmount_of() < 0) {
+                return null;
+            }
+            demand.add(article, (long) containArticle.getAmount_of() * units);
+        }
+        for (int k = 0; k < components.length; k++) {
+            long amount = (long) containProducts.get(k).getAmount_of() * units;
+            for (int e = 0; e < bomLengths[components[k]]; e++) {
+                int entry = bomOffsets[components[k]] + e * 2;
+                if (articleNames[bomEntries[entry]] == null) {
+                    return null;
+                }
+                demand.add(bomEntries[entry], bomEntries[entry + 1] * amount);
+            }
+        }
+        return demand;
+    }
+
+    /**
+     * Resolves the lines of an order to distinct product ids and total quantities, or null when a
+     * product is unknown or a quantity is negative.
+     */
+    private Demand orderDemand(List<RequiredProduct> requiredProducts) {
+        Demand demand = new Demand(requiredProducts.size());
+        for (RequiredProduct requiredProduct : requiredProducts) {
+            int product = productIds.idOf(requiredProduct.getName());
+            if (product < 0 || requiredProduct.getQuantity() < 0) {
+                return null;
+            }
+            demand.add(product, requiredProduct.getQuantity());
+        }
+        return demand;
+    }
+
+    /**
+     * Re-indexes an article after its stock changed and publishes the new stock. Must be called
+     * while the change is still exclusive, so that the changes of one article are indexed and
+     * published in the order they were applied.
+     */
+    private void articleChanged(int article, int delta) {
+        int stock = articleStock.get(article);
+        articleIndex.update(article, stock);
+        StockFeed current = feed;
+        if (current != null) {
+            current.publish(StockChange.ARTICLE, articleIds.keyOf(article), stock, delta);
+        }
+    }
+
+    /**
+     * Re-indexes a product by its available stock and publishes it, like {@link #articleChanged(int, int)}.
+     */
+    private void productChanged(int product, int delta) {
+        int available = Math.max(0, productStock.get(product) - productHeld.get(product));
+        productIndex.update(product, available);
+        StockFeed current = feed;
+        if (current != null) {
+            current.publish(StockChange.PRODUCT, productIds.keyOf(product), available, delta);
+        }
+    }
+
+    /**
+     * Marks a change as applied: bumps the inventory version and appends the change to the journal.
+     */
+    private long record(JournalEntry entry) {
+        version.incrementAndGet();
+        return append(entry);
+    }
+
+    private long append(JournalEntry entry) {
+        StockJournal current = journal;
+        return current == null ? 0 : current.append(entry);
+    }
+
+    /**
+     * Fails a change before it touches memory once the journal can no longer be written, so the
+     * store does not drift ahead of what a restart would recover.
+     */
+    private void ensureJournalWritable() {
+        StockJournal current = journal;
+        if (current != null) {
+            current.ensureWritable();
+        }
+    }
+
+    /**
+     * Waits for a journal ticket returned by a mutation.
+     *
+     * @return false if the mutation was rejected as out of stock, true once it is durable
+     */
+    private boolean awaitDurable(long ticket) {
+        if (ticket == OUT_OF_STOCK) {
+            return false;
+        }
+        if (ticket > 0) {
+            try {
+                journal.awaitDurable(ticket);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Stock change could not be journaled", e);
+            }
+        }
+        return true;
+    }
+
+    static AtomicIntegerArray grow(AtomicIntegerArray array, int capacity) {
+        AtomicIntegerArray grown = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < array.length(); i++) {
+            grown.set(i, array.get(i));
+        }
+        return grown;
+    }
+
+    static AtomicLongArray grow(AtomicLongArray array, int capacity) {
+        AtomicLongArray grown = new AtomicLongArray(capacity);
+        for (int i = 0; i < array.length(); i++) {
+            grown.set(i, array.get(i));
+        }
+        return grown;
+    }
+
+    /**
+     * Distinct ids with the total amount an operation needs of each; repeated ids are merged.
+     */
+    private static final class Demand {
+        private final int[] ids;
+        private final long[] amounts;
+        private int size;
+
+        Demand(int capacity) {
+            this.ids = new int[capacity];
+            this.amounts = new long[capacity];
+        }
+
+        void add(int id, long amount) {
+            for (int k = 0; k < size; k++) {
+                if (ids[k] == id) {
+                    amounts[k] += amount;
+                    return;
+                }
+            }
+            append(id, amount);
+        }
+
+        /**
+         * Adds an id without merging it with an earlier entry for the same id.
+         */
+        void append(int id, long amount) {
+            ids[size] = id;
+            amounts[size++] = amount;
+        }
+    }
+
+    /**
+     * Own articles and sub-assemblies of a product that contains other products, as defined; its
+     * CSR range holds the exploded leaf articles.
+     */
+    private static final class Assembly {
+        private final List<ContainArticle> articles;
+        private final int[] components;
+
+        Assembly(List<ContainArticle> articles, int[] components) {
+            this.articles = articles;
+            this.components = components;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.inventorymanagement.store;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks that dense product and article ids are mapped onto; products use the even
+ * stripes and articles the odd ones. An operation collects the stripes of every id it touches and
+ * acquires them in ascending stripe order, so operations on disjoint ids run in parallel and
+ * operations on overlapping ids can never deadlock.
+ * <p>
+ * Every stripe counts the acquisitions that found it held and the nanoseconds spent waiting for
+ * it. An uncontended acquisition only pays for one {@code tryLock}; the clock is read and the
+ * counters are written only when the caller actually has to wait.
+ */
+final class LockStripes {
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final AtomicLongArray contended;
+    private final AtomicLongArray waitNanos;
+
+    LockStripes(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+        this.contended = new AtomicLongArray(stripes);
+        this.waitNanos = new AtomicLongArray(stripes);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find the stripe guarding the stock of a product
+     *
+     * @param product dense product id
+     * @return stripe index
+     */
+    int productStripe(int product) {
+        return (product << 1) & mask;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to find the stripe guarding the stock of an article
+     *
+     * @param article dense article id
+     * @return stripe index
+     */
+    int articleStripe(int article) {
+        return ((article << 1) | 1) & mask;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to turn collected stripes into acquisition order
+     *
+     * @param stripes stripes of every key the operation touches, sorted in place
+     * @return sorted, distinct stripes
+     */
+    static int[] canonical(int[] stripes) {
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (distinct == 0 || stripes[distinct - 1] != stripes[i]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return distinct == stripes.length ? stripes : Arrays.copyOf(stripes, distinct);
+    }
+
+    int stripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read how often a stripe was found held by another operation
+     *
+     * @param stripe stripe index
+     * @return number of contended acquisitions
+     */
+    long contended(int stripe) {
+        return contended.get(stripe);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read the total time operations waited for a stripe
+     *
+     * @param stripe stripe index
+     * @return nanoseconds spent waiting
+     */
+    long waitNanos(int stripe) {
+        return waitNanos.get(stripe);
+    }
+
+    void lock(int stripe) {
+        acquire(stripe);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to lock a stripe and learn whether the caller had to wait for it
+     *
+     * @param stripe stripe index
+     * @return nanoseconds spent waiting, or -1 if the stripe was free
+     */
+    long lockTimed(int stripe) {
+        return acquire(stripe);
+    }
+
+    void unlock(int stripe) {
+        locks[stripe].unlock();
+    }
+
+    void lock(int[] stripes) {
+        for (int stripe : stripes) {
+            acquire(stripe);
+        }
+    }
+
+    void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private long acquire(int stripe) {
+        ReentrantLock lock = locks[stripe];
+        if (lock.tryLock()) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        waitNanos.addAndGet(stripe, waited);
+        contended.incrementAndGet(stripe);
+        return waited;
+    }
+}
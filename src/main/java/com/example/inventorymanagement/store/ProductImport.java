@@ -0,0 +1,68 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.ImportReport;
+import com.example.inventorymanagement.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Applies the products of one import batch by batch, typically fed by a
+ * {@link com.example.inventorymanagement.importer.BatchingConsumer}. A product naming a
+ * sub-assembly that is not known yet is held back and retried ahead of every later batch, so a
+ * document may define sub-assemblies after the products containing them. {@link #finish} counts
+ * the products that still cannot be applied, because a sub-assembly is never defined or the
+ * products would contain themselves, as rejected.
+ */
+public final class ProductImport implements Consumer<List<Product>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductImport.class);
+
+    private final BatchApplier applier;
+    private List<Product> pending = new ArrayList<>();
+    private List<String> problems = new ArrayList<>();
+
+    public ProductImport(InventoryStore store) {
+        this(store::applyProducts);
+    }
+
+    ProductImport(BatchApplier applier) {
+        this.applier = applier;
+    }
+
+    @Override
+    public void accept(List<Product> batch) {
+        List<Product> products = batch;
+        if (!pending.isEmpty()) {
+            products = new ArrayList<>(pending.size() + batch.size());
+            products.addAll(pending);
+            products.addAll(batch);
+        }
+        problems = new ArrayList<>();
+        pending = applier.apply(products, problems);
+    }
+
+    /**
+     * <B>Description :</B> Invoked once every batch was applied, to reject the products still held back
+     *
+     * @param report report of the import, in which those products were counted as accepted
+     */
+    public void finish(ImportReport report) {
+        for (int i = 0; i < pending.size(); i++) {
+            LOGGER.warn("Skipped product {}: {}", pending.get(i).getName(), problems.get(i));
+            report.revoke(pending.get(i).getName(), problems.get(i));
+        }
+        pending = new ArrayList<>();
+        problems = new ArrayList<>();
+    }
+
+    /**
+     * Applies products in order and returns those it could not apply, with why in {@code problems}.
+     */
+    @FunctionalInterface
+    interface BatchApplier {
+        List<Product> apply(List<Product> products, List<String> problems);
+    }
+}
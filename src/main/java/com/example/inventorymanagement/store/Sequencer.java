@@ -0,0 +1,189 @@
+package com.example.inventorymanagement.store;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated ring of commands that request threads publish into and a single writer thread
+ * applies in sequence order. Request threads claim a sequence number, wait until the previous
+ * user of that slot has taken its result, publish their command and wait for the writer to store
+ * the outcome in the same slot. Because only the writer ever runs commands, they need no locks
+ * among themselves and are applied in one deterministic order.
+ * <p>
+ * Stopping sets the high bit of the claim counter in the same atomic step that reads it, so every
+ * sequence is either claimed before the stop, and applied by the writer before it exits, or
+ * refused. The idle writer and producers waiting for their result spin briefly and then park
+ * until the other side unparks them; only producers waiting for a free slot poll.
+ */
+final class Sequencer {
+    private static final int SPINS_BEFORE_PARKING = 1000;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long STOPPED = Long.MIN_VALUE;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean sleeping;
+
+    Sequencer(int ringSize, String name) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + ringSize);
+        }
+        this.slots = new Slot[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = ringSize - 1;
+        this.writer = new Thread(this::runWriter, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * <B>Description :</B> Invoked by request threads to run a command on the writer thread and
+     * wait for its result
+     *
+     * @param command work to apply in sequence
+     * @return value returned by the command
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(Supplier<T> command) {
+        long sequence = claim();
+        Slot slot = slots[(int) (sequence & mask)];
+        int spins = 0;
+        while (slot.free != sequence) {
+            if (++spins < SPINS_BEFORE_PARKING) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        }
+        slot.command = command;
+        slot.waiter = Thread.currentThread();
+        slot.published = sequence;
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+        spins = 0;
+        while (slot.completed != sequence) {
+            if (++spins < SPINS_BEFORE_PARKING) {
+                Thread.onSpinWait();
+            } else {
+                slot.waiting = true;
+                if (slot.completed != sequence) {
+                    LockSupport.park(this);
+                }
+                slot.waiting = false;
+            }
+        }
+        Object result = slot.result;
+        Throwable failure = slot.failure;
+        slot.result = null;
+        slot.failure = null;
+        slot.waiter = null;
+        slot.free = sequence + slots.length;
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+        return (T) result;
+    }
+
+    private long claim() {
+        while (true) {
+            long sequence = claimed.get();
+            if ((sequence & STOPPED) != 0) {
+                throw new IllegalStateException("Sequencer is stopped");
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * <B>Description :</B> Invoked on shutdown to apply the commands already claimed and stop the
+     * writer thread
+     */
+    void stop() {
+        claimed.getAndUpdate(sequence -> sequence | STOPPED);
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) {
+                if (claimed.get() == (next | STOPPED)) {
+                    return;
+                }
+                if (++idle < SPINS_BEFORE_PARKING) {
+                    Thread.onSpinWait();
+                } else {
+                    sleeping = true;
+                    if (slot.published != next && claimed.get() != (next | STOPPED)) {
+                        LockSupport.park(this);
+                    }
+                    sleeping = false;
+                }
+                continue;
+            }
+            idle = 0;
+            Supplier<?> command = slot.command;
+            Thread waiter = slot.waiter;
+            slot.command = null;
+            try {
+                slot.result = command.get();
+            } catch (Throwable t) {
+                slot.failure = t;
+            }
+            slot.completed = next++;
+            if (slot.waiting) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /**
+     * One ring entry, reused for every lap. The producer's volatile write of {@code published}
+     * makes the command visible to the writer, the writer's volatile write of {@code completed}
+     * makes the outcome visible to the producer, and the producer's volatile write of
+     * {@code free} hands the slot to the sequence one lap later. A producer and the writer only
+     * park after announcing it through {@code waiting} or {@code sleeping} and re-checking, so a
+     * wake-up is never lost.
+     */
+    private static final class Slot {
+        private Supplier<?> command;
+        private Thread waiter;
+        private Object result;
+        private Throwable failure;
+        private volatile boolean waiting;
+        private volatile long published = -1;
+        private volatile long completed = -1;
+        private volatile long free;
+
+        private Slot(long free) {
+            this.free = free;
+        }
+    }
+}
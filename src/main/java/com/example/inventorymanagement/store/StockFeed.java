@@ -0,0 +1,85 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.StockChange;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ring of the most recent stock changes, numbered by a sequence that increases with every change.
+ * The store publishes a change while it still holds the stripe of the article or product, or on the
+ * sequencer's writer thread, so the changes of one record are numbered in the order they were
+ * applied. Each change carries the record's stock after the change as well as the delta, so a
+ * reader can apply changes idempotently and merge several changes of one record into one.
+ * <p>
+ * Publishing claims a sequence with one atomic increment and writes one slot of the ring; readers
+ * never block publishers. Once more changes than the ring holds have been published, the oldest
+ * ones are gone and a reader that has not read them yet has to start over from a full snapshot.
+ */
+public class StockFeed {
+    public static final long LAPPED = -1;
+
+    private final AtomicReferenceArray<StockChange> ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    // distinguishes sequences of this process from equal sequences before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public StockFeed(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Feed capacity must be a power of two: " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void publish(String type, String id, int stock, int delta) {
+        long sequence = next.getAndIncrement();
+        ring.set((int) (sequence & mask), new StockChange(sequence, type, id, stock, delta));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the sequence the next change will be published with
+     *
+     * @return sequence of the next change
+     */
+    public long head() {
+        return next.get();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to fetch the epoch of this feed, which changes when the process restarts
+     *
+     * @return epoch of the feed
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to read the changes published since a sequence, in sequence order.
+     * Reading stops early at a change that has been numbered but not written yet.
+     *
+     * @param from  sequence of the first change to read
+     * @param sink  receives the changes
+     * @return sequence to continue from, or {@link #LAPPED} if changes since {@code from} are no longer held
+     */
+    public long read(long from, Consumer<StockChange> sink) {
+        long head = next.get();
+        if (from < 0 || from > head || head - from > ring.length()) {
+            return LAPPED;
+        }
+        for (long sequence = from; sequence < head; sequence++) {
+            StockChange change = ring.get((int) (sequence & mask));
+            if (change == null || change.getSequence() < sequence) {
+                return sequence;
+            }
+            if (change.getSequence() > sequence) {
+                return LAPPED;
+            }
+            sink.accept(change);
+        }
+        return head;
+    }
+}
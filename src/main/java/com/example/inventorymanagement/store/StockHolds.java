@@ -0,0 +1,184 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.RequiredProduct;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-bounded holds on product stock, for example while a customer pays. A hold sets units aside
+ * so that they no longer count as available, and is then either confirmed into a placed order or
+ * released; a hold that is neither before its time to live runs out is released automatically.
+ * <p>
+ * Expiry uses a hashed timing wheel: a ring of buckets, each covering one tick. A hold is appended
+ * to the bucket of its deadline tick, and every tick the wheel visits only the bucket of that tick,
+ * releasing the holds that are due and keeping those due a whole rotation or more later. Creating
+ * and expiring a hold therefore costs O(1) however many holds are active, and confirmed or released
+ * holds are simply dropped when their bucket comes round. Whichever of confirm, release and expiry
+ * removes a hold from the active map first decides its outcome.
+ * <p>
+ * Holds are not journaled; after a restart every hold is gone and its units are available again.
+ */
+public class StockHolds implements Closeable {
+    public static final long NO_HOLD = -1;
+    public static final long MAX_TTL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final InventoryStore store;
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Hold>[] wheel;
+    private final int mask;
+    private final Map<Long, Hold> active = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ScheduledExecutorService ticker;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public StockHolds(InventoryStore store, long tickMillis, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.store = store;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = wheelSize - 1;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-hold-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to hold units of products, all or nothing
+     *
+     * @param requiredProducts products and quantities to hold
+     * @param ttlMillis        time after which the hold is released unless confirmed, at most {@link #MAX_TTL_MILLIS}
+     * @return id of the hold, or {@link #NO_HOLD} if a product is unknown or short
+     */
+    public long create(List<RequiredProduct> requiredProducts, long ttlMillis) {
+        if (ttlMillis <= 0 || ttlMillis > MAX_TTL_MILLIS) {
+            throw new IllegalArgumentException("Hold time to live must be between 1 and " + MAX_TTL_MILLIS
+                    + " ms: " + ttlMillis);
+        }
+        if (!store.hold(requiredProducts)) {
+            return NO_HOLD;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        // a deadline that has already passed goes to the next tick; a hold the wheel still misses is
+        // released a rotation later, and confirm checks the deadline itself
+        long deadlineTick = Math.max(currentTick + 1, ceilTick(deadline));
+        Hold hold = new Hold(ids.incrementAndGet(), requiredProducts, deadline, deadlineTick);
+        active.put(hold.id, hold);
+        wheel[(int) (deadlineTick & mask)].add(hold);
+        return hold.id;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to turn a hold into a placed order
+     *
+     * @param holdId id returned by {@link #create(List, long)}
+     * @return true if the hold was active and is now an order, false if it was unknown, released or expired
+     */
+    public boolean confirm(long holdId) {
+        Hold hold = active.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        if (System.nanoTime() - hold.deadline > 0) {
+            // expired but not yet reached by the wheel
+            store.release(hold.lines);
+            return false;
+        }
+        return store.confirm(hold.lines);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to give the units of a hold back to the available stock
+     *
+     * @param holdId id returned by {@link #create(List, long)}
+     * @return true if the hold was active, false if it was unknown, confirmed or expired
+     */
+    public boolean release(long holdId) {
+        Hold hold = active.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        store.release(hold.lines);
+        return true;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to count the holds that are neither confirmed, released nor expired
+     *
+     * @return number of active holds
+     */
+    public int activeHolds() {
+        return active.size();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private long ceilTick(long nanos) {
+        return (nanos - startNanos + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * Moves the wheel to the current tick, visiting every bucket passed since the last run.
+     */
+    private void advance() {
+        long now = (System.nanoTime() - startNanos) / tickNanos;
+        for (long tick = currentTick + 1; tick <= now; tick++) {
+            currentTick = tick;
+            expire(tick);
+        }
+    }
+
+    private void expire(long tick) {
+        Iterator<Hold> bucket = wheel[(int) (tick & mask)].iterator();
+        while (bucket.hasNext()) {
+            Hold hold = bucket.next();
+            if (active.get(hold.id) != hold) {
+                bucket.remove();
+            } else if (hold.deadlineTick <= tick) {
+                bucket.remove();
+                if (active.remove(hold.id, hold)) {
+                    store.release(hold.lines);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lines of a hold and the tick of the wheel that releases it.
+     */
+    private static class Hold {
+        private final long id;
+        private final List<RequiredProduct> lines;
+        private final long deadline;
+        private final long deadlineTick;
+
+        Hold(long id, List<RequiredProduct> lines, long deadline, long deadlineTick) {
+            this.id = id;
+            this.lines = lines;
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.inventorymanagement.store;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+
+/**
+ * Dense ids ordered by stock, kept up to date as stock changes so that threshold, range and top-N
+ * queries cost O(log n) plus the ids they return instead of a sort of the whole catalog. Each id is
+ * one {@code long} key in a concurrent skip list, its stock in the high 32 bits and the id in the
+ * low 32 bits, so keys order by stock and then by id. The stock each id was last indexed with is
+ * kept beside it, so a change only needs the new stock to move the key.
+ * <p>
+ * Changes of one id must be serialized by the caller, which the store does with the id's stripe
+ * or the sequencer's writer thread. A concurrent query can miss an id that is moving. It would meet
+ * an id twice when the id moves from a stock the query has passed to one it has not reached yet, so
+ * queries skip ids they have already visited.
+ */
+final class StockIndex {
+    private final NavigableSet<Long> keys = new ConcurrentSkipListSet<>();
+    // replaced under the catalog write lock, like the store's own arrays
+    private AtomicIntegerArray indexed;
+
+    StockIndex(int capacity) {
+        this.indexed = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * Indexes a new id, which has no stock yet.
+     */
+    void add(int id) {
+        if (id == indexed.length()) {
+            indexed = InventoryStore.grow(indexed, indexed.length() * 2);
+        }
+        keys.add(key(0, id));
+    }
+
+    void update(int id, int stock) {
+        int previous = indexed.getAndSet(id, stock);
+        if (previous != stock) {
+            keys.remove(key(previous, id));
+            keys.add(key(stock, id));
+        }
+    }
+
+    /**
+     * Visits ids with stock between min and max inclusive, by ascending stock, until the visitor
+     * returns false. Each id is visited at most once.
+     */
+    void range(int min, int max, IntPredicate visitor) {
+        if (min > max) {
+            return;
+        }
+        visit(keys.subSet(key(min, 0), true, key(max, -1), true).iterator(), visitor);
+    }
+
+    /**
+     * Visits ids by ascending or descending stock until the visitor returns false. Each id is
+     * visited at most once.
+     */
+    void ordered(boolean ascending, IntPredicate visitor) {
+        visit(ascending ? keys.iterator() : keys.descendingIterator(), visitor);
+    }
+
+    private static void visit(Iterator<Long> iterator, IntPredicate visitor) {
+        BitSet visited = new BitSet();
+        while (iterator.hasNext()) {
+            int id = (int) iterator.next().longValue();
+            if (!visited.get(id)) {
+                visited.set(id);
+                if (!visitor.test(id)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static long key(int stock, int id) {
+        return ((long) stock << 32) | (id & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.inventorymanagement.benchmark;
+
+import com.example.inventorymanagement.journal.InventoryPersistence;
+import com.example.inventorymanagement.model.AddArticleRequest;
+import com.example.inventorymanagement.store.InventoryStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Compares serving blocking inventory requests on a fixed platform-thread pool, sized like
+ * Tomcat's default, with one virtual thread per request. Every request restocks an article and
+ * waits for its journal entry to be synced, which is the blocking part of a real request.
+ * <p>
+ * Run with {@code java -cp target/classes:target/test-classes:<dependencies> RequestThreadBenchmark
+ * [requests] [platformThreads]}. Virtual threads need JDK 21; on older JDKs only the platform pool
+ * is measured.
+ */
+public class RequestThreadBenchmark {
+    private static final String ARTICLES = "src/main/resources/articles.json";
+    private static final String PRODUCTS = "src/main/resources/products.json";
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int platformThreads = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        run("platform pool of " + platformThreads, Executors.newFixedThreadPool(platformThreads), requests);
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        if (virtual == null) {
+            System.out.println("virtual threads: not available on Java " + Runtime.version().feature());
+            return;
+        }
+        run("virtual thread per request", virtual, requests);
+    }
+
+    private static void run(String mode, ExecutorService executor, int requests) throws Exception {
+        Path directory = Files.createTempDirectory("request-thread-benchmark");
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory,
+                () -> InventoryStore.load(ARTICLES, PRODUCTS), 3600)) {
+            InventoryStore store = persistence.getStore();
+            AddArticleRequest restock = new AddArticleRequest();
+            restock.setName("screw");
+            restock.setStock(1);
+            long start = System.nanoTime();
+            List<Future<?>> inFlight = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                inFlight.add(executor.submit(() -> store.restockArticle(restock)));
+            }
+            for (Future<?> request : inFlight) {
+                request.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %d requests in %.2f s, %.0f requests/s%n", mode, requests, seconds,
+                    requests / seconds);
+        } finally {
+            executor.shutdown();
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Looked up reflectively so the benchmark still compiles for Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.store.InventoryStore;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class CatalogResponseCacheFilterTest {
+    @InjectMocks
+    private CatalogResponseCacheFilter catalogResponseCacheFilter;
+    @Mock
+    private InventoryStore inventoryStore;
+
+    private final AtomicInteger serialized = new AtomicInteger();
+    private final HttpServlet controller = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setContentType("application/json");
+            response.getWriter().write("{\"Dining Chair\":" + serialized.incrementAndGet() + "}");
+        }
+    };
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an unchanged inventory is served from the cached bytes
+     */
+    @Test
+    void testServesCachedBodyForSameVersion() throws ServletException, IOException {
+        when(inventoryStore.version()).thenReturn(3L);
+        MockHttpServletResponse first = get("/ikea/get-all-products", null);
+        MockHttpServletResponse second = get("/ikea/get-all-products", null);
+        assertEquals(1, serialized.get());
+        assertEquals("{\"Dining Chair\":1}", second.getContentAsString());
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a matching If-None-Match is answered with 304
+     */
+    @Test
+    void testNotModifiedForMatchingEtag() throws ServletException, IOException {
+        when(inventoryStore.version()).thenReturn(3L);
+        String etag = get("/ikea/import-articles", null).getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse response = get("/ikea/import-articles", etag);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, serialized.get());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a new inventory version is serialized again
+     */
+    @Test
+    void testReserializesAfterChange() throws ServletException, IOException {
+        when(inventoryStore.version()).thenReturn(3L);
+        String etag = get("/ikea/get-all-products", null).getHeader(HttpHeaders.ETAG);
+        when(inventoryStore.version()).thenReturn(4L);
+        MockHttpServletResponse response = get("/ikea/get-all-products", etag);
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals("{\"Dining Chair\":2}", response.getContentAsString());
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that other endpoints are not cached
+     */
+    @Test
+    void testIgnoresOtherPaths() throws ServletException, IOException {
+        when(inventoryStore.version()).thenReturn(3L);
+        get("/ikea/get-assemblable-products", null);
+        MockHttpServletResponse response = get("/ikea/get-assemblable-products", null);
+        assertEquals(2, serialized.get());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        catalogResponseCacheFilter.doFilter(request, response, new MockFilterChain(controller));
+        return response;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.inventorymanagement.controller;
+
+import com.example.inventorymanagement.exception.SubscriberLimitException;
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.StockChange;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.StockFeed;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockChangeBroadcasterTest {
+
+    /**
+     * <B>Description :</B> Invoked to test that changes behind a subscriber are merged to one per record
+     */
+    @Test
+    void testReadMergedKeepsLastChangePerRecord() {
+        InventoryStore store = new InventoryStore(Collections.singletonList(new Article("1", "leg", 10)),
+                Arrays.asList(new Product("Stool", Collections.singletonList(new ContainArticle("1", 3)), 10, 5),
+                        new Product("Chair", Collections.singletonList(new ContainArticle("1", 4)), 20, 5)));
+        StockFeed feed = new StockFeed(64);
+        store.attachFeed(feed);
+        for (int i = 0; i < 3; i++) {
+            store.placeOrder(Collections.singletonList(new RequiredProduct("Stool", 1)));
+        }
+        store.placeOrder(Collections.singletonList(new RequiredProduct("Chair", 2)));
+        store.placeOrder(Collections.singletonList(new RequiredProduct("Stool", 1)));
+
+        List<StockChange> changes = new ArrayList<>();
+        assertEquals(5, StockChangeBroadcaster.readMerged(feed, 0, changes));
+        assertEquals(2, changes.size());
+        assertEquals("Chair", changes.get(0).getId());
+        assertEquals(3, changes.get(0).getStock());
+        assertEquals("Stool", changes.get(1).getId());
+        assertEquals(1, changes.get(1).getStock());
+        assertEquals(-4, changes.get(1).getDelta());
+        assertEquals(4, changes.get(1).getSequence());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that subscribers beyond the configured limit are refused
+     */
+    @Test
+    void testSubscribersBeyondLimitAreRefused() {
+        InventoryStore store = new InventoryStore(Collections.singletonList(new Article("1", "leg", 10)),
+                Collections.singletonList(new Product("Stool", Collections.singletonList(new ContainArticle("1", 3)), 10, 5)));
+        StockFeed feed = new StockFeed(64);
+        store.attachFeed(feed);
+        try (StockChangeBroadcaster broadcaster = new StockChangeBroadcaster(store, feed, 100, 1, 2)) {
+            assertNotNull(broadcaster.subscribe(null));
+            assertNotNull(broadcaster.subscribe(null));
+            assertThrows(SubscriberLimitException.class, () -> broadcaster.subscribe(null));
+            assertEquals(2, broadcaster.subscriberCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StockChangeBroadcaster(store, feed, 100, 0, 2));
+    }
+}
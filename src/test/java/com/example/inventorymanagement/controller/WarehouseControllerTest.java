@@ -1,7 +1,11 @@
 package com.example.inventorymanagement.controller;
 
+import com.example.inventorymanagement.exception.BulkUploadException;
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
 import com.example.inventorymanagement.exception.ImportArticlesException;
 import com.example.inventorymanagement.exception.ImportProductsException;
+import com.example.inventorymanagement.exception.InvalidHoldException;
+import com.example.inventorymanagement.exception.PlanAllocationException;
 import com.example.inventorymanagement.exception.ProcessOrderException;
 import com.example.inventorymanagement.exception.RetrieveProductsException;
 import com.example.inventorymanagement.model.*;
@@ -13,8 +17,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -78,6 +86,30 @@ class WarehouseControllerTest {
         verify(warehouseService, times(1)).importProducts();
     }
 
+    /**
+     * <B>Description :</B> Invoked to test streaming import of articles
+     */
+    @Test
+    void testStreamImportArticles() throws ImportArticlesException {
+        InputStream catalog = new ByteArrayInputStream(new byte[0]);
+        ImportReport report = new ImportReport();
+        report.accept();
+        when(warehouseService.importArticles(catalog)).thenReturn(report);
+        assertEquals(1, warehouseController.importArticles(catalog).getAccepted());
+        verify(warehouseService, times(1)).importArticles(catalog);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming import of products throws Exception
+     */
+    @Test
+    void testStreamImportProductsException() throws ImportProductsException {
+        InputStream catalog = new ByteArrayInputStream(new byte[0]);
+        when(warehouseService.importProducts(catalog)).thenThrow(new ImportProductsException("Error importing products"));
+        assertThrows(ImportProductsException.class, () -> warehouseController.importProducts(catalog));
+        verify(warehouseService, times(1)).importProducts(catalog);
+    }
+
     /**
      * <B>Description :</B> Invoked to test adding an article
      */
@@ -154,6 +186,44 @@ class WarehouseControllerTest {
         verify(warehouseService, times(1)).retrieveAllProducts();
     }
 
+    /**
+     * <B>Description :</B> Invoked to test retrieving assemblable products
+     */
+    @Test
+    void testRetrieveAssemblableProducts() throws RetrieveProductsException {
+        Map<String, Integer> assemblable = new HashMap<>();
+        assemblable.put("Dining Chair", 2);
+        when(warehouseService.retrieveAssemblableProducts()).thenReturn(assemblable);
+        Map<String, Integer> result = warehouseController.retrieveAssemblableProducts();
+        assertEquals(2, result.get("Dining Chair"));
+        verify(warehouseService, times(1)).retrieveAssemblableProducts();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test listing a page of articles
+     */
+    @Test
+    void testListArticles() throws ImportArticlesException {
+        CatalogPage<Article> page = new CatalogPage<>(Arrays.asList(new Article(), new Article()), "2");
+        when(warehouseService.listArticles(null, 2)).thenReturn(page);
+        CatalogPage<Article> result = warehouseController.listArticles(null, 2);
+        assertEquals(2, result.getItems().size());
+        assertEquals("2", result.getNextCursor());
+        verify(warehouseService, times(1)).listArticles(null, 2);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming products as newline-delimited JSON
+     */
+    @Test
+    void testStreamProducts() throws IOException {
+        ResponseEntity<StreamingResponseBody> result = warehouseController.streamProducts();
+        assertEquals("application/x-ndjson", result.getHeaders().getContentType().toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.getBody().writeTo(out);
+        verify(warehouseService, times(1)).streamProducts(out);
+    }
+
     /**
      * <B>Description :</B> Invoked to test processing order successfully
      */
@@ -161,7 +231,7 @@ class WarehouseControllerTest {
     void testProcessOrderSuccess() throws ProcessOrderException {
         BuyProductRequest request = new BuyProductRequest();
         when(warehouseService.processOrder(request)).thenReturn(true);
-        ResponseEntity<String> result = warehouseController.processOrder(request);
+        ResponseEntity<String> result = warehouseController.processOrder(request, null);
         assertEquals("Order successful :)", result.getBody());
         assertEquals(HttpStatus.OK, result.getStatusCode());
         verify(warehouseService, times(1)).processOrder(request);
@@ -174,12 +244,27 @@ class WarehouseControllerTest {
     void testProcessOrderFailure() throws ProcessOrderException {
         BuyProductRequest request = new BuyProductRequest();
         when(warehouseService.processOrder(request)).thenReturn(false);
-        ResponseEntity<String> result = warehouseController.processOrder(request);
+        ResponseEntity<String> result = warehouseController.processOrder(request, null);
         assertEquals("Item Out of Stock :(", result.getBody());
         assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
         verify(warehouseService, times(1)).processOrder(request);
     }
 
+    /**
+     * <B>Description :</B> Invoked to test processing a batch of orders
+     */
+    @Test
+    void testProcessOrdersBatch() throws ProcessOrderException {
+        List<BuyProductRequest> requests = Arrays.asList(new BuyProductRequest(), new BuyProductRequest());
+        when(warehouseService.processOrders(requests)).thenReturn(Arrays.asList(true, false));
+        List<OrderResult> results = warehouseController.processOrders(requests);
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Order successful :)", results.get(0).getMessage());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Item Out of Stock :(", results.get(1).getMessage());
+        verify(warehouseService, times(1)).processOrders(requests);
+    }
+
     /**
      * <B>Description :</B> Invoked to test process order throws Exception
      */
@@ -187,7 +272,114 @@ class WarehouseControllerTest {
     void testProcessOrderException() throws ProcessOrderException {
         BuyProductRequest request = new BuyProductRequest();
         when(warehouseService.processOrder(request)).thenThrow(new ProcessOrderException("Error processing order"));
-        assertThrows(ProcessOrderException.class, () -> warehouseController.processOrder(request));
+        assertThrows(ProcessOrderException.class, () -> warehouseController.processOrder(request, null));
         verify(warehouseService, times(1)).processOrder(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * <B>Description :</B> Invoked to test holding products
+     */
+    @Test
+    void testCreateHold() throws ProcessOrderException {
+        HoldRequest request = new HoldRequest();
+        when(warehouseService.createHold(request)).thenReturn(7L);
+        ResponseEntity<HoldResult> result = warehouseController.createHold(request);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(7L, result.getBody().getHoldId());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an invalid hold is answered with a bad request
+     */
+    @Test
+    void testCreateInvalidHold() throws ProcessOrderException {
+        HoldRequest request = new HoldRequest();
+        when(warehouseService.createHold(request)).thenThrow(new InvalidHoldException("Hold time to live must be between 1 and 86400 seconds: 0"));
+        ResponseEntity<HoldResult> result = warehouseController.createHold(request);
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Hold time to live must be between 1 and 86400 seconds: 0", result.getBody().getMessage());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test holding products that are out of stock
+     */
+    @Test
+    void testCreateHoldOutOfStock() throws ProcessOrderException {
+        HoldRequest request = new HoldRequest();
+        when(warehouseService.createHold(request)).thenReturn(-1L);
+        ResponseEntity<HoldResult> result = warehouseController.createHold(request);
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Item Out of Stock :(", result.getBody().getMessage());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test confirming an expired hold
+     */
+    @Test
+    void testConfirmExpiredHold() throws ProcessOrderException {
+        when(warehouseService.confirmHold(7L)).thenReturn(false);
+        ResponseEntity<String> result = warehouseController.confirmHold(7L);
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+        verify(warehouseService, times(1)).confirmHold(7L);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an order with an idempotency key is passed on with its key
+     */
+    @Test
+    void testProcessOrderWithIdempotencyKey() throws ProcessOrderException {
+        BuyProductRequest request = new BuyProductRequest();
+        when(warehouseService.processOrder(request, "order-1")).thenReturn(true);
+        ResponseEntity<String> result = warehouseController.processOrder(request, "order-1");
+        assertEquals("Order successful :)", result.getBody());
+        verify(warehouseService, never()).processOrder(request);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an idempotency key reused for another order is rejected
+     */
+    @Test
+    void testProcessOrderWithReusedIdempotencyKey() throws ProcessOrderException {
+        BuyProductRequest request = new BuyProductRequest();
+        when(warehouseService.processOrder(request, "order-1"))
+                .thenThrow(new IdempotencyKeyMismatchException("Idempotency key order-1 was used for a different request"));
+        ResponseEntity<String> result = warehouseController.processOrder(request, "order-1");
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, warehouseController.processOrder(request, "").getStatusCode());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a low stock query asks for stock below the threshold
+     */
+    @Test
+    void testFindLowStockArticles() throws ImportArticlesException {
+        List<Article> articles = Arrays.asList(new Article("4", "table top", 1));
+        when(warehouseService.findArticlesByStock(Integer.MIN_VALUE, 4, 50)).thenReturn(articles);
+        assertEquals(articles, warehouseController.findLowStockArticles(5, 50));
+        verify(warehouseService, times(1)).findArticlesByStock(Integer.MIN_VALUE, 4, 50);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a bulk upload is handed to the service
+     */
+    @Test
+    void testBulkUpload() throws BulkUploadException {
+        InputStream catalog = new ByteArrayInputStream(new byte[0]);
+        BulkUploadReport report = new BulkUploadReport(new ImportReport(), new ImportReport());
+        when(warehouseService.bulkUpload(catalog)).thenReturn(report);
+        assertSame(report, warehouseController.bulkUpload(catalog));
+        verify(warehouseService, times(1)).bulkUpload(catalog);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an allocation plan is requested from the service
+     */
+    @Test
+    void testPlanAllocation() throws PlanAllocationException {
+        BuyProductRequest request = new BuyProductRequest();
+        AllocationPlan plan = new AllocationPlan(new HashMap<>(), 0, 0, 0);
+        when(warehouseService.planAllocation(request)).thenReturn(plan);
+        assertSame(plan, warehouseController.planAllocation(request));
+        verify(warehouseService, times(1)).planAllocation(request);
+    }
+}
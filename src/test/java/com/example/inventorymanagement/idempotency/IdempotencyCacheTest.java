@@ -0,0 +1,108 @@
+package com.example.inventorymanagement.idempotency;
+
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    /**
+     * <B>Description :</B> Invoked to test that a replayed key returns the first outcome without executing again
+     */
+    @Test
+    void testReplayReturnsFirstOutcome() {
+        IdempotencyCache<Boolean> cache = new IdempotencyCache<>(16, 60_000);
+        AtomicInteger executions = new AtomicInteger();
+        assertTrue(cache.execute("a", 1, () -> executions.incrementAndGet() == 1, e -> false));
+        assertTrue(cache.execute("a", 1, () -> executions.incrementAndGet() == 1, e -> false));
+        assertEquals(1, executions.get());
+        assertThrows(IdempotencyKeyMismatchException.class, () -> cache.execute("a", 2, () -> true, e -> false));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that concurrent requests with one key wait for a single execution
+     */
+    @Test
+    void testConcurrentDuplicatesAreCoalesced() throws Exception {
+        IdempotencyCache<Boolean> cache = new IdempotencyCache<>(16, 60_000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> outcomes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                outcomes.add(executor.submit(() -> cache.execute("a", 1, () -> {
+                    executions.incrementAndGet();
+                    try {
+                        return release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, e -> false)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Boolean> outcome : outcomes) {
+                assertTrue(outcome.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a failure without effect is forgotten and any other failure is replayed
+     */
+    @Test
+    void testOnlyFailuresWithoutEffectAreForgotten() {
+        IdempotencyCache<Boolean> cache = new IdempotencyCache<>(16, 60_000);
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("a", 1, () -> {
+            throw new IllegalArgumentException("invalid order");
+        }, IllegalArgumentException.class::isInstance));
+        assertEquals(0, cache.size());
+        assertTrue(cache.execute("a", 1, () -> true, IllegalArgumentException.class::isInstance));
+
+        AtomicInteger executions = new AtomicInteger();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThrows(IllegalStateException.class, () -> cache.execute("b", 1, () -> {
+                executions.incrementAndGet();
+                throw new IllegalStateException("journal failed after the order was applied");
+            }, IllegalArgumentException.class::isInstance));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that the oldest keys are evicted beyond the capacity and after their time to live
+     */
+    @Test
+    void testKeysAreBounded() throws InterruptedException {
+        IdempotencyCache<Integer> cache = new IdempotencyCache<>(1_000, 60_000);
+        for (int i = 0; i < 100_000; i++) {
+            int value = i;
+            cache.execute("key-" + i, 1, () -> value, e -> false);
+        }
+        assertEquals(1_000, cache.size());
+        assertEquals(99_999, cache.execute("key-99999", 1, () -> -1, e -> false));
+        assertEquals(-1, cache.execute("key-0", 1, () -> -1, e -> false));
+
+        IdempotencyCache<Integer> expiring = new IdempotencyCache<>(1_000, 20);
+        expiring.execute("a", 1, () -> 1, e -> false);
+        Thread.sleep(40);
+        assertEquals(2, expiring.execute("a", 1, () -> 2, e -> false));
+        expiring.execute("b", 1, () -> 1, e -> false);
+        assertEquals(2, expiring.size());
+    }
+}
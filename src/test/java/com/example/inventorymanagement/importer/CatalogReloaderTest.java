@@ -0,0 +1,127 @@
+package com.example.inventorymanagement.importer;
+
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogReloaderTest {
+    private static final String ARTICLES = "{\"articles\": [{\"art_id\": \"1\", \"name\": \"leg\", \"stock\": 12},"
+            + "{\"art_id\": \"2\", \"name\": \"screw\", \"stock\": 17}]}";
+    private static final String PRODUCTS = "{\"products\": [{\"name\": \"Stool\", \"price\": 10, \"stock\": 2,"
+            + "\"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": 3}]}]}";
+
+    @TempDir
+    Path directory;
+
+    private Path articlesPath;
+    private Path productsPath;
+    private InventoryStore store;
+    private CatalogReloader reloader;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        articlesPath = write("articles.json", ARTICLES);
+        productsPath = write("products.json", PRODUCTS);
+        store = InventoryStore.load(articlesPath.toString(), productsPath.toString());
+        // the watcher only reloads after a minute of quiet, so the tests below reload explicitly
+        reloader = CatalogReloader.start(store, articlesPath, productsPath, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        reloader.close();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that only changed records are applied and unchanged ones keep their live stock
+     */
+    @Test
+    void testReloadAppliesOnlyChangedRecords() throws IOException {
+        assertTrue(store.placeOrder(Collections.singletonList(new RequiredProduct("Stool", 1))));
+        write("articles.json", ARTICLES.replace("\"stock\": 17", "\"stock\": 40"));
+        write("products.json", PRODUCTS);
+        assertEquals(1, reloader.reload(true, true));
+        assertEquals(12, store.getArticles().get(0).getStock());
+        assertEquals(40, store.getArticles().get(1).getStock());
+        assertEquals(1, store.getProductStock().get("Stool"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that new articles and the products using them are applied together
+     */
+    @Test
+    void testReloadAddsArticlesAndProducts() throws IOException {
+        write("articles.json", ARTICLES.replace("]}", ", {\"art_id\": \"3\", \"name\": \"seat\", \"stock\": 5}]}"));
+        write("products.json", PRODUCTS.replace("]}]}", "]}, {\"name\": \"Chair\", \"price\": 20, \"stock\": 0,"
+                + "\"contain_articles\": [{\"art_id\": \"3\", \"amount_of\": 1}]}]}"));
+        long version = store.version();
+        assertEquals(2, reloader.reload(true, true));
+        assertEquals(5, store.getArticles().get(2).getStock());
+        assertEquals(5, store.getBuildableStock().get("Chair"));
+        assertEquals(version + 2, store.version());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a malformed file is not applied and is diffed against the last good version
+     */
+    @Test
+    void testMalformedFileKeepsPreviousVersion() throws IOException {
+        write("articles.json", "{\"articles\": [{\"art_id\": \"1\", ");
+        assertThrows(IOException.class, () -> reloader.reload(true, false));
+        assertEquals(12, store.getArticles().get(0).getStock());
+        write("articles.json", ARTICLES.replace("\"stock\": 12", "\"stock\": 6"));
+        assertEquals(1, reloader.reload(true, false));
+        assertEquals(6, store.getArticles().get(0).getStock());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a file replaced on disk is picked up by the watcher
+     */
+    @Test
+    void testWatcherReloadsReplacedFile() throws Exception {
+        reloader.close();
+        reloader = CatalogReloader.start(store, articlesPath, productsPath, 50);
+        Path staged = write("articles.json.tmp", ARTICLES.replace("\"stock\": 17", "\"stock\": 99"));
+        Files.move(staged, articlesPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (store.getArticles().get(1).getStock() != 99 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(99, store.getArticles().get(1).getStock());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a product whose only change is its sub-assemblies is reloaded
+     */
+    @Test
+    void testReloadAppliesChangedSubAssemblies() throws IOException {
+        String withBench = PRODUCTS.replace("]}]}", "]}, {\"name\": \"Bench\", \"price\": 30, \"stock\": 0,"
+                + "\"contain_articles\": [{\"art_id\": \"2\", \"amount_of\": 1}],"
+                + "\"contain_products\": [{\"name\": \"Stool\", \"amount_of\": 1}]}]}");
+        write("products.json", withBench);
+        assertEquals(1, reloader.reload(false, true));
+        assertEquals(4, store.getBuildableStock().get("Bench"));
+
+        write("products.json", withBench.replace("\"name\": \"Stool\", \"amount_of\": 1", "\"name\": \"Stool\", \"amount_of\": 2"));
+        assertEquals(1, reloader.reload(false, true));
+        assertEquals(2, store.getBuildableStock().get("Bench"));
+        assertEquals(2, store.getProducts().stream().filter(product -> product.getName().equals("Bench"))
+                .findFirst().orElseThrow().getContain_products().get(0).getAmount_of());
+    }
+}
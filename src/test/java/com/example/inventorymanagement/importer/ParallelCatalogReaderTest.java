@@ -0,0 +1,75 @@
+package com.example.inventorymanagement.importer;
+
+import com.example.inventorymanagement.model.Article;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCatalogReaderTest {
+    private final ParallelCatalogReader reader = new ParallelCatalogReader(ForkJoinPool.commonPool(), 4, 1 << 20);
+
+    /**
+     * <B>Description :</B> Invoked to test that records are found past brackets and escapes inside strings
+     */
+    @Test
+    void testScanIgnoresStrings() throws IOException {
+        String document = "{\"note\": \"[{,}]\", \"articles\": [ {\"art_id\": \"1\", \"name\": \"a]\\\"}\", \"stock\": 1} ,"
+                + "{\"art_id\": \"2\", \"name\": \"b\", \"stock\": 2}], \"other\": {\"products\": [1]},"
+                + "\"products\": []}";
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        ParallelCatalogReader.Spans[] spans = ParallelCatalogReader.scan(bytes);
+        assertEquals(2, spans[0].size());
+        assertEquals(0, spans[1].size());
+
+        ParallelCatalogReader.Catalog catalog = reader.read(bytes);
+        assertEquals("a]\"}", catalog.getArticles().get(0).getName());
+        assertEquals(2, catalog.getArticles().get(1).getStock());
+        assertEquals(2, catalog.getArticleReport().getAccepted());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a malformed record is rejected on its own and order is kept across chunks
+     */
+    @Test
+    void testRecordsKeepDocumentOrder() throws IOException {
+        StringBuilder document = new StringBuilder("{\"articles\": [");
+        for (int i = 0; i < 50; i++) {
+            document.append(i == 0 ? "" : ",");
+            document.append(i == 17 ? "{\"art_id\": \"17\", \"stock\" 3}"
+                    : "{\"art_id\": \"" + i + "\", \"name\": \"part\", \"stock\": " + i + "}");
+        }
+        document.append("], \"products\": [{\"name\": \"Stool\", \"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": 2}]},"
+                + "{\"name\": \"Empty\", \"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": 0}]}]}");
+        ParallelCatalogReader.Catalog catalog = reader.read(new ByteArrayInputStream(
+                document.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(49, catalog.getArticles().size());
+        for (int i = 0; i < 49; i++) {
+            Article article = catalog.getArticles().get(i);
+            assertEquals(String.valueOf(i < 17 ? i : i + 1), article.getArt_id());
+        }
+        assertEquals(1, catalog.getArticleReport().getRejected());
+        assertEquals(17, catalog.getArticleReport().getErrors().get(0).getIndex());
+        assertTrue(catalog.getArticleReport().getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(1, catalog.getProducts().size());
+        assertEquals(1, catalog.getProductReport().getRejected());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a document with a broken structure or over the size limit is rejected as a whole
+     */
+    @Test
+    void testMalformedDocument() {
+        for (String document : new String[]{"", "[]", "{\"articles\": [{}", "{\"articles\": [{},]}",
+                "{\"articles\": [,{}]}", "{\"articles\": [\"}]}", "{} {}", "{\"articles\": [}"}) {
+            assertThrows(IOException.class, () -> reader.read(document.getBytes(StandardCharsets.UTF_8)), document);
+        }
+        ParallelCatalogReader small = new ParallelCatalogReader(ForkJoinPool.commonPool(), 4, 8);
+        assertThrows(IOException.class, () -> small.read(new ByteArrayInputStream(
+                "{\"articles\": []}".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.inventorymanagement.journal;
+
+import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryPersistenceTest {
+    private static final String ARTICLES = "src/main/resources/articles.json";
+    private static final String PRODUCTS = "src/main/resources/products.json";
+    private static final Callable<InventoryStore> CATALOG = () -> InventoryStore.load(ARTICLES, PRODUCTS);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <B>Description :</B> Invoked to test that journaled changes survive a restart
+     */
+    @Test
+    void testRecoverReplaysJournal() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            assertTrue(store.placeOrder(Collections.singletonList(new RequiredProduct("Dining Chair", 1))));
+            store.restockArticle(addArticleRequest("plastic", 7));
+            assertTrue(store.assembleProduct(addProductRequest("Stool", 2, "1", 3)));
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            assertEquals(0, store.getProductStock().get("Dining Chair"));
+            assertEquals(2, store.getProductStock().get("Stool"));
+            assertEquals(6, store.getArticles().get(0).getStock());
+            assertEquals("plastic", store.getArticles().get(4).getName());
+            assertEquals(7, store.getArticles().get(4).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a cancelled order returns its stock after a restart
+     */
+    @Test
+    void testCancelledOrderIsReplayed() throws IOException {
+        List<RequiredProduct> order = Collections.singletonList(new RequiredProduct("Dining Chair", 1));
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertTrue(persistence.getStore().placeOrder(order));
+            persistence.getStore().cancelOrder(order);
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertEquals(1, persistence.getStore().getProductStock().get("Dining Chair"));
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that allocated article ids stay unique across restarts
+     */
+    @Test
+    void testAllocatedArticleIdsSurviveRestart() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            persistence.getStore().restockArticle(addArticleRequest("plastic", 7));
+            persistence.compact();
+            persistence.getStore().restockArticle(addArticleRequest("glue", 1));
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            List<Article> articles = persistence.getStore().restockArticle(addArticleRequest("nail", 3));
+            assertEquals("5", articles.get(4).getArt_id());
+            assertEquals("6", articles.get(5).getArt_id());
+            assertEquals("7", articles.get(6).getArt_id());
+            assertEquals("glue", articles.get(5).getName());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that compaction replaces covered segments by a snapshot
+     */
+    @Test
+    void testCompactWritesSnapshot() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            persistence.getStore().restockArticle(addArticleRequest("leg", 8));
+            persistence.compact();
+            persistence.getStore().restockArticle(addArticleRequest("leg", 1));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("snapshot-")).count());
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertEquals(21, persistence.getStore().getArticles().get(0).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a torn last frame is ignored on recovery
+     */
+    @Test
+    void testRecoverIgnoresTornTail() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            persistence.getStore().restockArticle(addArticleRequest("leg", 8));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        // an empty segment, as left by a start that wrote nothing, does not make the torn one an earlier segment
+        Files.createFile(directory.resolve(String.format("journal-%016d.log", 2)));
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertEquals(20, persistence.getStore().getArticles().get(0).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a corrupt frame in a segment followed by later segments fails recovery
+     */
+    @Test
+    void testRecoverFailsOnCorruptEarlierSegment() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            persistence.getStore().restockArticle(addArticleRequest("leg", 8));
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            persistence.getStore().restockArticle(addArticleRequest("leg", 1));
+        }
+        Path first;
+        try (Stream<Path> files = Files.list(directory)) {
+            first = files.filter(path -> path.getFileName().toString().startsWith("journal-")).sorted().findFirst()
+                    .orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(first, bytes);
+        long size = Files.size(first);
+        assertThrows(IOException.class, () -> InventoryPersistence.recover(directory, CATALOG, 3600));
+        assertEquals(size, Files.size(first));
+        assertThrows(IOException.class, () -> InventoryPersistence.recover(directory, CATALOG, 3600));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a failed journal write stops the journal and the store instead of leaving a gap
+     */
+    @Test
+    void testWriteFailureIsFinal() throws IOException {
+        InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600);
+        InventoryStore store = persistence.getStore();
+        store.restockArticle(addArticleRequest("leg", 8));
+        StockJournal journal = (StockJournal) ReflectionTestUtils.getField(persistence, "journal");
+        ((FileChannel) ReflectionTestUtils.getField(journal, "channel")).close();
+
+        assertThrows(UncheckedIOException.class, () -> store.restockArticle(addArticleRequest("leg", 1)));
+        int stock = store.getArticles().get(0).getStock();
+        assertThrows(UncheckedIOException.class, () -> store.restockArticle(addArticleRequest("leg", 1)));
+        assertEquals(stock, store.getArticles().get(0).getStock());
+        assertThrows(UncheckedIOException.class, () -> journal.append(JournalEntry.articleRestocked("1", "leg", 1)));
+        assertThrows(IOException.class, () -> journal.awaitDurable(1));
+        assertThrows(UncheckedIOException.class, persistence::compact);
+        assertThrows(IOException.class, persistence::close);
+
+        try (InventoryPersistence recovered = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertEquals(20, recovered.getStore().getArticles().get(0).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that concurrent restocks are all durable after group commit
+     */
+    @Test
+    void testConcurrentAppendsAreDurable() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> persistence.getStore().restockArticle(addArticleRequest("screw", 1))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            assertEquals(217, persistence.getStore().getArticles().get(1).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that changes applied by the sequencer are journaled and compacted
+     */
+    @Test
+    void testSequencerChangesAreJournaled() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            store.startSequencer(16);
+            try {
+                store.restockArticle(addArticleRequest("leg", 8));
+                persistence.compact();
+                assertTrue(store.placeOrder(Collections.singletonList(new RequiredProduct("Dining Table", 1))));
+                assertTrue(store.assembleProduct(addProductRequest("Stool", 2, "1", 3)));
+            } finally {
+                store.stopSequencer();
+            }
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            assertEquals(14, store.getArticles().get(0).getStock());
+            assertEquals(0, store.getProductStock().get("Dining Table"));
+            assertEquals(2, store.getProductStock().get("Stool"));
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that sub-assemblies survive a snapshot and are exploded again on replay
+     */
+    @Test
+    void testSubAssembliesSurviveRestart() throws IOException {
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            store.upsertProducts(List.of(new Product("Drawer", List.of(new ContainArticle("1", 1), new ContainArticle("2", 2)), 15, 0),
+                    new Product("Cabinet", null, List.of(new ContainProduct("Drawer", 2)), 80, 0)));
+            AddProductRequest cabinet = addProductRequest("Cabinet", 1, "3", 0);
+            cabinet.setProductQuantities(List.of(new ContainProduct("Drawer", 2)));
+            assertTrue(store.assembleProduct(cabinet));
+            persistence.compact();
+            store.upsertProducts(List.of(new Product("Drawer", List.of(new ContainArticle("1", 3)), 15, 0)));
+            assertTrue(store.assembleProduct(cabinet));
+            store.awaitJournal();
+        }
+        try (InventoryPersistence persistence = InventoryPersistence.recover(directory, CATALOG, 3600)) {
+            InventoryStore store = persistence.getStore();
+            assertEquals(4, store.getArticles().get(0).getStock());
+            assertEquals(13, store.getArticles().get(1).getStock());
+            assertEquals(2, store.getProductStock().get("Cabinet"));
+            assertEquals(0, store.getBuildableStock().get("Cabinet"));
+            Product cabinet = store.getProducts().get(3);
+            assertEquals("Drawer", cabinet.getContain_products().get(0).getName());
+        }
+    }
+
+    private static AddArticleRequest addArticleRequest(String name, int stock) {
+        AddArticleRequest request = new AddArticleRequest();
+        request.setName(name);
+        request.setStock(stock);
+        return request;
+    }
+
+    private static AddProductRequest addProductRequest(String name, int stock, String artId, int amount) {
+        AddProductRequest request = new AddProductRequest();
+        request.setName(name);
+        request.setStock(stock);
+        request.setPrice(10);
+        request.setArticleQuantities(Collections.singletonList(new ContainArticle(artId, amount)));
+        return request;
+    }
+}
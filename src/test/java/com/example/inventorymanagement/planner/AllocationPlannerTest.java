@@ -0,0 +1,97 @@
+package com.example.inventorymanagement.planner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationPlannerTest {
+    private final AllocationPlanner planner = new AllocationPlanner(ForkJoinPool.commonPool());
+
+    /**
+     * <B>Description :</B> Invoked to test that products sharing an article are given comparable shares
+     */
+    @Test
+    void testSharedArticleIsSplit() {
+        AllocationProblem problem = new AllocationProblem(new String[]{"Chair", "Stool"}, new int[]{5, 5},
+                new int[]{0, 1, 2}, new int[]{0, 0}, new int[]{2, 1}, new int[]{10});
+        planner.plan(problem);
+        assertEquals(3, problem.allocated(0));
+        assertEquals(4, problem.allocated(1));
+        assertEquals(1, problem.components());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that products sharing no article are allocated independently and products needing none get nothing
+     */
+    @Test
+    void testIndependentComponents() {
+        AllocationProblem problem = new AllocationProblem(new String[]{"Chair", "Shelf", "Table", "Gift card"},
+                new int[]{4, 9, 2, 7}, new int[]{0, 2, 3, 5, 5}, new int[]{0, 1, 2, 1, 3}, new int[]{1, 2, 3, 1, 1},
+                new int[]{100, 6, 20, 0});
+        planner.plan(problem);
+        assertEquals(3, problem.components());
+        assertEquals(3, problem.allocated(0));
+        assertEquals(0, problem.allocated(2));
+        assertEquals(6, problem.allocated(1));
+        // needs no article, so it is not buildable, as in getBuildableStock
+        assertEquals(0, problem.allocated(3));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a large random plan never exceeds stock and leaves no product short of a unit it could get
+     */
+    @Test
+    void testLargePlanIsFeasibleAndMaximal() {
+        Random random = new Random(7);
+        int products = 20_000;
+        int articles = 8_000;
+        int[] demand = new int[products];
+        int[] offsets = new int[products + 1];
+        int[] bomArticles = new int[products * 4];
+        int[] amounts = new int[products * 4];
+        int size = 0;
+        for (int product = 0; product < products; product++) {
+            demand[product] = 1 + random.nextInt(20);
+            int first = random.nextInt(articles - 4);
+            for (int k = 0; k < 1 + random.nextInt(4); k++) {
+                bomArticles[size] = first + k;
+                amounts[size++] = 1 + random.nextInt(8);
+            }
+            offsets[product + 1] = size;
+        }
+        int[] stock = new int[articles];
+        for (int article = 0; article < articles; article++) {
+            stock[article] = random.nextInt(200);
+        }
+        AllocationProblem problem = new AllocationProblem(new String[products], demand, offsets, bomArticles, amounts, stock);
+        AllocationPlanner parallel = new AllocationPlanner(new ForkJoinPool(4));
+        long start = System.nanoTime();
+        parallel.plan(problem);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertTrue(problem.components() > 1);
+
+        long[] used = new long[articles];
+        for (int product = 0; product < products; product++) {
+            assertTrue(problem.allocated(product) >= 0 && problem.allocated(product) <= demand[product]);
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                used[bomArticles[k]] += (long) problem.allocated(product) * amounts[k];
+            }
+        }
+        for (int article = 0; article < articles; article++) {
+            assertTrue(used[article] <= stock[article]);
+        }
+        for (int product = 0; product < products; product++) {
+            if (problem.allocated(product) == demand[product]) {
+                continue;
+            }
+            boolean blocked = false;
+            for (int k = offsets[product]; k < offsets[product + 1]; k++) {
+                blocked |= used[bomArticles[k]] + amounts[k] > stock[bomArticles[k]];
+            }
+            assertTrue(blocked);
+        }
+    }
+}
@@ -1,29 +1,56 @@
 package com.example.inventorymanagement.service.impl;
 
+import com.example.inventorymanagement.exception.BulkUploadException;
+import com.example.inventorymanagement.exception.IdempotencyKeyMismatchException;
 import com.example.inventorymanagement.exception.ImportArticlesException;
 import com.example.inventorymanagement.exception.ImportProductsException;
+import com.example.inventorymanagement.exception.InvalidHoldException;
+import com.example.inventorymanagement.exception.OrderReleasedException;
 import com.example.inventorymanagement.exception.ProcessOrderException;
 import com.example.inventorymanagement.exception.RetrieveProductsException;
+import com.example.inventorymanagement.idempotency.IdempotencyCache;
+import com.example.inventorymanagement.importer.ParallelCatalogReader;
 import com.example.inventorymanagement.model.*;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.example.inventorymanagement.planner.AllocationPlanner;
+import com.example.inventorymanagement.shard.InventoryShard;
+import com.example.inventorymanagement.shard.LocalShard;
+import com.example.inventorymanagement.shard.ShardRouter;
+import com.example.inventorymanagement.store.InventoryMetrics;
+import com.example.inventorymanagement.store.InventoryStore;
+import com.example.inventorymanagement.store.StockHolds;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class WarehouseServiceImplTest {
     @InjectMocks
     private WarehouseServiceImpl warehouseService;
-    @Mock
-    private Gson gson;
+    @Spy
+    private InventoryStore inventoryStore = InventoryStore.load("src/main/resources/articles.json",
+            "src/main/resources/products.json");
+
+    WarehouseServiceImplTest() throws IOException {
+    }
 
     @BeforeEach
     public void setUp() {
@@ -35,9 +62,6 @@ class WarehouseServiceImplTest {
      */
     @Test
     void testImportArticles() throws ImportArticlesException {
-        List<Article> articles = Arrays.asList(new Article(), new Article());
-        when(gson.fromJson((String) any(), eq(JsonObject.class))).thenReturn(new JsonObject());
-        when(gson.fromJson((String) any(), any())).thenReturn(articles);
         List<Article> result = warehouseService.importArticles();
         assertEquals(4, result.size());
     }
@@ -47,9 +71,6 @@ class WarehouseServiceImplTest {
      */
     @Test
     void testImportProducts() throws ImportProductsException {
-        List<Product> products = Arrays.asList(new Product(), new Product());
-        when(gson.fromJson((String) any(), eq(JsonObject.class))).thenReturn(new JsonObject());
-        when(gson.fromJson((String) any(), any())).thenReturn(products);
         List<Product> result = warehouseService.importProducts();
         assertEquals(2, result.size());
     }
@@ -162,5 +183,490 @@ class WarehouseServiceImplTest {
         assertFalse(result);
     }
 
+    /**
+     * <B>Description :</B> Invoked to test that stock changes are kept between calls
+     */
+    @Test
+    void testOrderDecrementsResidentStock() throws ProcessOrderException {
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        assertTrue(warehouseService.processOrder(request));
+        assertFalse(warehouseService.processOrder(request));
+        assertEquals(0, warehouseService.retrieveAllProducts().get("Dining Chair"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that assembling a product consumes its articles
+     */
+    @Test
+    void testAddProductConsumesArticles() throws IOException {
+        AddProductRequest request = new AddProductRequest();
+        request.setName("Stool");
+        request.setStock(2);
+        request.setPrice(10);
+        request.setArticleQuantities(Collections.singletonList(new ContainArticle("1", 3)));
+        assertTrue(warehouseService.updateOrAddProduct(request));
+        assertEquals(2, warehouseService.retrieveAllProducts().get("Stool"));
+        assertEquals(6, warehouseService.importArticles().get(0).getStock());
+        verify(inventoryStore, times(1)).assembleProduct(request);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that new articles never reuse an id of a sparse catalog
+     */
+    @Test
+    void testAddArticleAllocatesUnusedId() throws IOException {
+        warehouseService.importArticles(json("{\"articles\":[{\"art_id\":\"9\",\"name\":\"hinge\",\"stock\":3}]}"));
+        AddArticleRequest request = new AddArticleRequest();
+        request.setName("bracket");
+        request.setStock(2);
+        List<Article> articles = warehouseService.updateOrAddArticle(request);
+        assertEquals(6, articles.size());
+        assertEquals("10", articles.get(5).getArt_id());
+
+        request.setStock(5);
+        articles = warehouseService.updateOrAddArticle(request);
+        assertEquals(6, articles.size());
+        assertEquals(7, articles.get(5).getStock());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test walking the articles page by page with the returned cursor
+     */
+    @Test
+    void testListArticlesPages() throws ImportArticlesException {
+        CatalogPage<Article> first = warehouseService.listArticles(null, 3);
+        assertEquals(3, first.getItems().size());
+        assertEquals("leg", first.getItems().get(0).getName());
+        CatalogPage<Article> second = warehouseService.listArticles(first.getNextCursor(), 3);
+        assertEquals(1, second.getItems().size());
+        assertEquals("table top", second.getItems().get(0).getName());
+        assertNull(second.getNextCursor());
+        assertThrows(ImportArticlesException.class, () -> warehouseService.listArticles("x", 3));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming products as newline-delimited JSON
+     */
+    @Test
+    void testStreamProducts() throws ImportProductsException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        warehouseService.streamProducts(out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"name\":\"Dining Chair\""));
+        assertTrue(lines[1].contains("\"art_id\":\"4\""));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a batch of orders reports each order in request order
+     */
+    @Test
+    void testProcessOrdersBatch() throws ProcessOrderException {
+        BuyProductRequest chair = new BuyProductRequest();
+        chair.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        BuyProductRequest tableAndChair = new BuyProductRequest();
+        tableAndChair.setRequiredProductList(Arrays.asList(new RequiredProduct("Dining Table", 1),
+                new RequiredProduct("Dining Chair", 1)));
+        BuyProductRequest table = new BuyProductRequest();
+        table.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Table", 1)));
+        BuyProductRequest unknown = new BuyProductRequest();
+        unknown.setRequiredProductList(Collections.singletonList(new RequiredProduct("Product1", 1)));
+
+        List<Boolean> results = warehouseService.processOrders(Arrays.asList(chair, tableAndChair, table, unknown));
+        assertEquals(Arrays.asList(true, false, true, false), results);
+        assertEquals(0, warehouseService.retrieveAllProducts().get("Dining Chair"));
+        assertEquals(0, warehouseService.retrieveAllProducts().get("Dining Table"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that assemblable quantities follow article stock changes
+     */
+    @Test
+    void testAssemblableProductsFollowArticleStock() throws IOException {
+        Map<String, Integer> assemblable = warehouseService.retrieveAssemblableProducts();
+        assertEquals(2, assemblable.get("Dining Chair"));
+        assertEquals(1, assemblable.get("Dining Table"));
+
+        AddProductRequest stool = new AddProductRequest();
+        stool.setName("Stool");
+        stool.setStock(2);
+        stool.setPrice(10);
+        stool.setArticleQuantities(Collections.singletonList(new ContainArticle("1", 3)));
+        assertTrue(warehouseService.updateOrAddProduct(stool));
+        assemblable = warehouseService.retrieveAssemblableProducts();
+        assertEquals(1, assemblable.get("Dining Chair"));
+        assertEquals(2, assemblable.get("Stool"));
+
+        AddArticleRequest legs = new AddArticleRequest();
+        legs.setName("leg");
+        legs.setStock(30);
+        warehouseService.updateOrAddArticle(legs);
+        assemblable = warehouseService.retrieveAssemblableProducts();
+        assertEquals(2, assemblable.get("Dining Chair"));
+        assertEquals(12, assemblable.get("Stool"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming import of articles with an invalid record
+     */
+    @Test
+    void testStreamImportArticles() throws ImportArticlesException {
+        InputStream catalog = json("{\"articles\": [{\"art_id\": \"5\", \"name\": \"wheel\", \"stock\": \"4\"},"
+                + "{\"art_id\": \"6\", \"name\": \"bolt\", \"stock\": \"-1\"},"
+                + "{\"art_id\": \"1\", \"name\": \"leg\", \"stock\": 30, \"colour\": {\"rgb\": [1, 2]}}]}");
+        ImportReport report = warehouseService.importArticles(catalog);
+        assertEquals(2, report.getAccepted());
+        assertEquals(1, report.getRejected());
+        assertEquals("6", report.getErrors().get(0).getKey());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        List<Article> articles = warehouseService.importArticles();
+        assertEquals(5, articles.size());
+        assertEquals(30, articles.get(0).getStock());
+        assertEquals("wheel", articles.get(4).getName());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming import of products
+     */
+    @Test
+    void testStreamImportProducts() throws ImportProductsException {
+        InputStream catalog = json("{\"products\": [{\"name\": \"Stool\", \"price\": 12.5, \"stock\": 3,"
+                + "\"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": \"3\"}]},"
+                + "{\"name\": \"Broken\", \"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": 0}]}]}");
+        ImportReport report = warehouseService.importProducts(catalog);
+        assertEquals(1, report.getAccepted());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, warehouseService.retrieveAllProducts().get("Stool"));
+        assertFalse(warehouseService.retrieveAllProducts().containsKey("Broken"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that orders, assemblies and imports are counted
+     */
+    @Test
+    void testRecordsMetrics() throws Exception {
+        BuyProductRequest order = new BuyProductRequest();
+        order.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        warehouseService.processOrder(order);
+        warehouseService.processOrder(order);
+        AddProductRequest assemble = new AddProductRequest();
+        assemble.setName("Dining Chair");
+        assemble.setStock(1);
+        assemble.setArticleQuantities(Collections.singletonList(new ContainArticle("1", 4)));
+        warehouseService.updateOrAddProduct(assemble);
+        warehouseService.importArticles(json("{\"articles\": [{\"art_id\": \"5\", \"name\": \"wheel\", \"stock\": 4},"
+                + "{\"art_id\": \"6\", \"name\": \"bolt\", \"stock\": -1}]}"));
+
+        InventoryMetrics metrics = inventoryStore.getMetrics();
+        assertEquals(1, metrics.ordersPlaced());
+        assertEquals(1, metrics.ordersOutOfStock());
+        assertEquals(1, metrics.assemblies());
+        assertEquals(1, metrics.imports(InventoryMetrics.ARTICLES));
+        assertEquals(1, metrics.importAccepted(InventoryMetrics.ARTICLES));
+        assertEquals(1, metrics.importRejected(InventoryMetrics.ARTICLES));
+        assertTrue(metrics.importNanos(InventoryMetrics.ARTICLES) > 0);
+        assertEquals(0, metrics.imports(InventoryMetrics.PRODUCTS));
+        assertTrue(inventoryStore.getProductContention(10).isEmpty());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that held units are unavailable until the hold is released or confirmed
+     */
+    @Test
+    void testHoldSetsStockAside() throws ProcessOrderException {
+        StockHolds stockHolds = new StockHolds(inventoryStore, 10, 64);
+        ReflectionTestUtils.setField(warehouseService, "stockHolds", stockHolds);
+        try {
+            HoldRequest hold = new HoldRequest();
+            hold.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+            long first = warehouseService.createHold(hold);
+            assertTrue(first >= 0);
+            assertEquals(StockHolds.NO_HOLD, warehouseService.createHold(hold));
+            assertEquals(0, warehouseService.retrieveAllProducts().get("Dining Chair"));
+            BuyProductRequest order = new BuyProductRequest();
+            order.setRequiredProductList(hold.getRequiredProductList());
+            assertFalse(warehouseService.processOrder(order));
+
+            assertTrue(warehouseService.releaseHold(first));
+            assertEquals(1, warehouseService.retrieveAllProducts().get("Dining Chair"));
+            long second = warehouseService.createHold(hold);
+            assertTrue(warehouseService.confirmHold(second));
+            assertFalse(warehouseService.confirmHold(second));
+            assertFalse(warehouseService.releaseHold(second));
+            assertEquals(0, inventoryStore.getProducts().get(0).getStock());
+            assertEquals(0, stockHolds.activeHolds());
+        } finally {
+            stockHolds.close();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a hold time to live out of range is rejected before any stock is held
+     */
+    @Test
+    void testHoldRejectsInvalidTimeToLive() {
+        StockHolds stockHolds = mock(StockHolds.class);
+        ReflectionTestUtils.setField(warehouseService, "stockHolds", stockHolds);
+        HoldRequest hold = new HoldRequest();
+        hold.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        for (long ttlSeconds : new long[]{0, -5, StockHolds.MAX_TTL_MILLIS / 1000 + 1, Long.MAX_VALUE / 1000 + 1}) {
+            hold.setTtlSeconds(ttlSeconds);
+            assertThrows(InvalidHoldException.class, () -> warehouseService.createHold(hold));
+        }
+        verifyNoInteractions(stockHolds);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a cluster instance only holds products its own shard owns
+     */
+    @Test
+    void testHoldRejectsProductsOfOtherShards() {
+        LocalShard localShard = new LocalShard(inventoryStore, 30_000);
+        try {
+            ShardRouter router = new ShardRouter(Arrays.asList(localShard, mock(InventoryShard.class)), 25_000);
+            ReflectionTestUtils.setField(warehouseService, "shardRouter", router);
+            ReflectionTestUtils.setField(warehouseService, "localShard", localShard);
+            StockHolds stockHolds = mock(StockHolds.class);
+            ReflectionTestUtils.setField(warehouseService, "stockHolds", stockHolds);
+            String local = null;
+            String remote = null;
+            for (int i = 0; local == null || remote == null; i++) {
+                if (router.shardOf("product-" + i) == 0) {
+                    local = "product-" + i;
+                } else {
+                    remote = "product-" + i;
+                }
+            }
+            HoldRequest hold = new HoldRequest();
+            hold.setRequiredProductList(Arrays.asList(new RequiredProduct(local, 1), new RequiredProduct(remote, 1)));
+            assertThrows(InvalidHoldException.class, () -> warehouseService.createHold(hold));
+            hold.setRequiredProductList(Collections.singletonList(new RequiredProduct(local, 1)));
+            when(stockHolds.create(anyList(), anyLong())).thenReturn(3L);
+            assertEquals(3L, warehouseService.createHold(hold));
+        } finally {
+            localShard.close();
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test streaming import of a malformed document
+     */
+    @Test
+    void testStreamImportMalformedDocument() {
+        assertThrows(ImportProductsException.class,
+                () -> warehouseService.importProducts(json("{\"products\": [{\"name\": ")));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a short line leaves the other lines untouched
+     */
+    @Test
+    void testProcessOrderIsAllOrNothing() throws ProcessOrderException {
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Arrays.asList(new RequiredProduct("Dining Chair", 1),
+                new RequiredProduct("Dining Table", 2)));
+        assertFalse(warehouseService.processOrder(request));
+        assertEquals(1, warehouseService.retrieveAllProducts().get("Dining Chair"));
+        assertEquals(1, warehouseService.retrieveAllProducts().get("Dining Table"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that repeated lines of one product are checked together
+     */
+    @Test
+    void testProcessOrderSumsRepeatedLines() throws ProcessOrderException {
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Arrays.asList(new RequiredProduct("Dining Chair", 1),
+                new RequiredProduct("Dining Chair", 1)));
+        assertFalse(warehouseService.processOrder(request));
+        assertEquals(1, warehouseService.retrieveAllProducts().get("Dining Chair"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that concurrent orders never oversell a product
+     */
+    @Test
+    void testConcurrentOrdersDoNotOversell() throws Exception {
+        assertConcurrentOrdersDoNotOversell();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that concurrent orders never oversell in sequencer mode
+     */
+    @Test
+    void testSequencerConcurrentOrdersDoNotOversell() throws Exception {
+        inventoryStore.startSequencer(64);
+        try {
+            assertConcurrentOrdersDoNotOversell();
+        } finally {
+            inventoryStore.stopSequencer();
+        }
+    }
+
+    private void assertConcurrentOrdersDoNotOversell() throws Exception {
+        AddArticleRequest restock = new AddArticleRequest();
+        restock.setStock(4000);
+        for (String name : Arrays.asList("leg", "screw", "seat")) {
+            restock.setName(name);
+            warehouseService.updateOrAddArticle(restock);
+        }
+        AddProductRequest assemble = new AddProductRequest();
+        assemble.setName("Dining Chair");
+        assemble.setStock(99);
+        assemble.setArticleQuantities(Arrays.asList(new ContainArticle("1", 4), new ContainArticle("2", 8),
+                new ContainArticle("3", 1)));
+        assertTrue(warehouseService.updateOrAddProduct(assemble));
+
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Arrays.asList(new RequiredProduct("Dining Chair", 1)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            results.add(executor.submit(() -> warehouseService.processOrder(request)));
+        }
+        int successful = 0;
+        for (Future<Boolean> result : results) {
+            successful += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(100, successful);
+        assertEquals(0, warehouseService.retrieveAllProducts().get("Dining Chair"));
+        assertEquals(100, inventoryStore.getMetrics().ordersPlaced());
+        assertEquals(300, inventoryStore.getMetrics().ordersOutOfStock());
+    }
 
+    private static InputStream json(String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a retried order with the same idempotency key is placed once
+     */
+    @Test
+    void testProcessOrderWithIdempotencyKeyIsPlacedOnce() throws ProcessOrderException {
+        ReflectionTestUtils.setField(warehouseService, "idempotencyCache", new IdempotencyCache<Boolean>(16, 60_000));
+        BuyProductRequest order = new BuyProductRequest();
+        order.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        assertTrue(warehouseService.processOrder(order, "order-1"));
+        assertTrue(warehouseService.processOrder(order, "order-1"));
+        assertEquals(0, inventoryStore.getProducts().get(0).getStock());
+        verify(inventoryStore, times(1)).placeOrder(order.getRequiredProductList());
+        assertFalse(warehouseService.processOrder(order, "order-2"));
+
+        BuyProductRequest other = new BuyProductRequest();
+        other.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 2)));
+        assertThrows(IdempotencyKeyMismatchException.class, () -> warehouseService.processOrder(other, "order-1"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a failed order is replayed for its idempotency key unless it provably took no stock
+     */
+    @Test
+    void testFailedIdempotentOrderIsRetriedOnlyWithoutEffect() throws ProcessOrderException {
+        ReflectionTestUtils.setField(warehouseService, "idempotencyCache", new IdempotencyCache<Boolean>(16, 60_000));
+        BuyProductRequest order = new BuyProductRequest();
+        order.setRequiredProductList(Collections.singletonList(new RequiredProduct("Dining Chair", 1)));
+        doThrow(new UncheckedIOException("Stock change could not be journaled", new IOException("disk full")))
+                .when(inventoryStore).placeOrder(order.getRequiredProductList());
+        assertThrows(ProcessOrderException.class, () -> warehouseService.processOrder(order, "order-1"));
+        assertThrows(ProcessOrderException.class, () -> warehouseService.processOrder(order, "order-1"));
+        verify(inventoryStore, times(1)).placeOrder(order.getRequiredProductList());
+
+        ShardRouter router = mock(ShardRouter.class);
+        when(router.placeOrder(order.getRequiredProductList()))
+                .thenThrow(new OrderReleasedException("Order could not be committed and was released"))
+                .thenReturn(true);
+        ReflectionTestUtils.setField(warehouseService, "shardRouter", router);
+        assertThrows(ProcessOrderException.class, () -> warehouseService.processOrder(order, "order-2"));
+        assertTrue(warehouseService.processOrder(order, "order-2"));
+
+        BuyProductRequest invalid = new BuyProductRequest();
+        invalid.setRequiredProductList(Collections.singletonList(new RequiredProduct(null, 1)));
+        assertThrows(ProcessOrderException.class, () -> warehouseService.processOrder(invalid, "order-3"));
+        verify(router, times(2)).placeOrder(anyList());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test finding low stock articles and the scarcest products
+     */
+    @Test
+    void testStockQueries() throws ImportArticlesException, RetrieveProductsException {
+        List<Article> lowStock = warehouseService.findArticlesByStock(Integer.MIN_VALUE, 2, 10);
+        assertEquals(2, lowStock.size());
+        assertTrue(lowStock.get(0).getStock() <= lowStock.get(1).getStock());
+        assertEquals(1, warehouseService.retrieveTopProducts(0, true).size());
+        assertEquals(2, warehouseService.findProductsByStock(0, 1, 10).size());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test a bulk upload of articles and products applied with one version bump per batch
+     */
+    @Test
+    void testBulkUpload() throws BulkUploadException, RetrieveProductsException {
+        ReflectionTestUtils.setField(warehouseService, "parallelCatalogReader",
+                new ParallelCatalogReader(ForkJoinPool.commonPool(), 2, 1 << 20));
+        long version = inventoryStore.version();
+        BulkUploadReport report = warehouseService.bulkUpload(json("{\"articles\": ["
+                + "{\"art_id\": \"5\", \"name\": \"wheel\", \"stock\": 8},"
+                + "{\"art_id\": \"6\", \"name\": \"bolt\", \"stock\": -1},"
+                + "{\"art_id\": \"1\", \"name\": \"leg\", \"stock\": 40}],"
+                + "\"products\": [{\"name\": \"Wagon\", \"contain_products\": [{\"name\": \"Cart\", \"amount_of\": 2}]},"
+                + "{\"name\": \"Trolley\", \"contain_products\": [{\"name\": \"Sled\", \"amount_of\": 1}]},"
+                + "{\"name\": \"Cart\", \"stock\": 2, \"contain_articles\": [{\"art_id\": \"5\", \"amount_of\": 4}]}]}"));
+        assertEquals(2, report.getArticles().getAccepted());
+        assertEquals(1, report.getArticles().getRejected());
+        assertEquals(2, report.getProducts().getAccepted());
+        assertEquals(1, report.getProducts().getRejected());
+        assertEquals("Trolley", report.getProducts().getErrors().get(0).getKey());
+        assertEquals(1, inventoryStore.getBuildableStock().get("Wagon"));
+        assertEquals(version + 2, inventoryStore.version());
+        assertEquals(2, warehouseService.retrieveAllProducts().get("Cart"));
+        assertThrows(BulkUploadException.class, () -> warehouseService.bulkUpload(json("{\"articles\": [")));
+        assertEquals(version + 2, inventoryStore.version());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an allocation plan splits shared articles between products
+     */
+    @Test
+    void testPlanAllocation() throws Exception {
+        ReflectionTestUtils.setField(warehouseService, "allocationPlanner", new AllocationPlanner(ForkJoinPool.commonPool()));
+        BuyProductRequest request = new BuyProductRequest();
+        request.setRequiredProductList(Arrays.asList(new RequiredProduct("Dining Chair", 2),
+                new RequiredProduct("Sofa", 1), new RequiredProduct("Dining Table", 2)));
+        AllocationPlan plan = warehouseService.planAllocation(request);
+        assertEquals(Arrays.asList("Dining Chair", "Sofa", "Dining Table"), new ArrayList<>(plan.getAllocation().keySet()));
+        assertEquals(1, plan.getAllocation().get("Dining Chair"));
+        assertEquals(0, plan.getAllocation().get("Sofa"));
+        assertEquals(1, plan.getAllocation().get("Dining Table"));
+        assertEquals(5, plan.getRequested());
+        assertEquals(2, plan.getAllocated());
+        assertEquals(1, plan.getComponents());
+        assertEquals(12, warehouseService.importArticles().get(0).getStock());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test importing products built from sub-assemblies
+     */
+    @Test
+    void testStreamImportSubAssemblies() throws ImportProductsException, RetrieveProductsException {
+        ImportReport report = warehouseService.importProducts(json("{\"products\": ["
+                + "{\"name\": \"Bench\", \"contain_articles\": [{\"art_id\": \"1\", \"amount_of\": 4}],"
+                + " \"contain_products\": [{\"name\": \"Seat Pack\", \"amount_of\": \"2\"}]},"
+                + "{\"name\": \"Seat Pack\", \"contain_articles\": [{\"art_id\": \"3\", \"amount_of\": 1}]},"
+                + "{\"name\": \"Loop\", \"contain_products\": [{\"name\": \"Loop\", \"amount_of\": 1}]},"
+                + "{\"name\": \"Crate\", \"contain_products\": [{\"name\": \"Bench\", \"amount_of\": 0}]},"
+                + "{\"name\": \"Cart\", \"contain_products\": [{\"name\": \"Wheel\", \"amount_of\": 4}]}]}"));
+        assertEquals(2, report.getAccepted());
+        assertEquals(3, report.getRejected());
+        assertEquals("a product cannot contain itself", report.getErrors().get(0).getMessage());
+        assertEquals("Cart", report.getErrors().get(2).getKey());
+        assertEquals("unknown sub-assembly Wheel", report.getErrors().get(2).getMessage());
+        assertFalse(inventoryStore.getProductStock().containsKey("Cart"));
+        assertEquals(1, inventoryStore.getBuildableStock().get("Bench"));
+        assertEquals("Seat Pack", warehouseService.importProducts().stream()
+                .filter(product -> product.getName().equals("Bench")).findFirst().orElseThrow()
+                .getContain_products().get(0).getName());
+    }
 }
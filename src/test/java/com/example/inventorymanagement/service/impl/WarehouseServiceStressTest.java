@@ -0,0 +1,250 @@
+package com.example.inventorymanagement.service.impl;
+
+import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives concurrent orders, batch orders, assemblies and restocks against the service on a small
+ * randomized catalog, so that many operations touch the same articles and products, and then checks
+ * the inventory invariants: no stock is negative, every article unit is accounted for by restocks
+ * and assemblies, every product unit by assemblies and placed orders (which also catches orders
+ * that were applied only partly), and the assemblable counts match the final article stock.
+ * <p>
+ * The size of a run is set with {@code -Dstress.operations}, {@code -Dstress.threads} and
+ * {@code -Dstress.seed}; failures report the seed so a catalog can be reproduced.
+ */
+class WarehouseServiceStressTest {
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 50_000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 16);
+    private static final long SEED = Long.getLong("stress.seed", System.nanoTime());
+    private static final int ARTICLES = 40;
+    private static final int PRODUCTS = 60;
+    private static final int MAX_BOM_WIDTH = 4;
+
+    /**
+     * <B>Description :</B> Invoked to test the inventory invariants under concurrent load with striped locks
+     */
+    @Test
+    void testLockingInvariantsUnderLoad() throws Exception {
+        runStress("locking", new SplittableRandom(SEED));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test the inventory invariants under concurrent load in sequencer mode
+     */
+    @Test
+    void testSequencerInvariantsUnderLoad() throws Exception {
+        runStress("sequencer", new SplittableRandom(SEED));
+    }
+
+    private void runStress(String mode, SplittableRandom random) throws Exception {
+        List<Article> articles = new ArrayList<>(ARTICLES);
+        for (int a = 0; a < ARTICLES; a++) {
+            articles.add(new Article(String.valueOf(a + 1), "article-" + (a + 1), random.nextInt(200)));
+        }
+        int[][] bomArticles = new int[PRODUCTS][];
+        int[][] bomAmounts = new int[PRODUCTS][];
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int p = 0; p < PRODUCTS; p++) {
+            int width = 1 + random.nextInt(MAX_BOM_WIDTH);
+            int first = random.nextInt(ARTICLES);
+            bomArticles[p] = new int[width];
+            bomAmounts[p] = new int[width];
+            List<ContainArticle> containArticles = new ArrayList<>(width);
+            for (int k = 0; k < width; k++) {
+                bomArticles[p][k] = (first + k * (ARTICLES / MAX_BOM_WIDTH)) % ARTICLES;
+                bomAmounts[p][k] = 1 + random.nextInt(5);
+                containArticles.add(new ContainArticle(String.valueOf(bomArticles[p][k] + 1), bomAmounts[p][k]));
+            }
+            products.add(new Product("product-" + (p + 1), containArticles, 10, random.nextInt(20)));
+        }
+        long[] initialArticles = articles.stream().mapToLong(Article::getStock).toArray();
+        long[] initialProducts = products.stream().mapToLong(Product::getStock).toArray();
+
+        InventoryStore store = new InventoryStore(articles, products);
+        WarehouseServiceImpl service = new WarehouseServiceImpl();
+        ReflectionTestUtils.setField(service, "inventoryStore", store);
+        if (mode.equals("sequencer")) {
+            store.startSequencer(1024);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Tally>> workers = new ArrayList<>(THREADS);
+        long startNanos;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                SplittableRandom workerRandom = random.split();
+                int operations = OPERATIONS / THREADS;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    return work(service, products, bomArticles, bomAmounts, workerRandom, operations);
+                }));
+            }
+            startNanos = System.nanoTime();
+            start.countDown();
+            Tally total = new Tally();
+            for (Future<Tally> worker : workers) {
+                total.add(worker.get());
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("stress %s: %d operations on %d threads in %.2f s, %.0f operations/s,"
+                            + " %d orders placed, %d out of stock (seed %d)%n", mode, total.operations, THREADS,
+                    seconds, total.operations / seconds, total.ordersPlaced, total.ordersOutOfStock, SEED);
+
+            assertInvariants(store, total, initialArticles, initialProducts, bomArticles, bomAmounts);
+        } finally {
+            executor.shutdown();
+            store.stopSequencer();
+        }
+    }
+
+    private static Tally work(WarehouseServiceImpl service, List<Product> products, int[][] bomArticles,
+                              int[][] bomAmounts, SplittableRandom random, int operations) throws Exception {
+        Tally tally = new Tally();
+        for (int i = 0; i < operations; i++) {
+            int dice = random.nextInt(100);
+            if (dice < 30) {
+                List<RequiredProduct> lines = randomOrder(random);
+                BuyProductRequest request = new BuyProductRequest();
+                request.setRequiredProductList(lines);
+                tally.order(lines, service.processOrder(request));
+            } else if (dice < 35) {
+                List<BuyProductRequest> requests = new ArrayList<>();
+                for (int k = 0; k < 4; k++) {
+                    BuyProductRequest request = new BuyProductRequest();
+                    request.setRequiredProductList(randomOrder(random));
+                    requests.add(request);
+                }
+                List<Boolean> placed = service.processOrders(requests);
+                for (int k = 0; k < requests.size(); k++) {
+                    tally.order(requests.get(k).getRequiredProductList(), placed.get(k));
+                }
+            } else if (dice < 75) {
+                int product = random.nextInt(PRODUCTS);
+                int units = 1 + random.nextInt(3);
+                AddProductRequest request = new AddProductRequest();
+                request.setName(products.get(product).getName());
+                request.setPrice(10);
+                request.setStock(units);
+                request.setArticleQuantities(products.get(product).getContain_articles());
+                if (service.updateOrAddProduct(request)) {
+                    tally.productsAssembled[product] += units;
+                    for (int k = 0; k < bomArticles[product].length; k++) {
+                        tally.articlesConsumed[bomArticles[product][k]] += (long) units * bomAmounts[product][k];
+                    }
+                }
+            } else {
+                int article = random.nextInt(ARTICLES);
+                int units = 1 + random.nextInt(60);
+                AddArticleRequest request = new AddArticleRequest();
+                request.setName("article-" + (article + 1));
+                request.setStock(units);
+                service.updateOrAddArticle(request);
+                tally.articlesRestocked[article] += units;
+            }
+            tally.operations++;
+        }
+        return tally;
+    }
+
+    private static List<RequiredProduct> randomOrder(SplittableRandom random) {
+        int lines = 1 + random.nextInt(2);
+        List<RequiredProduct> order = new ArrayList<>(lines);
+        for (int k = 0; k < lines; k++) {
+            order.add(new RequiredProduct("product-" + (1 + random.nextInt(PRODUCTS)), 1 + random.nextInt(2)));
+        }
+        return order;
+    }
+
+    private static void assertInvariants(InventoryStore store, Tally total, long[] initialArticles,
+                                         long[] initialProducts, int[][] bomArticles, int[][] bomAmounts) {
+        String seed = " (seed " + SEED + ")";
+        long[] articleStock = new long[ARTICLES];
+        for (Article article : store.getArticles()) {
+            articleStock[Integer.parseInt(article.getArt_id()) - 1] = article.getStock();
+        }
+        for (int a = 0; a < ARTICLES; a++) {
+            assertTrue(articleStock[a] >= 0, "negative stock of article-" + (a + 1) + seed);
+            assertEquals(initialArticles[a] + total.articlesRestocked[a] - total.articlesConsumed[a], articleStock[a],
+                    "article-" + (a + 1) + " units are not conserved" + seed);
+        }
+        Map<String, Integer> productStock = store.getProductStock();
+        Map<String, Integer> assemblable = store.getBuildableStock();
+        for (int p = 0; p < PRODUCTS; p++) {
+            String name = "product-" + (p + 1);
+            assertTrue(productStock.get(name) >= 0, "negative stock of " + name + seed);
+            assertEquals(initialProducts[p] + total.productsAssembled[p] - total.productsOrdered[p],
+                    productStock.get(name).longValue(), name + " units are not conserved" + seed);
+            long units = Long.MAX_VALUE;
+            for (int k = 0; k < bomArticles[p].length; k++) {
+                units = Math.min(units, articleStock[bomArticles[p][k]] / bomAmounts[p][k]);
+            }
+            assertEquals(units, assemblable.get(name).longValue(), "assemblable count of " + name + seed);
+        }
+        Map<String, Integer> indexed = store.getProductsByStock(0, Integer.MAX_VALUE, PRODUCTS + 1);
+        assertEquals(productStock, indexed, "stock index out of date" + seed);
+        int previous = -1;
+        for (int stock : indexed.values()) {
+            assertTrue(stock >= previous, "stock index out of order" + seed);
+            previous = stock;
+        }
+        List<Article> articlesByStock = store.getArticlesByStock(Integer.MIN_VALUE, Integer.MAX_VALUE, ARTICLES + 1);
+        assertEquals(ARTICLES, articlesByStock.size(), "article stock index size" + seed);
+        for (Article article : articlesByStock) {
+            assertEquals(articleStock[Integer.parseInt(article.getArt_id()) - 1], article.getStock(),
+                    "article stock index out of date" + seed);
+        }
+    }
+
+    /**
+     * Changes made by one worker, merged after the run so that counting adds no contention of its own.
+     */
+    private static class Tally {
+        private final long[] articlesRestocked = new long[ARTICLES];
+        private final long[] articlesConsumed = new long[ARTICLES];
+        private final long[] productsAssembled = new long[PRODUCTS];
+        private final long[] productsOrdered = new long[PRODUCTS];
+        private long ordersPlaced;
+        private long ordersOutOfStock;
+        private long operations;
+
+        void order(List<RequiredProduct> lines, boolean placed) {
+            if (!placed) {
+                ordersOutOfStock++;
+                return;
+            }
+            ordersPlaced++;
+            for (RequiredProduct line : lines) {
+                productsOrdered[Integer.parseInt(line.getName().substring("product-".length())) - 1] += line.getQuantity();
+            }
+        }
+
+        void add(Tally other) {
+            for (int a = 0; a < ARTICLES; a++) {
+                articlesRestocked[a] += other.articlesRestocked[a];
+                articlesConsumed[a] += other.articlesConsumed[a];
+            }
+            for (int p = 0; p < PRODUCTS; p++) {
+                productsAssembled[p] += other.productsAssembled[p];
+                productsOrdered[p] += other.productsOrdered[p];
+            }
+            ordersPlaced += other.ordersPlaced;
+            ordersOutOfStock += other.ordersOutOfStock;
+            operations += other.operations;
+        }
+    }
+}
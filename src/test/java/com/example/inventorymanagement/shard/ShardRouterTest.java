@@ -0,0 +1,205 @@
+package com.example.inventorymanagement.shard;
+
+import com.example.inventorymanagement.exception.OrderReleasedException;
+import com.example.inventorymanagement.exception.ShardUnavailableException;
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ShardRouterTest {
+    private final List<InventoryStore> stores = new ArrayList<>();
+    private final List<LocalShard> shards = new ArrayList<>();
+    private ShardRouter router;
+    private String first;
+    private String second;
+
+    /**
+     * Splits ten products over two in-process shards by the router's hash and picks one product
+     * owned by each shard.
+     */
+    @BeforeEach
+    public void setUp() {
+        ShardRouter partitioner = new ShardRouter(Arrays.asList(mock(InventoryShard.class), mock(InventoryShard.class)), 25_000);
+        List<List<Product>> partitions = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < 10; i++) {
+            String name = "product-" + i;
+            partitions.get(partitioner.shardOf(name)).add(new Product(name,
+                    Collections.singletonList(new ContainArticle("1", 1)), 10, 5));
+        }
+        for (List<Product> partition : partitions) {
+            InventoryStore store = new InventoryStore(Collections.singletonList(new Article("1", "leg", 10)), partition);
+            stores.add(store);
+            shards.add(spy(new LocalShard(store, 30_000)));
+        }
+        first = partitions.get(0).get(0).getName();
+        second = partitions.get(1).get(0).getName();
+        router = new ShardRouter(new ArrayList<>(shards), 25_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shards.forEach(LocalShard::close);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an order on one shard is placed without two-phase commit
+     */
+    @Test
+    void testSingleShardOrderTakesFastPath() {
+        assertTrue(router.placeOrder(Collections.singletonList(new RequiredProduct(first, 2))));
+        assertEquals(3, stores.get(0).getProductStock().get(first));
+        verify(shards.get(0)).placeOrder(any());
+        verify(shards.get(0), never()).prepare(anyString(), any());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an order spanning shards is reserved and committed on each
+     */
+    @Test
+    void testCrossShardOrderCommits() {
+        assertTrue(router.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 5))));
+        assertEquals(3, stores.get(0).getProductStock().get(first));
+        assertEquals(0, stores.get(1).getProductStock().get(second));
+        assertEquals(0, shards.get(0).pendingReservations());
+        assertEquals(0, shards.get(1).pendingReservations());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a shortfall on one shard releases the reservation on the others
+     */
+    @Test
+    void testCrossShardShortfallAborts() {
+        assertFalse(router.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 6))));
+        assertEquals(5, stores.get(0).getProductStock().get(first));
+        assertEquals(5, stores.get(1).getProductStock().get(second));
+        assertEquals(0, shards.get(0).pendingReservations());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an unreachable shard fails the order and releases the reservations
+     */
+    @Test
+    void testUnreachableShardAborts() {
+        ShardRouter withRemote = new ShardRouter(Arrays.asList(shards.get(0),
+                new HttpShard("http://127.0.0.1:1", Duration.ofMillis(200))), 25_000);
+        assertFalse(withRemote.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 1))));
+        assertEquals(5, stores.get(0).getProductStock().get(first));
+        assertEquals(0, shards.get(0).pendingReservations());
+        assertArrayEquals(new boolean[]{false, true}, withRemote.placeOrders(Arrays.asList(
+                Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 1)),
+                Collections.singletonList(new RequiredProduct(first, 1)))));
+        assertEquals(4, stores.get(0).getProductStock().get(first));
+        assertEquals(0, shards.get(0).pendingReservations());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a batch costs one call per shard and phase and keeps every order all or nothing
+     */
+    @Test
+    void testBatchIsPreparedOncePerShard() {
+        boolean[] placed = router.placeOrders(Arrays.asList(
+                Arrays.asList(new RequiredProduct(first, 1), new RequiredProduct(second, 1)),
+                Arrays.asList(new RequiredProduct(first, 1), new RequiredProduct(second, 10)),
+                null,
+                Collections.singletonList(new RequiredProduct(first, 2))));
+        assertArrayEquals(new boolean[]{true, false, false, true}, placed);
+        assertEquals(2, stores.get(0).getProductStock().get(first));
+        assertEquals(4, stores.get(1).getProductStock().get(second));
+        for (LocalShard shard : shards) {
+            verify(shard).prepareAll(any());
+            verify(shard).commitAll(any());
+            verify(shard).abortAll(any());
+            verify(shard, never()).prepare(anyString(), any());
+            assertEquals(0, shard.pendingReservations());
+        }
+        verify(shards.get(0)).placeOrders(any());
+        verify(shards.get(1), never()).placeOrders(any());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a reservation never committed is released after its timeout
+     */
+    @Test
+    void testExpiredReservationIsReleased() throws InterruptedException {
+        try (LocalShard shard = new LocalShard(stores.get(0), 50)) {
+            assertTrue(shard.prepare("tx-1", Collections.singletonList(new RequiredProduct(first, 4))));
+            assertTrue(shard.prepare("tx-1", Collections.singletonList(new RequiredProduct(first, 4))));
+            assertEquals(1, stores.get(0).getProductStock().get(first));
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            // the reservation is removed just before its stock is returned
+            while ((shard.pendingReservations() > 0 || stores.get(0).getProductStock().get(first) != 5)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(5, stores.get(0).getProductStock().get(first));
+            assertFalse(shard.commit("tx-1"));
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a commit answered false fails the order and releases every shard
+     */
+    @Test
+    void testRejectedCommitAbortsCommittedShards() {
+        doReturn(false).when(shards.get(1)).commit(anyString());
+        assertThrows(OrderReleasedException.class,
+                () -> router.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 5))));
+        verify(shards.get(0)).commit(anyString());
+        assertEquals(5, stores.get(0).getProductStock().get(first));
+        assertEquals(5, stores.get(1).getProductStock().get(second));
+        assertEquals(0, shards.get(0).pendingReservations());
+        assertEquals(0, shards.get(1).pendingReservations());
+        assertArrayEquals(new boolean[]{false}, router.placeOrders(Collections.singletonList(
+                Arrays.asList(new RequiredProduct(first, 1), new RequiredProduct(second, 1)))));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that no commit is attempted once the commit window has passed
+     */
+    @Test
+    void testElapsedCommitWindowAborts() {
+        ShardRouter late = new ShardRouter(new ArrayList<>(shards), -1);
+        assertThrows(ShardUnavailableException.class,
+                () -> late.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 5))));
+        verify(shards.get(0), never()).commit(anyString());
+        assertEquals(5, stores.get(0).getProductStock().get(first));
+        assertEquals(5, stores.get(1).getProductStock().get(second));
+
+        doThrow(new ShardUnavailableException("Shard is unavailable")).when(shards.get(1)).abort(anyString());
+        ShardUnavailableException unreleased = assertThrows(ShardUnavailableException.class,
+                () -> late.placeOrder(Arrays.asList(new RequiredProduct(first, 2), new RequiredProduct(second, 5))));
+        assertFalse(unreleased instanceof OrderReleasedException);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a committed reservation answers retried commits and can still be aborted
+     */
+    @Test
+    void testCommittedReservationCanBeAborted() {
+        LocalShard shard = shards.get(0);
+        assertTrue(shard.prepare("tx-1", Collections.singletonList(new RequiredProduct(first, 4))));
+        assertTrue(shard.commit("tx-1"));
+        assertTrue(shard.commit("tx-1"));
+        assertEquals(0, shard.pendingReservations());
+        assertEquals(1, stores.get(0).getProductStock().get(first));
+        shard.abort("tx-1");
+        assertEquals(5, stores.get(0).getProductStock().get(first));
+        assertFalse(shard.commit("tx-1"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.inventorymanagement.snapshot;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.ContainProduct;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.store.InventoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSnapshotTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * <B>Description :</B> Invoked to test reading back every field of a written snapshot
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Article> articles = Arrays.asList(new Article("1", "leg", 12), new Article("2", "skruv ø", 17));
+        List<Product> products = Arrays.asList(
+                new Product("Dining Chair", Arrays.asList(new ContainArticle("1", 4), new ContainArticle("2", 8)), 39.99, 1),
+                new Product("Shelf", Arrays.asList(new ContainArticle("9", 2)), 10.5, 3),
+                new Product("Gift Card", null, 25, 100));
+        Path path = directory.resolve("catalog.snap");
+        SnapshotWriter.write(path, 7, articles, products);
+
+        MappedSnapshot snapshot = MappedSnapshot.open(path);
+        assertEquals(7, snapshot.generation());
+        assertEquals(2, snapshot.articleCount());
+        assertEquals("skruv ø", snapshot.articleName(1));
+        assertEquals("2", snapshot.articleId(1));
+        assertEquals(17, snapshot.articleStock(1));
+        assertEquals(3, snapshot.productCount());
+        assertEquals("Dining Chair", snapshot.productName(0));
+        assertEquals(39.99, snapshot.productPrice(0));
+        assertEquals(0, snapshot.bomStart(0));
+        assertEquals(2, snapshot.bomStart(1));
+        assertEquals(1, snapshot.bomArticle(1));
+        assertEquals(8, snapshot.bomAmount(1));
+        assertTrue(snapshot.bomArticle(2) < 0);
+        assertEquals("9", snapshot.bomArticleId(2));
+        assertEquals(snapshot.bomStart(2), snapshot.bomStart(3));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test reading back the sub-assemblies of products
+     */
+    @Test
+    void testSubAssemblyRoundTrip() throws IOException {
+        List<Product> products = Arrays.asList(new Product("Drawer", Arrays.asList(new ContainArticle("1", 2)), 15, 0),
+                new Product("Cabinet", null, Arrays.asList(new ContainProduct("Drawer", 3)), 80, 1));
+        Path path = directory.resolve("catalog.snap");
+        SnapshotWriter.write(path, 1, Arrays.asList(new Article("1", "runner", 12)), products);
+
+        MappedSnapshot snapshot = MappedSnapshot.open(path);
+        assertEquals(0, snapshot.componentStart(1));
+        assertEquals(1, snapshot.componentStart(2));
+        assertEquals(0, snapshot.componentProduct(0));
+        assertEquals(3, snapshot.componentAmount(0));
+        assertEquals(2, InventoryStore.fromSnapshot(snapshot).getBuildableStock().get("Cabinet"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test loading a store from a snapshot of the JSON catalog
+     */
+    @Test
+    void testStoreFromConvertedCatalog() throws IOException {
+        Path path = directory.resolve("catalog.snap");
+        SnapshotConverter.main(new String[]{"src/main/resources/articles.json", "src/main/resources/products.json",
+                path.toString()});
+        InventoryStore store = InventoryStore.fromSnapshot(MappedSnapshot.open(path));
+        assertEquals(4, store.getArticles().size());
+        assertEquals(1, store.getProductStock().get("Dining Table"));
+        assertEquals("4", store.getProducts().get(1).getContain_articles().get(2).getArt_id());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that other files are rejected
+     */
+    @Test
+    void testOpenRejectsForeignFile() throws IOException {
+        Path path = Files.writeString(directory.resolve("catalog.snap"), "{\"articles\": [] , \"products\": [] }   ");
+        assertThrows(IOException.class, () -> MappedSnapshot.open(path));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.ProductContention;
+import com.example.inventorymanagement.model.RequiredProduct;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductContentionTest {
+
+    /**
+     * <B>Description :</B> Invoked to test that a contended stripe is counted against the product that waited, not every product of the stripe
+     */
+    @Test
+    void testContentionIsCountedPerProduct() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            products.add(new Product("product-" + i, Collections.emptyList(), 1, 10));
+        }
+        InventoryStore store = new InventoryStore(Collections.emptyList(), products);
+        LockStripes lockStripes = (LockStripes) ReflectionTestUtils.getField(store, "lockStripes");
+        int stripe = lockStripes.productStripe(0);
+        assertEquals(stripe, lockStripes.productStripe(512));
+        ReentrantLock lock = ((ReentrantLock[]) ReflectionTestUtils.getField(lockStripes, "locks"))[stripe];
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Thread order = new Thread(() -> store.placeOrder(Collections.singletonList(new RequiredProduct("product-0", 1))));
+            lockStripes.lock(stripe);
+            try {
+                order.start();
+                while (!lock.hasQueuedThreads()) {
+                    Thread.sleep(1);
+                }
+            } finally {
+                lockStripes.unlock(stripe);
+            }
+            order.join();
+        });
+
+        List<ProductContention> contention = store.getProductContention(10);
+        assertEquals(1, contention.size());
+        assertEquals("product-0", contention.get(0).getName());
+        assertEquals(1, contention.get(0).getContendedLocks());
+        assertEquals(9, store.getProductStock().get("product-0"));
+        assertTrue(store.getProductContention(-1).isEmpty());
+    }
+}
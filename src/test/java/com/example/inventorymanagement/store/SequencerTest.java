@@ -0,0 +1,73 @@
+package com.example.inventorymanagement.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequencerTest {
+
+    /**
+     * <B>Description :</B> Invoked to test that commands submitted while the sequencer stops are either applied or refused, never left waiting
+     */
+    @Test
+    void testStopWhileSubmitting() {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            for (int round = 0; round < 50; round++) {
+                Sequencer sequencer = new Sequencer(4, "sequencer-test");
+                AtomicInteger applied = new AtomicInteger();
+                AtomicInteger refused = new AtomicInteger();
+                CountDownLatch started = new CountDownLatch(1);
+                ExecutorService producers = Executors.newFixedThreadPool(8);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int producer = 0; producer < 8; producer++) {
+                    futures.add(producers.submit(() -> {
+                        started.countDown();
+                        for (int i = 0; i < 200; i++) {
+                            try {
+                                sequencer.execute(applied::incrementAndGet);
+                            } catch (IllegalStateException e) {
+                                refused.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                started.await();
+                sequencer.stop();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                producers.shutdown();
+                assertEquals(8 * 200, applied.get() + refused.get());
+            }
+        });
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a parked writer is woken by the next command and that results and failures reach the producer through reused slots
+     */
+    @Test
+    void testParkedWriterIsWokenAndSlotsAreReused() {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            Sequencer sequencer = new Sequencer(2, "sequencer-test");
+            for (int i = 0; i < 5; i++) {
+                Thread.sleep(50);
+                int expected = i;
+                assertEquals(expected, sequencer.execute(() -> expected));
+                assertThrows(IllegalArgumentException.class, () -> sequencer.execute(() -> {
+                    throw new IllegalArgumentException("rejected");
+                }));
+            }
+            sequencer.stop();
+            assertThrows(IllegalStateException.class, () -> sequencer.execute(() -> 0));
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.AddArticleRequest;
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.RequiredProduct;
+import com.example.inventorymanagement.model.StockChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockFeedTest {
+    private InventoryStore store;
+    private StockFeed feed;
+
+    @BeforeEach
+    public void setUp() {
+        store = new InventoryStore(Collections.singletonList(new Article("1", "leg", 10)),
+                Collections.singletonList(new Product("Stool", Collections.singletonList(new ContainArticle("1", 3)),
+                        10, 5)));
+        feed = new StockFeed(8);
+        store.attachFeed(feed);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that orders, holds and restocks publish the stock after each change
+     */
+    @Test
+    void testChangesArePublishedInOrder() {
+        assertTrue(store.placeOrder(Collections.singletonList(new RequiredProduct("Stool", 2))));
+        assertFalse(store.placeOrder(Collections.singletonList(new RequiredProduct("Stool", 4))));
+        assertTrue(store.hold(Collections.singletonList(new RequiredProduct("Stool", 1))));
+        AddArticleRequest restock = new AddArticleRequest();
+        restock.setName("leg");
+        restock.setStock(4);
+        store.restockArticle(restock);
+
+        List<StockChange> changes = new ArrayList<>();
+        assertEquals(3, feed.read(0, changes::add));
+        assertEquals(List.of(0L, 1L, 2L), changes.stream().map(StockChange::getSequence).toList());
+        assertChange(changes.get(0), StockChange.PRODUCT, "Stool", 3, -2);
+        assertChange(changes.get(1), StockChange.PRODUCT, "Stool", 2, -1);
+        assertChange(changes.get(2), StockChange.ARTICLE, "1", 14, 4);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that imports publish the difference to the previous stock
+     */
+    @Test
+    void testImportsPublishDifference() {
+        store.upsertProducts(Collections.singletonList(new Product("Stool",
+                Collections.singletonList(new ContainArticle("1", 3)), 10, 12)));
+        List<StockChange> changes = new ArrayList<>();
+        feed.read(0, changes::add);
+        assertChange(changes.get(0), StockChange.PRODUCT, "Stool", 12, 7);
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a reader behind by more than the ring holds is told to start over
+     */
+    @Test
+    void testReaderBehindRingIsLapped() {
+        for (int i = 0; i < 9; i++) {
+            store.cancelOrder(Collections.singletonList(new RequiredProduct("Stool", 1)));
+        }
+        assertEquals(StockFeed.LAPPED, feed.read(0, change -> fail("lapped reader got a change")));
+        assertEquals(StockFeed.LAPPED, feed.read(10, change -> fail("reader ahead of the feed got a change")));
+        List<StockChange> changes = new ArrayList<>();
+        assertEquals(9, feed.read(1, changes::add));
+        assertEquals(8, changes.size());
+        assertEquals(14, changes.get(7).getStock());
+    }
+
+    private static void assertChange(StockChange change, String type, String id, int stock, int delta) {
+        assertEquals(type, change.getType());
+        assertEquals(id, change.getId());
+        assertEquals(stock, change.getStock());
+        assertEquals(delta, change.getDelta());
+    }
+}
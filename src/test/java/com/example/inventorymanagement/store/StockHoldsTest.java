@@ -0,0 +1,106 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.RequiredProduct;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockHoldsTest {
+    private static final List<RequiredProduct> ONE_STOOL = Collections.singletonList(new RequiredProduct("Stool", 1));
+
+    private InventoryStore store;
+    private StockHolds stockHolds;
+
+    @BeforeEach
+    public void setUp() {
+        store = new InventoryStore(Collections.singletonList(new Article("1", "leg", 10)),
+                Collections.singletonList(new Product("Stool", Collections.singletonList(new ContainArticle("1", 3)),
+                        10, 200_000)));
+        stockHolds = new StockHolds(store, 10, 64);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stockHolds.close();
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an unconfirmed hold is released by the wheel
+     */
+    @Test
+    void testExpiredHoldIsReleased() throws InterruptedException {
+        long holdId = stockHolds.create(Collections.singletonList(new RequiredProduct("Stool", 150_000)), 30);
+        assertEquals(50_000, store.getProductStock().get("Stool"));
+        awaitNoActiveHolds();
+        assertEquals(200_000, store.getProductStock().get("Stool"));
+        assertFalse(stockHolds.confirm(holdId));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a hold confirmed after its deadline is not turned into an order
+     */
+    @Test
+    void testConfirmAfterDeadlineFails() throws InterruptedException {
+        try (StockHolds slowWheel = new StockHolds(store, 60_000, 64)) {
+            long holdId = slowWheel.create(ONE_STOOL, 1);
+            Thread.sleep(5);
+            assertFalse(slowWheel.confirm(holdId));
+            assertEquals(200_000, store.getProductStock().get("Stool"));
+            assertEquals(200_000, store.getProducts().get(0).getStock());
+        }
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that holds longer than one rotation of the wheel survive it
+     */
+    @Test
+    void testHoldOutlivesWheelRotation() throws InterruptedException {
+        long holdId = stockHolds.create(ONE_STOOL, 2_000);
+        Thread.sleep(1_000);
+        assertEquals(1, stockHolds.activeHolds());
+        assertTrue(stockHolds.confirm(holdId));
+        assertEquals(199_999, store.getProducts().get(0).getStock());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test creating and expiring a large number of holds
+     */
+    @Test
+    void testManyHoldsExpire() throws InterruptedException {
+        for (int i = 0; i < 200_000; i++) {
+            assertNotEquals(StockHolds.NO_HOLD, stockHolds.create(ONE_STOOL, 3_000 + i % 500));
+        }
+        assertEquals(StockHolds.NO_HOLD, stockHolds.create(ONE_STOOL, 3_000));
+        assertEquals(0, store.getProductStock().get("Stool"));
+        awaitNoActiveHolds();
+        assertEquals(200_000, store.getProductStock().get("Stool"));
+    }
+
+    private void awaitNoActiveHolds() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (stockHolds.activeHolds() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, stockHolds.activeHolds());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a time to live out of range is refused before any stock is held
+     */
+    @Test
+    void testTimeToLiveOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> stockHolds.create(ONE_STOOL, 0));
+        assertThrows(IllegalArgumentException.class, () -> stockHolds.create(ONE_STOOL, StockHolds.MAX_TTL_MILLIS + 1));
+        assertThrows(IllegalArgumentException.class, () -> stockHolds.create(ONE_STOOL, Long.MAX_VALUE));
+        assertEquals(200_000, store.getProductStock().get("Stool"));
+        assertEquals(0, stockHolds.activeHolds());
+    }
+}
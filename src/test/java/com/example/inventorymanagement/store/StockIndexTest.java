@@ -0,0 +1,105 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.journal.JournalEntry;
+import com.example.inventorymanagement.model.Article;
+import com.example.inventorymanagement.model.ContainArticle;
+import com.example.inventorymanagement.model.Product;
+import com.example.inventorymanagement.model.RequiredProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockIndexTest {
+    private InventoryStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new InventoryStore(Arrays.asList(new Article("1", "leg", 12), new Article("2", "screw", 3),
+                new Article("3", "seat", 7)),
+                Arrays.asList(new Product("Stool", Collections.singletonList(new ContainArticle("1", 3)), 10, 5),
+                        new Product("Chair", Collections.singletonList(new ContainArticle("9", 1)), 20, 2),
+                        new Product("Table", Collections.singletonList(new ContainArticle("3", 4)), 50, 9)));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test threshold and range queries on articles, without articles that are only referenced
+     */
+    @Test
+    void testArticlesByStock() {
+        assertEquals(List.of("2", "3"), ids(store.getArticlesByStock(Integer.MIN_VALUE, 7, 10)));
+        assertEquals(List.of("3", "1"), ids(store.getArticlesByStock(4, 100, 10)));
+        assertEquals(List.of("2"), ids(store.getArticlesByStock(0, 100, 1)));
+        assertTrue(store.getArticlesByStock(20, 10, 10).isEmpty());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that orders, holds and recovery move products in the index
+     */
+    @Test
+    void testProductsFollowStockChanges() {
+        assertEquals(List.of("Table", "Stool", "Chair"), List.copyOf(store.getTopProducts(3, false).keySet()));
+        assertTrue(store.placeOrder(Collections.singletonList(new RequiredProduct("Table", 8))));
+        assertTrue(store.hold(Collections.singletonList(new RequiredProduct("Stool", 4))));
+        Map<String, Integer> scarcest = store.getTopProducts(2, true);
+        assertEquals(List.of("Stool", "Table"), List.copyOf(scarcest.keySet()));
+        assertEquals(1, scarcest.get("Stool"));
+
+        store.apply(JournalEntry.orderCancelled(Collections.singletonList(new RequiredProduct("Table", 10))));
+        assertEquals(Map.of("Table", 11), store.getProductsByStock(10, 20, 10));
+        assertEquals("Table", store.getTopProducts(1, false).keySet().iterator().next());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that imported stock replaces the indexed stock
+     */
+    @Test
+    void testImportsReindex() {
+        store.upsertArticles(Collections.singletonList(new Article("1", "leg", 1)));
+        assertEquals(List.of("1", "2"), ids(store.getArticlesByStock(Integer.MIN_VALUE, 4, 10)));
+        assertEquals(3, store.getArticlesByStock(Integer.MIN_VALUE, Integer.MAX_VALUE, 10).size());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an id moving ahead of a running scan is visited once
+     */
+    @Test
+    void testMovingIdIsVisitedOnce() {
+        StockIndex index = new StockIndex(2);
+        for (int id = 0; id < 3; id++) {
+            index.add(id);
+            index.update(id, id + 1);
+        }
+        List<Integer> visited = new ArrayList<>();
+        index.range(0, 10, id -> {
+            visited.add(id);
+            if (id == 0) {
+                index.update(0, 5);
+            }
+            return true;
+        });
+        assertEquals(List.of(0, 1, 2), visited);
+
+        visited.clear();
+        index.ordered(false, id -> {
+            visited.add(id);
+            if (id == 0) {
+                index.update(0, -1);
+            }
+            return true;
+        });
+        assertEquals(List.of(0, 2, 1), visited);
+    }
+
+    private static List<String> ids(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        articles.forEach(article -> ids.add(article.getArt_id()));
+        return ids;
+    }
+}
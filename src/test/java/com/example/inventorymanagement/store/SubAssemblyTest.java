@@ -0,0 +1,212 @@
+package com.example.inventorymanagement.store;
+
+import com.example.inventorymanagement.model.*;
+import com.example.inventorymanagement.planner.AllocationPlanner;
+import com.example.inventorymanagement.planner.AllocationProblem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubAssemblyTest {
+    private InventoryStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new InventoryStore(Arrays.asList(new Article("1", "runner", 40), new Article("2", "knob", 20),
+                new Article("3", "panel", 10), new Article("4", "mirror", 6)),
+                Arrays.asList(new Product("Drawer", Arrays.asList(new ContainArticle("1", 2), new ContainArticle("2", 1)), 15, 0),
+                        new Product("Cabinet", Collections.singletonList(new ContainArticle("3", 2)),
+                                Collections.singletonList(new ContainProduct("Drawer", 3)), 80, 0),
+                        new Product("Dresser", Collections.singletonList(new ContainArticle("4", 1)),
+                                Arrays.asList(new ContainProduct("Cabinet", 1), new ContainProduct("Drawer", 2)), 200, 0),
+                        new Product("Shelf", Collections.singletonList(new ContainArticle("3", 1)), 10, 0)));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that buildable counts use bills of materials exploded to leaf articles
+     */
+    @Test
+    void testBuildableFromExplodedBom() {
+        Map<String, Integer> buildable = store.getBuildableStock();
+        assertEquals(20, buildable.get("Drawer"));
+        assertEquals(5, buildable.get("Cabinet"));
+        assertEquals(4, buildable.get("Dresser"));
+        assertEquals(10, buildable.get("Shelf"));
+
+        Product cabinet = store.getProducts().get(1);
+        assertEquals(1, cabinet.getContain_articles().size());
+        assertEquals("Drawer", cabinet.getContain_products().get(0).getName());
+        assertEquals(3, cabinet.getContain_products().get(0).getAmount_of());
+        assertNull(store.getProducts().get(0).getContain_products());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that assembling a product with sub-assemblies consumes their leaf articles
+     */
+    @Test
+    void testAssemblyConsumesLeafArticles() {
+        AddProductRequest request = new AddProductRequest();
+        request.setName("Cabinet");
+        request.setStock(2);
+        request.setArticleQuantities(Collections.singletonList(new ContainArticle("3", 2)));
+        request.setProductQuantities(Collections.singletonList(new ContainProduct("Drawer", 3)));
+        assertTrue(store.assembleProduct(request));
+        List<Article> articles = store.getArticles();
+        assertEquals(28, articles.get(0).getStock());
+        assertEquals(14, articles.get(1).getStock());
+        assertEquals(6, articles.get(2).getStock());
+        assertEquals(2, store.getProductStock().get("Cabinet"));
+
+        request.setStock(4);
+        assertFalse(store.assembleProduct(request));
+        request.setProductQuantities(Collections.singletonList(new ContainProduct("Closet", 1)));
+        assertFalse(store.assembleProduct(request));
+        assertEquals(6, store.getArticles().get(2).getStock());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that changing a sub-assembly rebuilds every product containing it and nothing else
+     */
+    @Test
+    void testChangedSubAssemblyInvalidatesAncestors() {
+        store.upsertProducts(Collections.singletonList(new Product("Drawer",
+                Arrays.asList(new ContainArticle("1", 2), new ContainArticle("2", 2)), 15, 0)));
+        Map<String, Integer> buildable = store.getBuildableStock();
+        assertEquals(10, buildable.get("Drawer"));
+        assertEquals(3, buildable.get("Cabinet"));
+        assertEquals(2, buildable.get("Dresser"));
+        assertEquals(10, buildable.get("Shelf"));
+
+        store.restockArticle(restock("knob", 40));
+        assertEquals(5, store.getBuildableStock().get("Cabinet"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that cycles and unknown sub-assemblies are rejected without changing the store
+     */
+    @Test
+    void testCyclesAreRejected() {
+        store.upsertProducts(Arrays.asList(
+                new Product("Drawer", null, Collections.singletonList(new ContainProduct("Dresser", 1)), 15, 0),
+                new Product("Cabinet", null, Collections.singletonList(new ContainProduct("Cabinet", 1)), 15, 0),
+                new Product("Wardrobe", null, Collections.singletonList(new ContainProduct("Closet", 1)), 15, 0)));
+        assertNull(store.getProducts().get(0).getContain_products());
+        assertEquals(20, store.getBuildableStock().get("Drawer"));
+        assertEquals(5, store.getBuildableStock().get("Cabinet"));
+        assertFalse(store.getProductStock().containsKey("Wardrobe"));
+    }
+
+    private static AddArticleRequest restock(String name, int stock) {
+        AddArticleRequest request = new AddArticleRequest();
+        request.setName(name);
+        request.setStock(stock);
+        return request;
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an import applies products before the sub-assemblies they name and rejects those never defined or cyclic
+     */
+    @Test
+    void testImportResolvesLaterSubAssemblies() {
+        ImportReport report = new ImportReport();
+        ProductImport productImport = new ProductImport(store);
+        List<Product> products = Arrays.asList(
+                new Product("Wardrobe", Collections.emptyList(), List.of(new ContainProduct("Door", 2)), 300, 0),
+                new Product("Ring", Collections.emptyList(), List.of(new ContainProduct("Loop", 1)), 1, 0),
+                new Product("Loop", Collections.emptyList(), List.of(new ContainProduct("Ring", 1)), 1, 0),
+                new Product("Desk", Collections.emptyList(), List.of(new ContainProduct("Leg", 4)), 90, 0),
+                new Product("Door", Collections.singletonList(new ContainArticle("3", 3)), 40, 0),
+                new Product("Drawer", Collections.singletonList(new ContainArticle("2", 1)),
+                        List.of(new ContainProduct("Dresser", 1)), 15, 0));
+        for (Product product : products) {
+            report.accept();
+            productImport.accept(List.of(product));
+        }
+        productImport.finish(report);
+
+        assertEquals(2, report.getAccepted());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of("Ring", "Loop", "Desk", "Drawer"),
+                report.getErrors().stream().map(ImportError::getKey).toList());
+        assertEquals(1, store.getBuildableStock().get("Wardrobe"));
+        assertFalse(store.getBuildableStock().containsKey("Desk"));
+        assertEquals(20, store.getBuildableStock().get("Drawer"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that a later definition of a product wins over an earlier one held back
+     */
+    @Test
+    void testLaterDefinitionWins() {
+        store.upsertProducts(Arrays.asList(
+                new Product("Bed", Collections.emptyList(), List.of(new ContainProduct("Frame", 1)), 100, 0),
+                new Product("Bed", Collections.singletonList(new ContainArticle("3", 5)), 100, 0),
+                new Product("Frame", Collections.singletonList(new ContainArticle("1", 1)), 20, 0)));
+        assertEquals(2, store.getBuildableStock().get("Bed"));
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that compacting the bills of materials keeps every product's range, including rewritten ancestors
+     */
+    @Test
+    void testBomCompactionKeepsRanges() {
+        boolean compacted = false;
+        int size = (int) ReflectionTestUtils.getField(store, "bomSize");
+        for (int round = 0; round < 200; round++) {
+            store.upsertProducts(Collections.singletonList(new Product("Drawer",
+                    Arrays.asList(new ContainArticle("1", 1 + round % 3), new ContainArticle("2", 1 + round % 2)), 15, 0)));
+            int next = (int) ReflectionTestUtils.getField(store, "bomSize");
+            compacted |= next < size;
+            size = next;
+        }
+        store.upsertProducts(Collections.singletonList(new Product("Drawer",
+                Arrays.asList(new ContainArticle("1", 4), new ContainArticle("2", 1)), 15, 0)));
+        assertTrue(compacted);
+
+        Map<String, Integer> buildable = store.getBuildableStock();
+        assertEquals(10, buildable.get("Drawer"));
+        assertEquals(3, buildable.get("Cabinet"));
+        assertEquals(2, buildable.get("Dresser"));
+        assertEquals(10, buildable.get("Shelf"));
+
+        List<Product> products = store.getProducts();
+        assertEquals(4, products.get(0).getContain_articles().get(0).getAmount_of());
+        assertEquals(1, products.get(0).getContain_articles().get(1).getAmount_of());
+        assertEquals("Drawer", products.get(1).getContain_products().get(0).getName());
+        assertEquals(3, products.get(1).getContain_products().get(0).getAmount_of());
+        assertEquals(2, products.get(2).getContain_products().size());
+        assertEquals("Cabinet", products.get(2).getContain_products().get(0).getName());
+        assertEquals("3", products.get(3).getContain_articles().get(0).getArt_id());
+    }
+
+    /**
+     * <B>Description :</B> Invoked to test that an allocation problem uses exploded bills of materials and agrees with buildable stock on products needing no article
+     */
+    @Test
+    void testAllocationProblemOfSubAssemblies() {
+        store.upsertProducts(Collections.singletonList(new Product("Voucher", Collections.emptyList(), 5, 0)));
+        AllocationProblem problem = store.allocationProblem(Arrays.asList(new RequiredProduct("Dresser", 1),
+                new RequiredProduct("Drawer", 2), new RequiredProduct("Voucher", 3), new RequiredProduct("Cabinet", 1),
+                new RequiredProduct("Drawer", 1)));
+        assertEquals(4, problem.productCount());
+        assertEquals(4, problem.articleCount());
+        assertEquals("Drawer", problem.product(1));
+        assertEquals(3, problem.demand(1));
+
+        new AllocationPlanner(ForkJoinPool.commonPool()).plan(problem);
+        assertEquals(1, problem.allocated(0));
+        assertEquals(3, problem.allocated(1));
+        assertEquals(0, problem.allocated(2));
+        assertEquals(1, problem.allocated(3));
+        assertEquals(2, problem.components());
+        assertEquals(0, store.getBuildableStock().get("Voucher"));
+    }
+}